@@ -21,6 +21,7 @@ import java.util.Date;
 import static java.lang.System.currentTimeMillis;
 import static java.time.Duration.ofMillis;
 import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.lang.ArgumentUtils.requireNotEmpty;
 import static net.microfalx.lang.FileUtils.validateDirectoryExists;
 import static net.microfalx.lang.StringUtils.*;
 import static net.microfalx.lang.UriUtils.parseUri;
@@ -40,6 +41,7 @@ public class MavenStorage {
     private static final String TRENDS_DIRECTORY_NAME = "trends";
     private static final String SESSIONS_DIRECTORY_NAME = "sessions";
     private static final String STAGING_DIRECTORY_NAME = "staging";
+    private static final String CACHE_DIRECTORY_NAME = "cache";
 
     private static Resource storageDirectory;
     private static Resource sessionDirectory;
@@ -140,6 +142,33 @@ public class MavenStorage {
         return trendDirectory;
     }
 
+    /**
+     * Returns the directory used to cache data expensive to calculate, shared across builds.
+     *
+     * @return a non-null instance
+     */
+    public static synchronized Resource getLocalCacheDirectory() {
+        return getStorageDirectory().resolve(CACHE_DIRECTORY_NAME, DIRECTORY);
+    }
+
+    /**
+     * Returns a resource used to cache (across builds) the data extracted from a local file or directory.
+     * <p>
+     * The cache file name is derived from the absolute path of the source, so the data follows the source.
+     *
+     * @param type   the type of the cached data (used as directory name)
+     * @param source the file or directory which was processed
+     * @return a non-null instance
+     */
+    public static Resource getLocalCache(String type, File source) {
+        requireNotEmpty(type);
+        requireNonNull(source);
+        Hashing hashing = Hashing.create();
+        hashing.update(source.getAbsolutePath());
+        return getLocalCacheDirectory().resolve(toIdentifier(type), DIRECTORY)
+                .resolve(hashing.asString() + ".data", Resource.Type.FILE);
+    }
+
     /**
      * Stores trend metrics.
      *
@@ -317,6 +317,24 @@ public class MavenUtils {
         return defaultValue;
     }
 
+    /**
+     * Returns a property value as a double.
+     *
+     * @param session      the session
+     * @param name         the property name
+     * @param defaultValue the default value
+     * @return the value
+     */
+    public static double getProperty(MavenSession session, String name, double defaultValue) {
+        String value = getProperty(session, name, (String) null);
+        try {
+            if (isNotEmpty(value)) return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            // ignore and fall back to default value
+        }
+        return defaultValue;
+    }
+
     /**
      * Returns a property or environment variable value.
      * <p>
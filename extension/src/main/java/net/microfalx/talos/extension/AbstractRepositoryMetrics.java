@@ -60,7 +60,7 @@ public abstract class AbstractRepositoryMetrics {
     }
 
     public Duration getArtifactInstallDuration() {
-        return TimeUtils.sum(getMetrics().stream().map(ArtifactMetrics::getArtifactResolveDuration));
+        return TimeUtils.sum(getMetrics().stream().map(ArtifactMetrics::getArtifactInstallDuration));
     }
 
     public Duration getArtifactDeployDuration() {
@@ -0,0 +1,330 @@
+package net.microfalx.talos.extension;
+
+import net.microfalx.lang.Hashing;
+import net.microfalx.resource.ResourceUtils;
+import net.microfalx.talos.core.MavenLogger;
+import net.microfalx.talos.core.MavenStorage;
+import net.microfalx.talos.core.MavenTracker;
+import net.microfalx.talos.model.CompileMetrics;
+import net.microfalx.talos.model.MojoMetrics;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.joor.Reflect;
+import org.joor.ReflectException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.lang.StringUtils.toIdentifier;
+import static net.microfalx.resource.Resource.Type.DIRECTORY;
+import static net.microfalx.talos.extension.MavenUtils.getExecutionKey;
+
+/**
+ * Collects metrics about the compilation of each module (sources, lines, generated sources and classes emitted).
+ * <p>
+ * The source roots and the output directory are scanned in the background after the compiler finishes, so the scan
+ * does not change the duration of the compilation or delay the next mojo of the module.
+ * <p>
+ * When enabled, the time spent by the compiler in each phase is captured with a <code>javac</code> plugin
+ * ({@link JavacTimingPlugin}), added to the classpath and to the arguments of the compiler mojo before it
+ * executes. The plugin JAR is cached (by content) across builds, so the compiler plugin does not see a changed
+ * classpath. The plugin is injected only in the versions of the compiler plugin with known fields (3.1 to 3.x) and
+ * it is not injected when the compiler is forked (it could be an older JDK), when annotation
+ * processors have their own path or when the module is a Java module (<code>javac</code> would not find the plugin).
+ */
+final class CompilerMetrics {
+
+    private static final MavenLogger LOGGER = MavenLogger.create(CompilerMetrics.class);
+
+    private static final String COMPILE_GOAL = "compiler:compile";
+    private static final String TEST_COMPILE_GOAL = "compiler:testCompile";
+    private static final String SOURCE_EXTENSION = ".java";
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String MODULE_DESCRIPTOR = "module-info.java";
+
+    // the plugin class is referenced by name, it cannot be loaded without the compiler API
+    private static final String PLUGIN_CLASS_NAME = "net.microfalx.talos.extension.JavacTimingPlugin";
+    private static final String PLUGIN_SERVICE = "META-INF/services/com.sun.source.util.Plugin";
+    private static final String PLUGIN_CACHE_TYPE = "compiler";
+    private static final ComparableVersion MINIMUM_COMPILER_VERSION = new ComparableVersion("3.1");
+    private static final ComparableVersion MAXIMUM_COMPILER_VERSION = new ComparableVersion("4.0.0-alpha");
+    private static final Duration SCAN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final MavenTracker tracker = new MavenTracker(CompilerMetrics.class);
+    private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+    private final Map<String, CompileMetrics> compiles = new ConcurrentHashMap<>();
+    private final Map<String, File> timingFiles = new ConcurrentHashMap<>();
+    private final ExecutorService scanner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Talos Compile Scanner");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private File timingDirectory;
+    private File pluginJar;
+
+    /**
+     * Returns the compilations of all modules.
+     * <p>
+     * The method waits for the sources still scanned in the background, and it is expected to be called once, at
+     * the end of the session.
+     *
+     * @return a non-null instance
+     */
+    Collection<CompileMetrics> getCompiles() {
+        scanner.shutdown();
+        try {
+            if (!scanner.awaitTermination(SCAN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Timeout while scanning the compiled sources");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Collection<CompileMetrics> compiles = new ArrayList<>(this.compiles.values());
+        CompileMetrics.detectSlow(compiles);
+        return compiles;
+    }
+
+    void start(MavenProject project, Mojo mojo, MojoExecution execution, boolean timing) {
+        requireNonNull(project);
+        requireNonNull(mojo);
+        requireNonNull(execution);
+        String goal = net.microfalx.talos.core.MavenUtils.getGoal(execution);
+        if (!isCompile(goal)) return;
+        String key = getExecutionKey(execution);
+        if (timing && isSupported(execution)) {
+            tracker.track("Inject Compiler Timing", t -> {
+                try {
+                    injectTimingPlugin(key, project, mojo, execution, TEST_COMPILE_GOAL.equals(goal));
+                } catch (IOException e) {
+                    tracker.logFailure("Create Compiler Plugin", e);
+                }
+            }, project);
+        }
+        startTimes.put(key, System.currentTimeMillis());
+    }
+
+    void stop(MavenProject project, MojoExecution execution, MojoMetrics mojoMetrics) {
+        requireNonNull(project);
+        requireNonNull(execution);
+        requireNonNull(mojoMetrics);
+        String goal = net.microfalx.talos.core.MavenUtils.getGoal(execution);
+        if (!isCompile(goal)) return;
+        String key = getExecutionKey(execution);
+        Long startTime = startTimes.remove(key);
+        File timingFile = timingFiles.remove(key);
+        if (startTime == null) return;
+        tracker.track("Compile Metrics", t -> {
+            boolean test = TEST_COMPILE_GOAL.equals(goal);
+            CompileMetrics compile = new CompileMetrics(net.microfalx.talos.core.MavenUtils.getId(project), execution.getGoal(),
+                    execution.getExecutionId());
+            long endTime = System.currentTimeMillis();
+            compile.setDuration(Duration.ofMillis(endTime - startTime));
+            File buildDirectory = new File(project.getBuild().getDirectory());
+            Set<File> sourceRoots = new LinkedHashSet<>();
+            for (String sourceRoot : test ? project.getTestCompileSourceRoots() : project.getCompileSourceRoots()) {
+                sourceRoots.add(new File(sourceRoot));
+            }
+            // the default location of the sources generated by annotation processors
+            sourceRoots.add(new File(buildDirectory, test ? "generated-test-sources/test-annotations" : "generated-sources/annotations"));
+            File outputDirectory = new File(test ? project.getBuild().getTestOutputDirectory() : project.getBuild().getOutputDirectory());
+            scanner.execute(() -> tracker.track("Scan Sources", t2 -> {
+                try {
+                    for (File sourceRoot : sourceRoots) {
+                        scanSources(compile, sourceRoot, isParent(buildDirectory, sourceRoot));
+                    }
+                    compile.setClasses(countClasses(outputDirectory, startTime, endTime));
+                } catch (IOException e) {
+                    tracker.logFailure("Scan Sources", e);
+                }
+                if (timingFile != null) {
+                    try {
+                        readTimings(compile, timingFile);
+                        mojoMetrics.addPhases(compile);
+                    } catch (IOException e) {
+                        tracker.logFailure("Read Compiler Timing", e);
+                    }
+                }
+                compiles.put(compile.getId(), compile);
+            }));
+        });
+    }
+
+    private void injectTimingPlugin(String key, MavenProject project, Mojo mojo, MojoExecution execution, boolean test) throws IOException {
+        Reflect reflect = Reflect.on(mojo);
+        if (Boolean.TRUE.equals(getField(reflect, "fork"))) return;
+        Collection<?> processorPaths = getField(reflect, "annotationProcessorPaths");
+        if (processorPaths != null && !processorPaths.isEmpty()) return;
+        if (isModule(test ? project.getTestCompileSourceRoots() : project.getCompileSourceRoots())) return;
+        List<String> classpathElements = getField(reflect, "classpathElements");
+        if (classpathElements == null) return;
+        File pluginJar = getPluginJar();
+        String fileName = net.microfalx.talos.core.MavenUtils.getId(project) + ":" + execution.getExecutionId();
+        File timingFile = new File(timingDirectory, toIdentifier(fileName) + ".properties");
+        Files.deleteIfExists(timingFile.toPath());
+        List<String> compilerArgs = getField(reflect, "compilerArgs");
+        compilerArgs = compilerArgs != null ? new ArrayList<>(compilerArgs) : new ArrayList<>();
+        compilerArgs.add("-Xplugin:" + JavacTimingPlugin.NAME + " " + timingFile.toURI());
+        classpathElements = new ArrayList<>(classpathElements);
+        classpathElements.add(pluginJar.getAbsolutePath());
+        reflect.set("compilerArgs", compilerArgs);
+        reflect.set("classpathElements", classpathElements);
+        timingFiles.put(key, timingFile);
+    }
+
+    private void readTimings(CompileMetrics compile, File timingFile) throws IOException {
+        if (!timingFile.exists()) return;
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(timingFile.toPath(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } finally {
+            Files.deleteIfExists(timingFile.toPath());
+        }
+        long parse = getTiming(properties, "PARSE");
+        long enter = getTiming(properties, "ENTER");
+        long process = getTiming(properties, "ANNOTATION_PROCESSING") + getTiming(properties, "ANNOTATION_PROCESSING_ROUND");
+        long analyze = getTiming(properties, "ANALYZE");
+        long generate = getTiming(properties, "GENERATE");
+        long other = getTiming(properties, "COMPILATION") - parse - enter - process - analyze - generate;
+        compile.setPhaseDuration(CompileMetrics.Phase.PARSE, Duration.ofNanos(parse))
+                .setPhaseDuration(CompileMetrics.Phase.ENTER, Duration.ofNanos(enter))
+                .setPhaseDuration(CompileMetrics.Phase.PROCESS, Duration.ofNanos(process))
+                .setPhaseDuration(CompileMetrics.Phase.ANALYZE, Duration.ofNanos(analyze))
+                .setPhaseDuration(CompileMetrics.Phase.GENERATE, Duration.ofNanos(generate))
+                .setPhaseDuration(CompileMetrics.Phase.OTHER, Duration.ofNanos(Math.max(0, other)))
+                .setRounds((int) getTiming(properties, JavacTimingPlugin.ROUNDS));
+    }
+
+    private synchronized File getPluginJar() throws IOException {
+        if (pluginJar != null) return pluginJar;
+        timingDirectory = Files.createTempDirectory("talos-javac").toFile();
+        timingDirectory.deleteOnExit();
+        String pluginClass = PLUGIN_CLASS_NAME.replace('.', '/') + CLASS_EXTENSION;
+        byte[] pluginBytes;
+        try (InputStream inputStream = CompilerMetrics.class.getClassLoader().getResourceAsStream(pluginClass)) {
+            if (inputStream == null) throw new FileNotFoundException("Compiler plugin " + pluginClass);
+            pluginBytes = inputStream.readAllBytes();
+        }
+        // the JAR is on the classpath of the compiler, a new file (timestamp) on every build would
+        // be seen by the compiler plugin as a changed dependency and trigger a full compilation
+        Hashing hashing = Hashing.create();
+        hashing.update(new String(pluginBytes, StandardCharsets.ISO_8859_1));
+        File directory = ResourceUtils.toFile(MavenStorage.getLocalCacheDirectory().resolve(PLUGIN_CACHE_TYPE, DIRECTORY));
+        File jar = new File(directory, "talos-javac-plugin-" + hashing.asString() + ".jar");
+        if (!jar.exists()) {
+            Files.createDirectories(directory.toPath());
+            File tempJar = File.createTempFile("talos-javac-plugin", ".jar", directory);
+            try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(tempJar))) {
+                outputStream.putNextEntry(new JarEntry(pluginClass));
+                outputStream.write(pluginBytes);
+                outputStream.putNextEntry(new JarEntry(PLUGIN_SERVICE));
+                outputStream.write(PLUGIN_CLASS_NAME.getBytes(StandardCharsets.UTF_8));
+            }
+            try {
+                Files.move(tempJar.toPath(), jar.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // another build created the same JAR in the meantime
+                Files.deleteIfExists(tempJar.toPath());
+                if (!jar.exists()) throw e;
+            }
+        }
+        pluginJar = jar;
+        return pluginJar;
+    }
+
+    private static boolean isSupported(MojoExecution execution) {
+        // the plugin is injected by changing private fields of the compiler mojo, known only for 3.x
+        String version = execution.getVersion();
+        if (version == null) return false;
+        ComparableVersion comparableVersion = new ComparableVersion(version);
+        return comparableVersion.compareTo(MINIMUM_COMPILER_VERSION) >= 0 && comparableVersion.compareTo(MAXIMUM_COMPILER_VERSION) < 0;
+    }
+
+    private void scanSources(CompileMetrics compile, File directory, boolean generated) throws IOException {
+        if (!directory.isDirectory()) return;
+        int files = 0;
+        long lines = 0;
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (!path.getFileName().toString().endsWith(SOURCE_EXTENSION)) continue;
+                files++;
+                lines += countLines(path);
+            }
+        }
+        compile.addSources(files, lines, generated);
+    }
+
+    private int countClasses(File directory, long startTime, long endTime) throws IOException {
+        if (!directory.isDirectory()) return 0;
+        int classes = 0;
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (!path.getFileName().toString().endsWith(CLASS_EXTENSION)) continue;
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                // file systems with a coarse timestamp resolution could report a time before the compiler started,
+                // and the classes written by a later mojo (the scan runs in the background) are excluded
+                long modifiedTime = attributes.lastModifiedTime().toMillis();
+                if (modifiedTime >= startTime - 1000 && modifiedTime <= endTime + 1000) classes++;
+            }
+        }
+        return classes;
+    }
+
+    private static long countLines(Path path) throws IOException {
+        long lines = 0;
+        byte[] buffer = new byte[8192];
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                for (int i = 0; i < count; i++) {
+                    if (buffer[i] == '\n') lines++;
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static boolean isParent(File parent, File file) {
+        return file.getAbsoluteFile().toPath().normalize().startsWith(parent.getAbsoluteFile().toPath().normalize());
+    }
+
+    private static boolean isModule(Collection<String> sourceRoots) {
+        for (String sourceRoot : sourceRoots) {
+            if (new File(sourceRoot, MODULE_DESCRIPTOR).exists()) return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T getField(Reflect reflect, String name) {
+        try {
+            return (T) reflect.get(name);
+        } catch (ReflectException e) {
+            return null;
+        }
+    }
+
+    private static long getTiming(Properties properties, String name) {
+        String value = properties.getProperty(name);
+        return value != null ? Long.parseLong(value.trim()) : 0;
+    }
+
+    private static boolean isCompile(String goal) {
+        return COMPILE_GOAL.equals(goal) || TEST_COMPILE_GOAL.equals(goal);
+    }
+}
@@ -0,0 +1,310 @@
+package net.microfalx.talos.extension;
+
+import net.microfalx.lang.Hashing;
+import net.microfalx.resource.Resource;
+import net.microfalx.resource.ResourceUtils;
+import net.microfalx.talos.core.MavenStorage;
+import net.microfalx.talos.core.MavenTracker;
+import net.microfalx.talos.model.DuplicateClassMetrics;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.project.MavenProject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.lang.ExceptionUtils.getRootCauseDescription;
+
+/**
+ * Detects classes present in more than one artifact of the same module classpath.
+ * <p>
+ * Only the central directory of each JAR is read (memory mapped), and the class names are cached across builds
+ * by the checksum of the JAR (the <code>.sha1</code> file stored by Maven next to the artifact, if available), its
+ * size and last modified time; a SNAPSHOT can be replaced without the checksum file being updated.
+ */
+final class DuplicateClassScanner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DuplicateClassScanner.class);
+
+    private static final String CACHE_TYPE = "classes";
+    private static final int VERSION = 2;
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAXIMUM_COMMENT_SIZE = 0xFFFF;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE = 56;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String VERSIONS_DIRECTORY = "META-INF/";
+
+    private final MavenTracker tracker = new MavenTracker(DuplicateClassScanner.class);
+    private final Map<String, Map<File, String>> classpaths = new ConcurrentHashMap<>();
+
+    /**
+     * Registers an artifact resolved for a module.
+     *
+     * @param project  the module
+     * @param artifact the artifact
+     */
+    void register(MavenProject project, Artifact artifact) {
+        requireNonNull(project);
+        requireNonNull(artifact);
+        File file = artifact.getFile();
+        if (file == null || !file.isFile() || !file.getName().endsWith(".jar")) return;
+        String name = artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+        if (artifact.hasClassifier()) name += ":" + artifact.getClassifier();
+        classpaths.computeIfAbsent(net.microfalx.talos.core.MavenUtils.getId(project), k -> new ConcurrentHashMap<>())
+                .put(file, name);
+    }
+
+    /**
+     * Scans the artifacts registered for each module and groups the duplicate classes by the artifacts which contain them.
+     *
+     * @param localRepository the local repository, used to locate the cache
+     * @return a non-null instance, ordered by the number of duplicate classes
+     */
+    Collection<DuplicateClassMetrics> scan(File localRepository) {
+        requireNonNull(localRepository);
+        Cache cache = new Cache(MavenStorage.getLocalCache(CACHE_TYPE, localRepository));
+        cache.read();
+        Map<File, String[]> classesByFile = new HashMap<>();
+        Map<String, DuplicateClassMetrics> duplicates = new HashMap<>();
+        for (Map.Entry<String, Map<File, String>> classpath : classpaths.entrySet()) {
+            Map<String, List<String>> artifactsByClass = new HashMap<>();
+            for (Map.Entry<File, String> artifact : classpath.getValue().entrySet()) {
+                String[] classes = classesByFile.computeIfAbsent(artifact.getKey(), file -> getClasses(cache, file));
+                for (String className : classes) {
+                    artifactsByClass.computeIfAbsent(className, k -> new ArrayList<>(1)).add(artifact.getValue());
+                }
+            }
+            for (Map.Entry<String, List<String>> entry : artifactsByClass.entrySet()) {
+                if (entry.getValue().size() < 2) continue;
+                DuplicateClassMetrics duplicate = duplicates.computeIfAbsent(getKey(entry.getValue()),
+                        k -> new DuplicateClassMetrics(entry.getValue()));
+                duplicate.addModule(classpath.getKey());
+                // the same classes are found again in each module which has these artifacts, count them once
+                if (duplicate.getModules().size() == 1) duplicate.addClass(entry.getKey());
+            }
+        }
+        cache.store();
+        List<DuplicateClassMetrics> result = new ArrayList<>(duplicates.values());
+        result.sort(Comparator.comparing(DuplicateClassMetrics::getClassCount).reversed());
+        return result;
+    }
+
+    private String[] getClasses(Cache cache, File file) {
+        String key = getCacheKey(file);
+        String[] classes = cache.get(key);
+        if (classes != null) return classes;
+        try {
+            classes = readClasses(file);
+        } catch (IOException e) {
+            tracker.logFailure("Read Classes", e);
+            classes = new String[0];
+        }
+        cache.put(key, classes);
+        return classes;
+    }
+
+    private static String getKey(List<String> artifacts) {
+        List<String> sortedArtifacts = new ArrayList<>(artifacts);
+        Collections.sort(sortedArtifacts);
+        return String.join(", ", sortedArtifacts);
+    }
+
+    /**
+     * Returns the key of an artifact in the cache, the checksum of the artifact with its size and last modified time.
+     *
+     * @param file the artifact
+     * @return a non-null instance
+     */
+    static String getCacheKey(File file) {
+        return getChecksum(file) + ":" + file.length() + ":" + file.lastModified();
+    }
+
+    /**
+     * Returns the checksum of an artifact, from the checksum file stored by Maven, or derived from the file
+     * path, size and last modified time.
+     *
+     * @param file the artifact
+     * @return a non-null instance
+     */
+    static String getChecksum(File file) {
+        File checksumFile = new File(file.getParentFile(), file.getName() + ".sha1");
+        if (checksumFile.isFile()) {
+            try {
+                String checksum = Files.readString(checksumFile.toPath(), StandardCharsets.US_ASCII).trim();
+                int index = checksum.indexOf(' ');
+                if (index > 0) checksum = checksum.substring(0, index);
+                if (!checksum.isEmpty()) return checksum;
+            } catch (IOException e) {
+                // fallback to file attributes
+            }
+        }
+        Hashing hashing = Hashing.create();
+        hashing.update(file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified());
+        return hashing.asString();
+    }
+
+    /**
+     * Returns the classes of a JAR, based only on the central directory of the archive.
+     * <p>
+     * Module descriptors, package descriptors and multi-release versions of the classes are ignored.
+     *
+     * @param file the JAR
+     * @return a non-null instance
+     * @throws IOException if the file cannot be read or it is not a valid archive
+     */
+    static String[] readClasses(File file) throws IOException {
+        requireNonNull(file);
+        try {
+            return doReadClasses(file);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("Invalid central directory in " + file, e);
+        }
+    }
+
+    private static String[] doReadClasses(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < END_OF_CENTRAL_DIRECTORY_SIZE) throw new IOException("Not an archive: " + file);
+            int tailSize = (int) Math.min(size, END_OF_CENTRAL_DIRECTORY_SIZE + MAXIMUM_COMMENT_SIZE);
+            ByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, size - tailSize, tailSize)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            int end = tailSize - END_OF_CENTRAL_DIRECTORY_SIZE;
+            while (end >= 0 && tail.getInt(end) != END_OF_CENTRAL_DIRECTORY_SIGNATURE) end--;
+            if (end < 0) throw new IOException("Missing central directory in " + file);
+            long entries = tail.getShort(end + 10) & 0xFFFFL;
+            long directorySize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+            long directoryOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+            int locator = end - ZIP64_LOCATOR_SIZE;
+            if ((entries == 0xFFFFL || directoryOffset == 0xFFFFFFFFL) && locator >= 0
+                && tail.getInt(locator) == ZIP64_LOCATOR_SIGNATURE) {
+                long zip64Offset = tail.getLong(locator + 8);
+                if (zip64Offset < 0 || zip64Offset + ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE > size) {
+                    throw new IOException("Invalid ZIP64 central directory in " + file);
+                }
+                ByteBuffer zip64 = channel.map(FileChannel.MapMode.READ_ONLY, zip64Offset,
+                        ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                if (zip64.getInt(0) == ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                    directorySize = zip64.getLong(40);
+                    directoryOffset = zip64.getLong(48);
+                }
+            }
+            if (directoryOffset < 0 || directorySize < 0 || directoryOffset + directorySize > size
+                || directorySize > Integer.MAX_VALUE) {
+                throw new IOException("Invalid central directory in " + file);
+            }
+            ByteBuffer directory = channel.map(FileChannel.MapMode.READ_ONLY, directoryOffset, directorySize)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            List<String> classes = new ArrayList<>();
+            byte[] buffer = new byte[256];
+            int position = 0;
+            while (position + CENTRAL_HEADER_SIZE <= directorySize && directory.getInt(position) == CENTRAL_HEADER_SIGNATURE) {
+                int nameLength = directory.getShort(position + 28) & 0xFFFF;
+                int extraLength = directory.getShort(position + 30) & 0xFFFF;
+                int commentLength = directory.getShort(position + 32) & 0xFFFF;
+                if (position + CENTRAL_HEADER_SIZE + nameLength > directorySize) {
+                    throw new IOException("Truncated central directory in " + file);
+                }
+                if (buffer.length < nameLength) buffer = new byte[nameLength];
+                directory.get(position + CENTRAL_HEADER_SIZE, buffer, 0, nameLength);
+                String name = new String(buffer, 0, nameLength, StandardCharsets.UTF_8);
+                if (isClass(name)) {
+                    classes.add(name.substring(0, name.length() - CLASS_EXTENSION.length()).replace('/', '.'));
+                }
+                position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+            }
+            return classes.toArray(new String[0]);
+        }
+    }
+
+    private static boolean isClass(String name) {
+        return name.endsWith(CLASS_EXTENSION) && !name.startsWith(VERSIONS_DIRECTORY)
+               && !name.endsWith("module-info.class") && !name.endsWith("package-info.class");
+    }
+
+    /**
+     * A cache (persisted across builds) of the classes of each JAR, identified by checksum, size and last modified time.
+     */
+    private static class Cache {
+
+        private final Resource resource;
+        private final Map<String, String[]> entries = new HashMap<>();
+        private final Map<String, String[]> usedEntries = new HashMap<>();
+        private boolean changed;
+
+        private Cache(Resource resource) {
+            this.resource = resource;
+        }
+
+        private String[] get(String key) {
+            String[] classes = entries.get(key);
+            if (classes != null) usedEntries.put(key, classes);
+            return classes;
+        }
+
+        private void put(String key, String[] classes) {
+            usedEntries.put(key, classes);
+            changed = true;
+        }
+
+        private void read() {
+            try {
+                if (!ResourceUtils.exists(resource)) return;
+                try (DataInputStream input = new DataInputStream(new BufferedInputStream(resource.getInputStream()))) {
+                    if (input.readInt() != VERSION) return;
+                    int entryCount = input.readInt();
+                    for (int i = 0; i < entryCount; i++) {
+                        String key = input.readUTF();
+                        String[] classes = new String[input.readInt()];
+                        for (int j = 0; j < classes.length; j++) {
+                            classes[j] = input.readUTF();
+                        }
+                        entries.put(key, classes);
+                    }
+                }
+            } catch (IOException e) {
+                entries.clear();
+                LOGGER.warn("Failed to load class cache {}, root cause: {}", resource, getRootCauseDescription(e));
+            }
+        }
+
+        /**
+         * Stores the cache, if JARs were added or removed since the cache was loaded.
+         * <p>
+         * JARs which were not accessed in this build are discarded, so the cache follows the dependencies.
+         */
+        private void store() {
+            if (!changed && usedEntries.size() == entries.size()) return;
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(resource.getOutputStream()))) {
+                output.writeInt(VERSION);
+                output.writeInt(usedEntries.size());
+                for (Map.Entry<String, String[]> entry : usedEntries.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeInt(entry.getValue().length);
+                    for (String className : entry.getValue()) {
+                        output.writeUTF(className);
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Failed to store class cache {}, root cause: {}", resource, getRootCauseDescription(e));
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package net.microfalx.talos.extension;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.*;
+import net.microfalx.talos.core.MavenLogger;
+import net.microfalx.talos.model.FlightRecordingMetrics;
+import net.microfalx.talos.model.MojoMetrics;
+import org.apache.maven.plugin.MojoExecution;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.talos.extension.MavenUtils.getExecutionKey;
+
+/**
+ * Records the build with the JDK Flight Recorder and summarizes the recording for each mojo.
+ * <p>
+ * The recording uses the <code>default</code> settings (designed to be used in production, with an overhead
+ * around 1%), with lower thresholds for contended monitors and file I/O, since builds are short. The recording is
+ * stored next to the build data, so it can be analyzed later with JDK Mission Control.
+ * <p>
+ * An event is attributed to the mojo executed by the thread which emitted the event, at the time of the event.
+ * Events emitted outside a mojo (Maven itself, other threads) are attributed to Maven.
+ */
+final class FlightRecorder {
+
+    private static final MavenLogger LOGGER = MavenLogger.create(FlightRecorder.class);
+
+    static final String FILE_NAME = "build.jfr";
+
+    private static final String MAVEN_ID = "maven";
+    private static final String MAVEN_NAME = "Maven";
+
+    private final Map<String, Interval> activeIntervals = new ConcurrentHashMap<>();
+    private final Collection<Interval> intervals = new ConcurrentLinkedQueue<>();
+    private Recording recording;
+
+    void start() throws IOException, ParseException {
+        recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName("Talos");
+        recording.setToDisk(true);
+        recording.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(20));
+        recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(5)).withStackTrace();
+        recording.enable("jdk.FileRead").withThreshold(Duration.ofMillis(1));
+        recording.enable("jdk.FileWrite").withThreshold(Duration.ofMillis(1));
+        recording.start();
+        LOGGER.debug("Flight recording started");
+    }
+
+    void mojoStarted(MojoExecution execution, MojoMetrics mojoMetrics) {
+        requireNonNull(execution);
+        requireNonNull(mojoMetrics);
+        activeIntervals.put(getExecutionKey(execution), new Interval(mojoMetrics, Thread.currentThread().getId(), Instant.now()));
+    }
+
+    void mojoStopped(MojoExecution execution) {
+        requireNonNull(execution);
+        Interval interval = activeIntervals.remove(getExecutionKey(execution));
+        if (interval == null) return;
+        interval.endTime = Instant.now();
+        intervals.add(interval);
+    }
+
+    /**
+     * Stops the recording, stores it and summarizes the events of each mojo.
+     *
+     * @param file the file which receives the recording
+     * @return a non-null instance
+     * @throws IOException if an I/O error occurs
+     */
+    Collection<FlightRecordingMetrics> stop(File file) throws IOException {
+        requireNonNull(file);
+        if (recording == null) return Collections.emptyList();
+        try {
+            recording.stop();
+            file.getParentFile().mkdirs();
+            recording.dump(file.toPath());
+        } finally {
+            recording.close();
+            recording = null;
+        }
+        LOGGER.debug("Flight recording stored in {}, size {}", file, file.length());
+        return summarize(file);
+    }
+
+    private Collection<FlightRecordingMetrics> summarize(File file) throws IOException {
+        Map<Long, List<Interval>> intervalsByThread = new HashMap<>();
+        for (Interval interval : intervals) {
+            intervalsByThread.computeIfAbsent(interval.threadId, id -> new ArrayList<>()).add(interval);
+        }
+        Map<Long, ThreadIntervals> threadIntervals = new HashMap<>();
+        intervalsByThread.forEach((threadId, values) -> threadIntervals.put(threadId, new ThreadIntervals(values)));
+        Map<String, FlightRecordingMetrics> metrics = new HashMap<>();
+        try (RecordingFile recordingFile = new RecordingFile(file.toPath())) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample":
+                        getMetrics(metrics, threadIntervals, event, "sampledThread")
+                                .addExecutionSample(getTopFrame(event));
+                        break;
+                    case "jdk.ObjectAllocationSample":
+                        getMetrics(metrics, threadIntervals, event, "eventThread")
+                                .addAllocation(getTopFrame(event), event.getLong("weight"));
+                        break;
+                    case "jdk.JavaMonitorEnter":
+                        RecordedClass monitorClass = event.getClass("monitorClass");
+                        getMetrics(metrics, threadIntervals, event, "eventThread")
+                                .addMonitorWait(monitorClass != null ? monitorClass.getName() : "Unknown", event.getDuration());
+                        break;
+                    case "jdk.FileRead":
+                        getMetrics(metrics, threadIntervals, event, "eventThread")
+                                .addFileRead(event.getLong("bytesRead"), event.getDuration());
+                        break;
+                    case "jdk.FileWrite":
+                        getMetrics(metrics, threadIntervals, event, "eventThread")
+                                .addFileWrite(event.getLong("bytesWritten"), event.getDuration());
+                        break;
+                    default:
+                        // not summarized
+                }
+            }
+        }
+        metrics.values().forEach(FlightRecordingMetrics::trim);
+        return metrics.values();
+    }
+
+    private FlightRecordingMetrics getMetrics(Map<String, FlightRecordingMetrics> metrics, Map<Long, ThreadIntervals> threadIntervals,
+                                              RecordedEvent event, String threadField) {
+        RecordedThread thread = event.hasField(threadField) ? event.getThread(threadField) : null;
+        ThreadIntervals mojoIntervals = thread != null ? threadIntervals.get(thread.getJavaThreadId()) : null;
+        Interval interval = mojoIntervals != null ? mojoIntervals.find(event.getStartTime()) : null;
+        if (interval == null) {
+            return metrics.computeIfAbsent(MAVEN_ID, id -> new FlightRecordingMetrics(MAVEN_ID, MAVEN_NAME));
+        } else {
+            return metrics.computeIfAbsent(interval.mojoId, id -> new FlightRecordingMetrics(interval.mojoId, interval.mojoName));
+        }
+    }
+
+    private static String getTopFrame(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) return "Unknown";
+        RecordedMethod method = stackTrace.getFrames().get(0).getMethod();
+        return method.getType().getName() + "." + method.getName();
+    }
+
+    /**
+     * The mojo intervals of a thread, sorted by start time.
+     * <p>
+     * The intervals of a thread are either nested (forked lifecycles) or disjoint, so the innermost interval which
+     * contains a time is the last interval started before the time, or one of its parents.
+     */
+    private static class ThreadIntervals {
+
+        private final Interval[] intervals;
+        private final int[] parents;
+
+        private ThreadIntervals(List<Interval> values) {
+            intervals = values.toArray(new Interval[0]);
+            // a parent starts before (or with) its children and ends after them
+            Arrays.sort(intervals, Comparator.comparing((Interval interval) -> interval.startTime)
+                    .thenComparing(interval -> interval.endTime, Comparator.reverseOrder()));
+            parents = new int[intervals.length];
+            Deque<Integer> open = new ArrayDeque<>();
+            for (int index = 0; index < intervals.length; index++) {
+                while (!open.isEmpty() && intervals[open.peek()].endTime.isBefore(intervals[index].startTime)) {
+                    open.pop();
+                }
+                parents[index] = open.isEmpty() ? -1 : open.peek();
+                open.push(index);
+            }
+        }
+
+        private Interval find(Instant time) {
+            int low = 0;
+            int high = intervals.length - 1;
+            int index = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (intervals[middle].startTime.isAfter(time)) {
+                    high = middle - 1;
+                } else {
+                    index = middle;
+                    low = middle + 1;
+                }
+            }
+            while (index >= 0 && intervals[index].endTime.isBefore(time)) {
+                index = parents[index];
+            }
+            return index >= 0 ? intervals[index] : null;
+        }
+    }
+
+    private static class Interval {
+
+        private final String mojoId;
+        private final String mojoName;
+        private final long threadId;
+        private final Instant startTime;
+        private Instant endTime;
+
+        private Interval(MojoMetrics mojoMetrics, long threadId, Instant startTime) {
+            this.mojoId = mojoMetrics.getId();
+            this.mojoName = mojoMetrics.getName();
+            this.threadId = threadId;
+            this.startTime = startTime;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package net.microfalx.talos.extension;
+
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.Plugin;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A <code>javac</code> plugin which measures the time spent by the compiler in each phase.
+ * <p>
+ * The plugin runs inside the compiler (it is loaded by <code>javac</code> from the processor path), so it
+ * only depends on the compiler API. The phases are nested (the annotation processing rounds enter the generated
+ * sources, the analysis of a class can trigger the parsing of another source), so each phase is charged only with
+ * its own (exclusive) time. The durations are written as properties (in nanoseconds) in the file received as
+ * argument (as an URI, the plugin arguments are separated by spaces), once the compilation ends.
+ */
+public final class JavacTimingPlugin implements Plugin, TaskListener {
+
+    static final String NAME = "talos-timing";
+    static final String ROUNDS = "rounds";
+
+    private final Deque<TaskEvent.Kind> phases = new ArrayDeque<>();
+    private final long[] durations = new long[TaskEvent.Kind.values().length];
+    private final long startTime = System.nanoTime();
+    private long lastTime = startTime;
+    private int rounds;
+    private Path file;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void init(JavacTask task, String... args) {
+        if (args.length == 0) return;
+        file = Paths.get(URI.create(args[0]));
+        task.addTaskListener(this);
+    }
+
+    @Override
+    public synchronized void started(TaskEvent e) {
+        if (e.getKind() == TaskEvent.Kind.COMPILATION) return;
+        long time = System.nanoTime();
+        if (!phases.isEmpty()) durations[phases.peek().ordinal()] += time - lastTime;
+        phases.push(e.getKind());
+        if (e.getKind() == TaskEvent.Kind.ANNOTATION_PROCESSING_ROUND) rounds++;
+        lastTime = time;
+    }
+
+    @Override
+    public synchronized void finished(TaskEvent e) {
+        if (e.getKind() == TaskEvent.Kind.COMPILATION) {
+            write();
+            return;
+        }
+        if (phases.isEmpty() || phases.peek() != e.getKind()) return;
+        long time = System.nanoTime();
+        durations[phases.pop().ordinal()] += time - lastTime;
+        lastTime = time;
+    }
+
+    private void write() {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            durations[TaskEvent.Kind.COMPILATION.ordinal()] = System.nanoTime() - startTime;
+            for (TaskEvent.Kind kind : TaskEvent.Kind.values()) {
+                writer.println(kind.name() + "=" + durations[kind.ordinal()]);
+            }
+            writer.println(ROUNDS + "=" + rounds);
+        } catch (IOException e) {
+            // the compilation must not fail because the timing cannot be reported
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package net.microfalx.talos.extension;
 
 import net.microfalx.lang.TimeUtils;
+import net.microfalx.talos.model.BuildRegressionMetrics;
 import org.apache.maven.execution.MavenSession;
 
 import java.time.Duration;
@@ -80,6 +81,64 @@ public class MavenConfiguration extends net.microfalx.talos.core.MavenConfigurat
         return getProperty(getSession(), "report.trend.daily", true);
     }
 
+    /**
+     * Returns the ratio (compared with the median of previous builds) above which a test is reported as slower.
+     *
+     * @return a positive number
+     */
+    public double getTestRegressionThreshold() {
+        return getProperty(getSession(), "report.tests.regression.threshold", 2.0d);
+    }
+
+    /**
+     * Returns the minimum increase of a test duration (compared with the median of previous builds) to be reported
+     * as slower; avoids reporting fast tests which are naturally noisy.
+     *
+     * @return a non-null instance
+     */
+    public Duration getTestRegressionMinimumDuration() {
+        return getProperty(getSession(), "report.tests.regression.minimumDuration", ofMillis(250));
+    }
+
+    /**
+     * Returns the score (distance to the median of previous comparable builds, measured in median absolute
+     * deviations) above which a part of the build is reported as slower.
+     *
+     * @return a positive number
+     */
+    public double getBuildRegressionThreshold() {
+        return getProperty(getSession(), "report.regression.threshold", 3.5d);
+    }
+
+    /**
+     * Returns the minimum increase of the duration of a part of the build (compared with the median of previous
+     * comparable builds) to be reported as slower.
+     *
+     * @return a non-null instance
+     */
+    public Duration getBuildRegressionMinimumDuration() {
+        return getProperty(getSession(), "report.regression.minimumDuration", ofMillis(1000));
+    }
+
+    /**
+     * Returns the maximum number of previous comparable builds used as a baseline.
+     *
+     * @return a positive integer
+     */
+    public int getBuildRegressionSamples() {
+        return Math.max(BuildRegressionMetrics.MINIMUM_SAMPLES, getProperty(getSession(), "report.regression.samples", 10));
+    }
+
+    /**
+     * Returns the increase (percentage of the baseline) of a part of the build reported as slower which
+     * fails the build.
+     *
+     * @return a positive number, 0 if the build should not fail
+     */
+    public double getBuildRegressionFailThreshold() {
+        return Math.max(0, getProperty(getSession(), "report.regression.fail", 0d));
+    }
+
     /**
      * Returns whether the performance tracking is enabled.
      *
@@ -122,5 +181,82 @@ public class MavenConfiguration extends net.microfalx.talos.core.MavenConfigurat
         return getProperty(getSession(), "report.environment.enabled", false);
     }
 
+    /**
+     * Returns whether the dependencies (JARs) of each module are scanned for duplicate classes.
+     *
+     * @return {@code true} if enabled, {@code false} otherwise
+     */
+    public boolean isDuplicateClassesEnabled() {
+        return getProperty(getSession(), "report.dependencies.duplicates.enabled", false);
+    }
+
+    /**
+     * Returns whether the time spent by the compiler in each phase (parse, enter, annotation processing,
+     * analyze, generate) is captured.
+     *
+     * @return {@code true} if enabled, {@code false} otherwise
+     */
+    public boolean isCompilerTimingEnabled() {
+        return getProperty(getSession(), "compiler.timing.enabled", false);
+    }
+
+    /**
+     * Returns whether the threads executing mojos are sampled (stack traces) to produce flame graphs.
+     *
+     * @return {@code true} if enabled, {@code false} otherwise
+     */
+    public boolean isProfilerEnabled() {
+        return getProperty(getSession(), "profiler.enabled", false);
+    }
+
+    /**
+     * Returns how many times per second the threads executing mojos are sampled.
+     *
+     * @return a positive integer
+     */
+    public int getProfilerFrequency() {
+        return getProperty(getSession(), "profiler.frequency", 20);
+    }
+
+    /**
+     * Returns whether the build is recorded with the JDK Flight Recorder.
+     *
+     * @return {@code true} if enabled, {@code false} otherwise
+     */
+    public boolean isFlightRecorderEnabled() {
+        return getProperty(getSession(), "jfr.enabled", false);
+    }
+
+    /**
+     * Returns the interval between two (high resolution) samples of the resources used by the process.
+     *
+     * @return a non-null instance, at least 100ms
+     */
+    public Duration getResourceSamplingInterval() {
+        Duration interval = getProperty(getSession(), "metrics.interval", ofMillis(1000));
+        return interval.compareTo(ResourceSampler.MINIMUM_INTERVAL) < 0 ? ResourceSampler.MINIMUM_INTERVAL : interval;
+    }
+
+    /**
+     * Returns whether the processes started by the build (forked JVMs, compilers, etc.) are tracked.
+     * <p>
+     * Disabled by default, since the descendants of the Maven process are enumerated (and their statistics read) at
+     * every poll.
+     *
+     * @return {@code true} if enabled, {@code false} otherwise
+     */
+    public boolean isProcessTrackingEnabled() {
+        return getProperty(getSession(), "processes.enabled", false);
+    }
+
+    /**
+     * Returns whether the lock contention (time blocked or waiting, contended locks) is measured for each mojo.
+     *
+     * @return {@code true} if enabled, {@code false} otherwise
+     */
+    public boolean isLockContentionEnabled() {
+        return getProperty(getSession(), "contention.enabled", false);
+    }
+
 
 }
@@ -5,6 +5,7 @@ import net.microfalx.talos.core.MavenConfiguration;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.MojoExecution;
 
 import java.time.Duration;
 
@@ -109,6 +110,19 @@ public class MavenUtils {
         return StringUtils.toIdentifier(dependency.getGroupId() + ":" + dependency.getArtifactId());
     }
 
+    /**
+     * Returns a key which identifies a mojo execution while it runs.
+     * <p>
+     * A thread can execute nested mojos (forked lifecycles), so the execution is part of the key.
+     *
+     * @param execution the mojo execution
+     * @return a non-null instance
+     */
+    static String getExecutionKey(MojoExecution execution) {
+        requireNonNull(execution);
+        return Thread.currentThread().getId() + ":" + System.identityHashCode(execution);
+    }
+
     /**
      * Returns the number of spaces to be used in console.
      *
@@ -0,0 +1,84 @@
+package net.microfalx.talos.extension;
+
+import net.microfalx.talos.model.MojoMetrics;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.talos.extension.MavenUtils.getExecutionKey;
+
+/**
+ * Measures how long the threads of a parallel build waited for mojos which are not thread safe.
+ * <p>
+ * Maven holds a lock for each mojo which is not thread safe while the mojo executes, so an execution of the same
+ * mojo in another module waits for the lock. The wait happens before the mojo start event, so it is estimated
+ * from the per-thread intervals: the time between the previous event of the thread (project start, mojo start or
+ * stop) and the start of the mojo, which overlaps with executions of the same mojo in other threads.
+ */
+final class MojoConcurrencyMetrics {
+
+    private final Map<Long, Long> lastEvents = new ConcurrentHashMap<>();
+    private final Map<String, Interval> activeIntervals = new ConcurrentHashMap<>();
+    private final Map<String, Collection<Interval>> intervals = new ConcurrentHashMap<>();
+    private final boolean parallel;
+
+    MojoConcurrencyMetrics(int degreeOfConcurrency) {
+        this.parallel = degreeOfConcurrency > 1;
+    }
+
+    void projectStart(MavenProject project) {
+        requireNonNull(project);
+        lastEvents.put(Thread.currentThread().getId(), System.nanoTime());
+    }
+
+    void mojoStarted(MojoExecution execution, MojoMetrics mojoMetrics) {
+        requireNonNull(execution);
+        requireNonNull(mojoMetrics);
+        long threadId = Thread.currentThread().getId();
+        long now = System.nanoTime();
+        Long lastEvent = lastEvents.put(threadId, now);
+        if (!parallel || mojoMetrics.isThreadSafe()) return;
+        Collection<Interval> mojoIntervals = intervals.computeIfAbsent(mojoMetrics.getId(), id -> new ConcurrentLinkedQueue<>());
+        if (lastEvent != null) {
+            long waited = 0;
+            for (Interval interval : mojoIntervals) {
+                if (interval.threadId == threadId) continue;
+                waited += interval.getOverlap(lastEvent, now);
+            }
+            if (waited > 0) mojoMetrics.addSerializedTime(Duration.ofNanos(waited));
+        }
+        Interval interval = new Interval(threadId, now);
+        mojoIntervals.add(interval);
+        activeIntervals.put(getExecutionKey(execution), interval);
+    }
+
+    void mojoStopped(MojoExecution execution) {
+        requireNonNull(execution);
+        long now = System.nanoTime();
+        lastEvents.put(Thread.currentThread().getId(), now);
+        Interval interval = activeIntervals.remove(getExecutionKey(execution));
+        if (interval != null) interval.endTime = now;
+    }
+
+    private static class Interval {
+
+        private final long threadId;
+        private final long startTime;
+        private volatile long endTime = Long.MAX_VALUE;
+
+        private Interval(long threadId, long startTime) {
+            this.threadId = threadId;
+            this.startTime = startTime;
+        }
+
+        private long getOverlap(long startTime, long endTime) {
+            return Math.max(0, Math.min(endTime, this.endTime) - Math.max(startTime, this.startTime));
+        }
+    }
+}
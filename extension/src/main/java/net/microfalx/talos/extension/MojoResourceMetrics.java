@@ -0,0 +1,119 @@
+package net.microfalx.talos.extension;
+
+import net.microfalx.talos.model.MojoMetrics;
+import org.apache.maven.plugin.MojoExecution;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.talos.extension.MavenUtils.getExecutionKey;
+
+/**
+ * Attributes the resources of the JVM (CPU, heap allocations, garbage collections, lock contention and I/O) to mojos.
+ * <p>
+ * The CPU time and the allocated memory are measured for the thread which executes the mojo (a mojo start and
+ * stop events are fired in the thread which executes it), so work delegated to other threads (or forked
+ * processes) is not included. The garbage collection time is measured for the whole JVM, while the mojo was
+ * executing. The time a thread was blocked or waiting is measured only when the thread contention monitoring
+ * is enabled, since it adds a (small) overhead to every lock operation.
+ * <p>
+ * The I/O (bytes read and written) is measured on Linux from the counters of the process
+ * (<code>/proc/self/io</code>) when a single mojo executes at a time, so the I/O of the worker threads started by
+ * the mojo (for example the parallel compression of the plexus archiver, used by the JAR, shade and assembly
+ * plugins) is included. In parallel builds, the counters of the thread which executes the mojo are used instead
+ * (<code>/proc/thread-self/io</code>), which do not include the worker threads. The I/O of the processes started
+ * by the mojo is added by the {@link ProcessTracker}.
+ */
+final class MojoResourceMetrics {
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final boolean cpuTimeSupported;
+    private final boolean allocatedBytesSupported;
+    private final boolean ioSupported = ProcessIo.current() != null;
+    private volatile boolean contentionEnabled;
+    private volatile boolean processIo;
+
+    MojoResourceMetrics() {
+        cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+        allocatedBytesSupported = threadMXBean instanceof com.sun.management.ThreadMXBean
+                                  && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()
+                                  && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Enables the thread contention monitoring in the JVM.
+     */
+    void enableContention() {
+        if (!threadMXBean.isThreadContentionMonitoringSupported()) return;
+        threadMXBean.setThreadContentionMonitoringEnabled(true);
+        contentionEnabled = true;
+    }
+
+    /**
+     * Measures the I/O of the whole process, when mojos are not executed in parallel.
+     *
+     * @param degreeOfConcurrency the number of threads which execute mojos
+     */
+    void setDegreeOfConcurrency(int degreeOfConcurrency) {
+        processIo = degreeOfConcurrency <= 1;
+    }
+
+    void start(MojoExecution execution) {
+        requireNonNull(execution);
+        snapshots.put(getExecutionKey(execution), new Snapshot());
+    }
+
+    void stop(MojoExecution execution, MojoMetrics mojoMetrics) {
+        requireNonNull(execution);
+        requireNonNull(mojoMetrics);
+        Snapshot startSnapshot = snapshots.remove(getExecutionKey(execution));
+        if (startSnapshot == null) return;
+        Snapshot endSnapshot = new Snapshot();
+        mojoMetrics.addResources(Duration.ofNanos(Math.max(0, endSnapshot.cpuTime - startSnapshot.cpuTime)),
+                Math.max(0, endSnapshot.allocatedBytes - startSnapshot.allocatedBytes),
+                Duration.ofMillis(Math.max(0, endSnapshot.gcTime - startSnapshot.gcTime)));
+        if (startSnapshot.threadInfo != null && endSnapshot.threadInfo != null) {
+            mojoMetrics.addContention(endSnapshot.threadInfo.getBlockedCount() - startSnapshot.threadInfo.getBlockedCount(),
+                    Duration.ofMillis(Math.max(0, endSnapshot.threadInfo.getBlockedTime() - startSnapshot.threadInfo.getBlockedTime())),
+                    endSnapshot.threadInfo.getWaitedCount() - startSnapshot.threadInfo.getWaitedCount(),
+                    Duration.ofMillis(Math.max(0, endSnapshot.threadInfo.getWaitedTime() - startSnapshot.threadInfo.getWaitedTime())));
+        }
+        if (startSnapshot.io != null && endSnapshot.io != null) {
+            ProcessIo io = endSnapshot.io.since(startSnapshot.io);
+            mojoMetrics.addIo(io.getReadBytes(), io.getWriteBytes(), io.getDiskReadBytes(), io.getDiskWriteBytes());
+        }
+    }
+
+    private static long getGcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, garbageCollector.getCollectionTime());
+        }
+        return time;
+    }
+
+    private class Snapshot {
+
+        private final long cpuTime;
+        private final long allocatedBytes;
+        private final long gcTime;
+        private final ThreadInfo threadInfo;
+        private final ProcessIo io;
+
+        private Snapshot() {
+            cpuTime = cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : 0;
+            allocatedBytes = allocatedBytesSupported
+                    ? ((com.sun.management.ThreadMXBean) threadMXBean).getCurrentThreadAllocatedBytes() : 0;
+            gcTime = getGcTime();
+            threadInfo = contentionEnabled ? threadMXBean.getThreadInfo(Thread.currentThread().getId(), 0) : null;
+            io = ioSupported ? (processIo ? ProcessIo.self() : ProcessIo.current()) : null;
+        }
+    }
+}
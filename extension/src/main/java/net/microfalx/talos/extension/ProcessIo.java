@@ -0,0 +1,122 @@
+package net.microfalx.talos.extension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * A snapshot of the I/O counters of a process (or a thread) on Linux, from <code>/proc/&lt;pid&gt;/io</code>.
+ * <p>
+ * The bytes read and written include the I/O served by the page cache (what the process asked for), while
+ * the disk bytes are the I/O which reached the storage layer.
+ */
+final class ProcessIo {
+
+    private static final File PROCESS_FILE = new File("/proc/self/io");
+    private static final File THREAD_FILE = new File("/proc/thread-self/io");
+
+    private final long readBytes;
+    private final long writeBytes;
+    private final long diskReadBytes;
+    private final long diskWriteBytes;
+
+    /**
+     * Returns the I/O counters of the current thread.
+     *
+     * @return the counters, null if not available
+     */
+    static ProcessIo current() {
+        return read(THREAD_FILE);
+    }
+
+    /**
+     * Returns the I/O counters of the current process (all threads).
+     *
+     * @return the counters, null if not available
+     */
+    static ProcessIo self() {
+        return read(PROCESS_FILE);
+    }
+
+    /**
+     * Returns the I/O counters of a process.
+     *
+     * @param pid the process identifier
+     * @return the counters, null if not available
+     */
+    static ProcessIo get(long pid) {
+        return read(new File("/proc/" + pid + "/io"));
+    }
+
+    private ProcessIo(long readBytes, long writeBytes, long diskReadBytes, long diskWriteBytes) {
+        this.readBytes = readBytes;
+        this.writeBytes = writeBytes;
+        this.diskReadBytes = diskReadBytes;
+        this.diskWriteBytes = diskWriteBytes;
+    }
+
+    long getReadBytes() {
+        return readBytes;
+    }
+
+    long getWriteBytes() {
+        return writeBytes;
+    }
+
+    long getDiskReadBytes() {
+        return diskReadBytes;
+    }
+
+    long getDiskWriteBytes() {
+        return diskWriteBytes;
+    }
+
+    /**
+     * Returns the I/O which happened since a previous snapshot.
+     *
+     * @param previous the previous snapshot
+     * @return a non-null instance
+     */
+    ProcessIo since(ProcessIo previous) {
+        return new ProcessIo(Math.max(0, readBytes - previous.readBytes), Math.max(0, writeBytes - previous.writeBytes),
+                Math.max(0, diskReadBytes - previous.diskReadBytes), Math.max(0, diskWriteBytes - previous.diskWriteBytes));
+    }
+
+    /**
+     * Parses the I/O counters, in the format of <code>/proc/&lt;pid&gt;/io</code>.
+     *
+     * @param file the file with the counters
+     * @return the counters, null if not available
+     */
+    static ProcessIo read(File file) {
+        if (!file.exists()) return null;
+        long readBytes = 0, writeBytes = 0, diskReadBytes = 0, diskWriteBytes = 0;
+        try {
+            for (String line : Files.readAllLines(file.toPath())) {
+                int index = line.indexOf(':');
+                if (index == -1) continue;
+                long value = Long.parseLong(line.substring(index + 1).trim());
+                switch (line.substring(0, index)) {
+                    case "rchar":
+                        readBytes = value;
+                        break;
+                    case "wchar":
+                        writeBytes = value;
+                        break;
+                    case "read_bytes":
+                        diskReadBytes = value;
+                        break;
+                    case "write_bytes":
+                        diskWriteBytes = value;
+                        break;
+                    default:
+                        // not used
+                }
+            }
+        } catch (IOException | NumberFormatException | SecurityException e) {
+            // the process ended or the counters are not accessible
+            return null;
+        }
+        return new ProcessIo(readBytes, writeBytes, diskReadBytes, diskWriteBytes);
+    }
+}
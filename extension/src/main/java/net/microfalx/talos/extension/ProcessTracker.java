@@ -0,0 +1,298 @@
+package net.microfalx.talos.extension;
+
+import net.microfalx.talos.core.MavenLogger;
+import net.microfalx.talos.core.MavenTracker;
+import net.microfalx.talos.model.ChildProcessMetrics;
+import net.microfalx.talos.model.MojoMetrics;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static java.util.Collections.emptyList;
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.talos.extension.MavenUtils.getExecutionKey;
+
+/**
+ * Tracks the processes started by the build (forked JVMs for tests, forked compilers, etc.), which are not visible
+ * in the metrics of the Maven JVM.
+ * <p>
+ * The descendants of the Maven process are polled periodically and the CPU time (and the resident memory, on Linux)
+ * and the I/O counters of each process are updated. A process is attributed to the mojo executing when the process
+ * was started (the innermost one, for forked lifecycles). When mojos of several threads were executing (parallel
+ * builds), the process is attributed to the mojo of the module in which the process runs (the working directory,
+ * on Linux) or whose build directory is referenced by the arguments of the process (the booter of a Surefire fork);
+ * when none matches, the process is attributed to Maven. The start time of the process is imprecise, so the mojos
+ * executing around the start time are considered only when none was executing at the start time. A process started
+ * by another process inherits the mojo of its parent.
+ */
+final class ProcessTracker implements Runnable {
+
+    private static final MavenLogger LOGGER = MavenLogger.create(ProcessTracker.class);
+
+    private static final int MAXIMUM_PROCESSES = 1000;
+    private static final int MAXIMUM_INTERVALS = 100;
+    private static final String UNKNOWN_COMMAND = "unknown";
+
+    /**
+     * The start time of a process is derived from the boot time of the server (with a resolution of a second)
+     */
+    private static final Duration CLOCK_TOLERANCE = Duration.ofSeconds(1);
+
+    private final MavenTracker tracker = new MavenTracker(ProcessTracker.class);
+    private final Map<String, Interval> activeIntervals = new ConcurrentHashMap<>();
+    private final Deque<Interval> intervals = new ConcurrentLinkedDeque<>();
+    private final Map<Long, TrackedProcess> processes = new ConcurrentHashMap<>();
+    private final Collection<ChildProcessMetrics> completedProcesses = new ConcurrentLinkedQueue<>();
+    private final long interval;
+    private volatile Thread thread;
+
+    ProcessTracker(Duration interval) {
+        requireNonNull(interval);
+        this.interval = interval.toMillis();
+    }
+
+    /**
+     * Returns the processes which ended.
+     *
+     * @return a non-null instance
+     */
+    Collection<ChildProcessMetrics> getProcesses() {
+        return new ArrayList<>(completedProcesses);
+    }
+
+    void start() {
+        LOGGER.debug("Start process tracker, interval: {}ms", interval);
+        thread = new Thread(this);
+        thread.setName("Talos Process Tracker");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        Thread thread = this.thread;
+        this.thread = null;
+        if (thread == null) return;
+        thread.interrupt();
+        try {
+            thread.join(interval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        tracker.track("Poll Processes", t -> poll());
+        new ArrayList<>(processes.keySet()).forEach(this::end);
+    }
+
+    void mojoStarted(MavenProject project, MojoExecution execution, MojoMetrics mojoMetrics) {
+        requireNonNull(execution);
+        requireNonNull(mojoMetrics);
+        Interval interval = new Interval(mojoMetrics, Thread.currentThread().getId(), Instant.now());
+        if (project != null) {
+            interval.baseDirectory = project.getBasedir();
+            if (project.getBuild() != null) interval.buildDirectory = project.getBuild().getDirectory();
+        }
+        activeIntervals.put(getExecutionKey(execution), interval);
+    }
+
+    void mojoStopped(MojoExecution execution) {
+        requireNonNull(execution);
+        Interval interval = activeIntervals.remove(getExecutionKey(execution));
+        if (interval == null) return;
+        interval.endTime = Instant.now();
+        intervals.addFirst(interval);
+        while (intervals.size() > MAXIMUM_INTERVALS) {
+            intervals.pollLast();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (thread != null) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                break;
+            }
+            tracker.track("Poll Processes", t -> poll());
+        }
+    }
+
+    private synchronized void poll() {
+        ZonedDateTime now = ZonedDateTime.now();
+        Set<Long> pids = new HashSet<>();
+        ProcessHandle.current().descendants().forEach(handle -> {
+            pids.add(handle.pid());
+            ProcessHandle.Info info = handle.info();
+            TrackedProcess process = processes.get(handle.pid());
+            if (process == null) {
+                process = register(handle, info, now);
+                if (process == null) return;
+            }
+            process.metrics.update(now, info.totalCpuDuration().orElse(Duration.ZERO), getResidentMemory(handle.pid()));
+            // the I/O counters of a process include the I/O of its (ended) children, so only the processes
+            // started directly by the build are sampled
+            ProcessIo io = process.root ? ProcessIo.get(handle.pid()) : null;
+            if (io != null) {
+                process.metrics.updateIo(io.getReadBytes(), io.getWriteBytes(), io.getDiskReadBytes(), io.getDiskWriteBytes());
+            }
+        });
+        new ArrayList<>(processes.keySet()).stream().filter(pid -> !pids.contains(pid)).forEach(this::end);
+    }
+
+    private TrackedProcess register(ProcessHandle handle, ProcessHandle.Info info, ZonedDateTime now) {
+        if (processes.size() + completedProcesses.size() >= MAXIMUM_PROCESSES) return null;
+        Instant startTime = info.startInstant().orElse(now.toInstant());
+        String command = info.command().map(c -> new File(c).getName()).orElse(UNKNOWN_COMMAND);
+        TrackedProcess parent = handle.parent().map(p -> processes.get(p.pid())).orElse(null);
+        MojoMetrics mojoMetrics = parent != null ? parent.mojoMetrics : findMojo(startTime,
+                getWorkingDirectory(handle.pid()), info.arguments().map(Arrays::asList).orElse(emptyList()));
+        ChildProcessMetrics metrics = new ChildProcessMetrics(handle.pid(), command,
+                ZonedDateTime.ofInstant(startTime, ZoneId.systemDefault())).setMojo(mojoMetrics);
+        TrackedProcess process = new TrackedProcess(metrics, mojoMetrics, parent == null);
+        processes.put(handle.pid(), process);
+        LOGGER.debug("Process {} ({}) started by {}", handle.pid(), command, mojoMetrics != null ? mojoMetrics.getName() : "Maven");
+        return process;
+    }
+
+    private synchronized void end(long pid) {
+        TrackedProcess process = processes.remove(pid);
+        if (process == null) return;
+        if (process.mojoMetrics != null) process.mojoMetrics.addProcess(process.metrics);
+        completedProcesses.add(process.metrics);
+    }
+
+    /**
+     * Returns the mojo which started a process.
+     *
+     * @param startTime        the start time of the process
+     * @param workingDirectory the working directory of the process, null if not available
+     * @param arguments        the arguments of the process
+     * @return the mojo, null if the process cannot be attributed to a mojo
+     */
+    MojoMetrics findMojo(Instant startTime, File workingDirectory, List<String> arguments) {
+        Collection<Interval> candidates = new ArrayList<>(activeIntervals.values());
+        candidates.addAll(intervals);
+        Collection<Interval> matches = findIntervals(candidates, startTime, Duration.ZERO);
+        if (matches.isEmpty()) matches = findIntervals(candidates, startTime, CLOCK_TOLERANCE);
+        // the innermost mojo of each thread
+        Map<Long, Interval> threadMatches = new HashMap<>();
+        for (Interval interval : matches) {
+            threadMatches.merge(interval.threadId, interval,
+                    (first, second) -> second.startTime.isAfter(first.startTime) ? second : first);
+        }
+        if (threadMatches.size() <= 1) {
+            return threadMatches.isEmpty() ? null : threadMatches.values().iterator().next().mojoMetrics;
+        }
+        // mojos executed by different threads (parallel builds), use the module in which the process runs
+        Interval candidate = findByWorkingDirectory(threadMatches.values(), workingDirectory);
+        if (candidate == null) candidate = findByArguments(threadMatches.values(), arguments);
+        return candidate != null ? candidate.mojoMetrics : null;
+    }
+
+    private static Interval findByWorkingDirectory(Collection<Interval> candidates, File workingDirectory) {
+        if (workingDirectory == null) return null;
+        Interval match = null;
+        for (Interval interval : candidates) {
+            if (interval.baseDirectory == null || !isSameFile(interval.baseDirectory, workingDirectory)) continue;
+            if (match != null) return null;
+            match = interval;
+        }
+        return match;
+    }
+
+    private static Interval findByArguments(Collection<Interval> candidates, List<String> arguments) {
+        Interval match = null;
+        for (Interval interval : candidates) {
+            if (interval.buildDirectory == null) continue;
+            String prefix = interval.buildDirectory + File.separator;
+            boolean referenced = arguments.stream()
+                    .anyMatch(argument -> argument.equals(interval.buildDirectory) || argument.contains(prefix));
+            if (!referenced) continue;
+            if (match != null) return null;
+            match = interval;
+        }
+        return match;
+    }
+
+    private static boolean isSameFile(File first, File second) {
+        try {
+            return Files.isSameFile(first.toPath(), second.toPath());
+        } catch (IOException | SecurityException e) {
+            return first.getAbsoluteFile().equals(second.getAbsoluteFile());
+        }
+    }
+
+    private static File getWorkingDirectory(long pid) {
+        try {
+            return Files.readSymbolicLink(Paths.get("/proc", Long.toString(pid), "cwd")).toFile();
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            // not Linux, the process ended or the process belongs to another user
+            return null;
+        }
+    }
+
+    private static Collection<Interval> findIntervals(Collection<Interval> candidates, Instant startTime, Duration tolerance) {
+        Collection<Interval> matches = new ArrayList<>();
+        for (Interval interval : candidates) {
+            if (interval.startTime.minus(tolerance).isAfter(startTime)) continue;
+            if (interval.endTime != null && interval.endTime.plus(tolerance).isBefore(startTime)) continue;
+            matches.add(interval);
+        }
+        return matches;
+    }
+
+    private static long getResidentMemory(long pid) {
+        File file = new File("/proc/" + pid + "/status");
+        if (!file.exists()) return 0;
+        try {
+            for (String line : Files.readAllLines(file.toPath())) {
+                if (!line.startsWith("VmRSS:")) continue;
+                String[] parts = line.substring(6).trim().split("\\s+");
+                return Long.parseLong(parts[0]) * 1024;
+            }
+        } catch (IOException | NumberFormatException e) {
+            // the process ended or the format is not supported
+        }
+        return 0;
+    }
+
+    private static class Interval {
+
+        private final MojoMetrics mojoMetrics;
+        private final long threadId;
+        private final Instant startTime;
+        private volatile Instant endTime;
+        private File baseDirectory;
+        private String buildDirectory;
+
+        private Interval(MojoMetrics mojoMetrics, long threadId, Instant startTime) {
+            this.mojoMetrics = mojoMetrics;
+            this.threadId = threadId;
+            this.startTime = startTime;
+        }
+    }
+
+    private static class TrackedProcess {
+
+        private final ChildProcessMetrics metrics;
+        private final MojoMetrics mojoMetrics;
+        private final boolean root;
+
+        private TrackedProcess(ChildProcessMetrics metrics, MojoMetrics mojoMetrics, boolean root) {
+            this.metrics = metrics;
+            this.mojoMetrics = mojoMetrics;
+            this.root = root;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package net.microfalx.talos.extension;
 
+import net.microfalx.talos.junit.SurefireTests;
 import org.apache.maven.execution.AbstractExecutionListener;
 import org.apache.maven.execution.ExecutionEvent;
 import org.slf4j.Logger;
@@ -12,10 +13,13 @@ public class ProfilerExecutionListener extends AbstractExecutionListener {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProfilerExecutionListener.class);
 
     private final ProfilerMetrics profilerMetrics;
+    private final SurefireTests tests;
 
-    public ProfilerExecutionListener(ProfilerMetrics profilerMetrics) {
+    public ProfilerExecutionListener(ProfilerMetrics profilerMetrics, SurefireTests tests) {
         requireNonNull(profilerMetrics);
+        requireNonNull(tests);
         this.profilerMetrics = profilerMetrics;
+        this.tests = tests;
     }
 
     @Override
@@ -26,11 +30,13 @@ public class ProfilerExecutionListener extends AbstractExecutionListener {
     @Override
     public void projectSucceeded(ExecutionEvent event) {
         projectStop(event);
+        loadTests(event);
     }
 
     @Override
     public void projectFailed(ExecutionEvent event) {
         projectStop(event);
+        loadTests(event);
     }
 
     @Override
@@ -41,4 +47,13 @@ public class ProfilerExecutionListener extends AbstractExecutionListener {
     private void projectStop(ExecutionEvent event) {
         profilerMetrics.projectStop(event.getProject(), event.getException());
     }
+
+    private void loadTests(ExecutionEvent event) {
+        // parse the test reports while the other modules are still building, the report only merges them
+        try {
+            tests.loadAsync(event.getProject());
+        } catch (Exception e) {
+            LOGGER.warn("Failed to schedule test loading for {}", event.getProject().getName(), e);
+        }
+    }
 }
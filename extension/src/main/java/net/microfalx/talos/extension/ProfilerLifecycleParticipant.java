@@ -19,8 +19,6 @@ import org.apache.maven.AbstractMavenLifecycleParticipant;
 import org.apache.maven.MavenExecutionException;
 import org.apache.maven.execution.MavenExecutionRequest;
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.plugins.surefire.report.ReportTestCase;
-import org.apache.maven.plugins.surefire.report.ReportTestSuite;
 import org.apache.maven.project.MavenProject;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystemSession;
@@ -40,15 +38,19 @@ import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.stream.Collectors;
 
 import static net.microfalx.lang.ExceptionUtils.getRootCauseDescription;
+import static net.microfalx.lang.FormatterUtils.formatPercent;
 import static net.microfalx.lang.UriUtils.parseUri;
 import static net.microfalx.talos.core.MavenUtils.METRICS;
+import static net.microfalx.talos.core.MavenUtils.formatDuration;
 import static net.microfalx.talos.core.MavenUtils.isMavenLoggerAvailable;
 
 @Named("microfalx")
@@ -121,6 +123,7 @@ public class ProfilerLifecycleParticipant extends AbstractMavenLifecycleParticip
             printConsoleReport();
             openHtmlReport();
         });
+        checkBuildRegressions(session);
     }
 
     private void initialize(MavenSession session) {
@@ -165,7 +168,7 @@ public class ProfilerLifecycleParticipant extends AbstractMavenLifecycleParticip
             ((DefaultRepositorySystemSession) repositorySession).setTransferListener(transferMetrics);
         }
         // intercepts lifecycle of Maven for performance metrics
-        lifecycleListener.addChainListener(new ProfilerExecutionListener(profilerMetrics));
+        lifecycleListener.addChainListener(new ProfilerExecutionListener(profilerMetrics, tests));
         // displays build progress
         progressListener = new ProgressListener(session, mavenLogger.getSystemOutputPrintStream());
         lifecycleListener.addChainListener(progressListener);
@@ -206,7 +209,14 @@ public class ProfilerLifecycleParticipant extends AbstractMavenLifecycleParticip
 
         // attach all trend metrics to session
         Collection<TrendMetrics> trends = getTrends(session);
-        if (trends != null) sessionMetrics.setTrends(trends);
+        if (trends != null) {
+            sessionMetrics.setTrends(trends);
+            Collection<TrendMetrics> previousTrends = getPreviousTrends(trends);
+            updateTestRegressions(previousTrends);
+            updateRepositoryRankings(previousTrends);
+            updateMemoryRecommendation(previousTrends);
+            updateBuildRegressions(previousTrends);
+        }
         // store session metrics
         try {
             Resource resource = MavenStorage.getStagingDirectory(session).resolve("build.data", Resource.Type.FILE);
@@ -234,16 +244,57 @@ public class ProfilerLifecycleParticipant extends AbstractMavenLifecycleParticip
 
     private void updateTests(MavenSession session) {
         tests.load(session);
-        Collection<TestMetrics> testMetrics = new ArrayList<>();
-        for (MavenProject project : tests.getProjects()) {
-            Collection<ReportTestSuite> testSuites = tests.getTestSuites(project);
-            for (ReportTestSuite testSuite : testSuites) {
-                for (ReportTestCase testCase : testSuite.getTestCases()) {
-                    testMetrics.add(getTestMetrics(project, testCase));
-                }
-            }
+        sessionMetrics.setTests(tests.getTests());
+    }
+
+    private Collection<TrendMetrics> getPreviousTrends(Collection<TrendMetrics> trends) {
+        return trends.stream().filter(trend -> !sessionMetrics.getStartTime().isEqual(trend.getStartTime()))
+                .collect(Collectors.toList());
+    }
+
+    private void updateTestRegressions(Collection<TrendMetrics> previousTrends) {
+        tracker.track("Detect Test Regressions", t -> {
+            sessionMetrics.setTestRegressions(TestRegressionMetrics.detect(sessionMetrics.getTests(), previousTrends,
+                    configuration.getTestRegressionThreshold(), configuration.getTestRegressionMinimumDuration()));
+        });
+    }
+
+    private void updateRepositoryRankings(Collection<TrendMetrics> previousTrends) {
+        tracker.track("Rank Repositories", t -> {
+            sessionMetrics.setRepositoryRankings(RepositoryRankingMetrics.rank(sessionMetrics.getRemoteRepositories(),
+                    sessionMetrics.getRepositoryTransfers(), previousTrends));
+        });
+    }
+
+    private void updateMemoryRecommendation(Collection<TrendMetrics> previousTrends) {
+        if (sessionMetrics.getMemory() == null) return;
+        tracker.track("Recommend Memory", t -> {
+            sessionMetrics.setMemoryRecommendation(MemoryRecommendationMetrics.recommend(sessionMetrics.getMemory(), previousTrends));
+        });
+    }
+
+    private void updateBuildRegressions(Collection<TrendMetrics> previousTrends) {
+        tracker.track("Detect Build Regressions", t -> {
+            sessionMetrics.setBuildRegressions(BuildRegressionMetrics.detect(sessionMetrics, previousTrends,
+                    configuration.getBuildRegressionSamples(), configuration.getBuildRegressionThreshold(),
+                    configuration.getBuildRegressionMinimumDuration()));
+        });
+    }
+
+    private void checkBuildRegressions(MavenSession session) throws MavenExecutionException {
+        if (configuration == null || sessionMetrics == null) return;
+        double threshold = configuration.getBuildRegressionFailThreshold();
+        if (threshold <= 0) return;
+        Optional<BuildRegressionMetrics> regression = sessionMetrics.getBuildRegressions().stream()
+                .filter(r -> r.getIncreasePercent() >= threshold)
+                .max(Comparator.comparing(BuildRegressionMetrics::getIncreasePercent));
+        if (regression.isPresent()) {
+            throw new MavenExecutionException("Build is slower than the previous builds, " + regression.get().getName()
+                                              + " took " + formatDuration(regression.get().getDuration()) + " (median "
+                                              + formatDuration(regression.get().getMedian()) + ", +"
+                                              + formatPercent(regression.get().getIncreasePercent()) + ")",
+                    session.getRequest().getPom());
         }
-        sessionMetrics.setTests(testMetrics);
     }
 
     private void updateSystemProperties() {
@@ -261,14 +312,6 @@ public class ProfilerLifecycleParticipant extends AbstractMavenLifecycleParticip
         sessionMetrics.setRemoteRepositories(MavenUtils.getRemoteRepositories(session));
     }
 
-    private TestMetrics getTestMetrics(MavenProject project, ReportTestCase testCase) {
-        return new TestMetrics(project.getArtifactId(), testCase.getFullClassName(), testCase.getName())
-                .setFailureErrorLine(testCase.getFailureErrorLine())
-                .setFailureMessage(testCase.getFailureMessage()).setFailureType(testCase.getFailureType())
-                .setFailure(testCase.hasFailure()).setError(testCase.hasError()).setSkipped(testCase.hasSkipped())
-                .setFailureDetail(testCase.getFailureDetail()).setTime(testCase.getTime());
-    }
-
     private void openHtmlReport() {
         if (configuration.isReportHtmlEnabled() && configuration.isOpenReportEnabled()) {
             File file = ResourceUtils.toFile(this.report);
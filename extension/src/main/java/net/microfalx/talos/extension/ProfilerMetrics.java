@@ -6,7 +6,9 @@ import net.microfalx.jvm.model.Os;
 import net.microfalx.jvm.model.Server;
 import net.microfalx.jvm.model.VirtualMachine;
 import net.microfalx.lang.*;
+import net.microfalx.resource.ResourceUtils;
 import net.microfalx.talos.core.MavenLogger;
+import net.microfalx.talos.core.MavenStorage;
 import net.microfalx.talos.core.MavenTracker;
 import net.microfalx.talos.junit.SurefireTests;
 import net.microfalx.talos.model.*;
@@ -17,26 +19,33 @@ import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.Mojo;
 import org.apache.maven.plugin.MojoExecution;
-import org.apache.maven.plugins.surefire.report.ReportTestSuite;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuildingRequest;
 import org.apache.maven.project.ProjectDependenciesResolver;
+import org.apache.maven.shared.dependency.graph.DependencyCollectorBuilder;
+import org.apache.maven.shared.dependency.graph.DependencyCollectorBuilderException;
 import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
 import org.apache.maven.shared.dependency.graph.DependencyGraphBuilderException;
 import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.apache.maven.shared.dependency.graph.internal.DefaultDependencyCollectorBuilder;
 import org.apache.maven.shared.dependency.graph.internal.DefaultDependencyGraphBuilder;
 import org.eclipse.aether.RepositorySystem;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
 import java.net.URI;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.joining;
@@ -61,11 +70,25 @@ public class ProfilerMetrics {
     private static final MavenLogger LOGGER = MavenLogger.create(ProfilerMetrics.class);
 
     private static final int LINE_LENGTH = 110;
+    private static final int MAXIMUM_TEST_REGRESSIONS = 10;
+    private static final int MAXIMUM_BUILD_REGRESSIONS = 10;
+    private static final int MAXIMUM_REPOSITORY_HOTSPOTS = 10;
+    private static final int MAXIMUM_COMPILES = 10;
+    private static final int MAXIMUM_CONTENTIONS = 5;
 
     private final Map<Class<?>, MojoMetrics> mojoMetrics = new ConcurrentHashMap<>();
     private final Map<String, DependencyMetrics> dependencyMetrics = new ConcurrentHashMap<>();
     private final Map<String, PluginMetrics> pluginMetrics = new ConcurrentHashMap<>();
     private final Map<String, ProjectMetrics> projectMetrics = new ConcurrentHashMap<>();
+    private final Map<String, Long> mojoStartTimes = new ConcurrentHashMap<>();
+    private final DuplicateClassScanner duplicateClassScanner = new DuplicateClassScanner();
+    private final CompilerMetrics compilerMetrics = new CompilerMetrics();
+    private final MojoResourceMetrics mojoResourceMetrics = new MojoResourceMetrics();
+    private volatile MojoConcurrencyMetrics mojoConcurrencyMetrics = new MojoConcurrencyMetrics(1);
+    private volatile StackSampler stackSampler;
+    private volatile ResourceSampler resourceSampler;
+    private volatile ProcessTracker processTracker;
+    private volatile FlightRecorder flightRecorder;
     private final long startTime = System.nanoTime();
     private long sessionStartTime;
     private long sessionEndTime;
@@ -100,16 +123,81 @@ public class ProfilerMetrics {
         LOGGER.debug("Initialize performance collectors, minimum duration: {}",
                 FormatterUtils.formatDuration(configuration.getMinimumDuration()));
         sessionStartTime = System.nanoTime();
+        mojoConcurrencyMetrics = new MojoConcurrencyMetrics(session.getRequest().getDegreeOfConcurrency());
+        mojoResourceMetrics.setDegreeOfConcurrency(session.getRequest().getDegreeOfConcurrency());
+        resourceSampler = new ResourceSampler(configuration.getResourceSamplingInterval());
+        resourceSampler.start();
+        if (configuration.isProcessTrackingEnabled()) {
+            processTracker = new ProcessTracker(configuration.getResourceSamplingInterval());
+            processTracker.start();
+        }
+        if (configuration.isLockContentionEnabled()) {
+            tracker.track("Enable Contention Monitoring", t -> mojoResourceMetrics.enableContention());
+        }
+        if (configuration.isProfilerEnabled() || configuration.isLockContentionEnabled()) {
+            stackSampler = new StackSampler(configuration.getProfilerFrequency(), configuration.isProfilerEnabled(),
+                    configuration.isLockContentionEnabled());
+            stackSampler.start();
+        }
+        if (configuration.isFlightRecorderEnabled()) {
+            tracker.track("Start Flight Recording", t -> {
+                FlightRecorder recorder = new FlightRecorder();
+                try {
+                    recorder.start();
+                    flightRecorder = recorder;
+                } catch (Exception e) {
+                    tracker.logFailure("Start Flight Recording", e);
+                }
+            });
+        }
     }
 
     void sessionsEnd(SessionMetrics sessionMetrics) {
         updateLifeCycle(sessionMetrics);
         sessionMetrics.setEndTime(ZonedDateTime.now());
         sessionMetrics.setArtifacts(repositoryMetrics.getMetrics());
+        Collection<RepositoryTransferMetrics> repositoryTransfers = transferMetrics.getRepositoryTransfers();
+        for (RepositoryTransferMetrics repositoryTransfer : repositoryTransfers) {
+            repositoryTransfer.setResolvedArtifacts(repositoryMetrics.getResolvedArtifacts(repositoryTransfer.getId()));
+        }
+        sessionMetrics.setRepositoryTransfers(repositoryTransfers);
+        sessionMetrics.setMetadataChecks(transferMetrics.getMetadataChecks());
+        transferMetrics.getTransferTimeline().trim();
+        sessionMetrics.setTransferTimeline(transferMetrics.getTransferTimeline());
         sessionMetrics.setDependencies(dependencyMetrics.values());
         sessionMetrics.setMojos(mojoMetrics.values());
         sessionMetrics.setPlugins(pluginMetrics.values());
+        sessionMetrics.setCompiles(compilerMetrics.getCompiles());
+        if (resourceSampler != null) {
+            resourceSampler.stop();
+            sessionMetrics.setResourceSeries(resourceSampler.getSeries());
+            long liveSet = resourceSampler.getMaximumLiveSet();
+            tracker.track("Update Memory", t -> sessionMetrics.setMemory(getMemoryMetrics(liveSet)));
+        }
+        if (processTracker != null) {
+            processTracker.stop();
+            sessionMetrics.setProcesses(processTracker.getProcesses());
+        }
+        if (stackSampler != null) {
+            stackSampler.stop();
+            sessionMetrics.setStackSamples(stackSampler.getSamples());
+            sessionMetrics.setLockContentions(stackSampler.getLocks());
+        }
+        if (flightRecorder != null) {
+            tracker.track("Stop Flight Recording", t -> {
+                File file = new File(ResourceUtils.toFile(MavenStorage.getStagingDirectory(session)), FlightRecorder.FILE_NAME);
+                try {
+                    sessionMetrics.setFlightRecordings(flightRecorder.stop(file));
+                } catch (IOException e) {
+                    tracker.logFailure("Stop Flight Recording", e);
+                }
+            });
+        }
         tracker.track("Update Dependencies", t -> updateDependencies());
+        if (configuration.isDuplicateClassesEnabled()) {
+            tracker.track("Scan Duplicate Classes", t -> sessionMetrics.setDuplicateClasses(
+                    duplicateClassScanner.scan(new File(session.getLocalRepository().getBasedir()))));
+        }
         tracker.track("Record Failures", t -> {
             sessionMetrics.setExtensionFailures(MavenTracker.getFailures().stream()
                     .map(f -> new FailureMetrics(f.getProject(), f.getMojo(), f.getName(), f.getThrowable()))
@@ -123,6 +211,7 @@ public class ProfilerMetrics {
             sessionMetrics.addModule(getMetrics(project).setStartTime(ZonedDateTime.now()));
             configuration = new MavenConfiguration(session);
             registerDependencies(project);
+            mojoConcurrencyMetrics.projectStart(project);
         }, project);
     }
 
@@ -136,15 +225,33 @@ public class ProfilerMetrics {
         });
     }
 
-    void mojoStarted(Mojo mojo, MojoExecution execution) {
+    void mojoStarted(MavenProject project, Mojo mojo, MojoExecution execution) {
         requireNonNull(mojo);
         getMetrics(mojo).start(execution);
+        mojoStartTimes.put(getExecutionKey(execution), System.nanoTime());
         getMetrics(execution.getPlugin()).registerGoal(execution.getGoal());
+        compilerMetrics.start(project, mojo, execution, configuration.isCompilerTimingEnabled());
+        mojoResourceMetrics.start(execution);
+        mojoConcurrencyMetrics.mojoStarted(execution, getMetrics(mojo));
+        if (processTracker != null) processTracker.mojoStarted(project, execution, getMetrics(mojo));
+        if (stackSampler != null) stackSampler.mojoStarted(getMetrics(mojo));
+        if (flightRecorder != null) flightRecorder.mojoStarted(execution, getMetrics(mojo));
     }
 
-    void mojoStop(MavenProject project, Mojo mojo, Throwable throwable) {
+    void mojoStop(MavenProject project, Mojo mojo, MojoExecution execution, Throwable throwable) {
         requireNonNull(mojo);
-        getMetrics(mojo).stop(project, throwable);
+        MojoMetrics mojoMetrics = getMetrics(mojo);
+        mojoMetrics.stop(project, throwable);
+        Long mojoStartTime = mojoStartTimes.remove(getExecutionKey(execution));
+        if (mojoStartTime != null && project != null) {
+            getMetrics(project).addMojoDuration(mojoMetrics.getId(), Duration.ofNanos(System.nanoTime() - mojoStartTime));
+        }
+        mojoResourceMetrics.stop(execution, mojoMetrics);
+        mojoConcurrencyMetrics.mojoStopped(execution);
+        if (processTracker != null) processTracker.mojoStopped(execution);
+        if (stackSampler != null) stackSampler.mojoStopped(mojoMetrics);
+        if (flightRecorder != null) flightRecorder.mojoStopped(execution);
+        compilerMetrics.stop(project, execution, mojoMetrics);
     }
 
     Duration getConfigurationDuration() {
@@ -166,11 +273,17 @@ public class ProfilerMetrics {
         LOGGER.info(buffer().strong("Build Report for "
                                     + session.getTopLevelProject().getName() + " "
                                     + session.getTopLevelProject().getVersion()).toString());
+        printBuildRegressions();
         printSummary();
         printTaskSummary();
+        printContentionSummary();
+        printThreadSafetySummary();
+        printCompileSummary();
+        printMemorySummary();
         printDependencySummary();
         printPluginSummary();
         printRepositorySummary();
+        printRepositoryRankings();
         printTestsSummary();
         if (configuration.isEnvironmentEnabled() || configuration.isVerbose()) printEnvironmentSummary();
         printExtensionSummary();
@@ -196,14 +309,45 @@ public class ProfilerMetrics {
         logNameValue("Install", formatDuration(getGoalsDuration(INSTALL_GOALS)), true, SHORT_NAME_LENGTH);
         logNameValue("Deploy", formatDuration(getGoalsDuration(DEPLOY_GOALS)), true, SHORT_NAME_LENGTH);
         logNameValue("Extension", formatDuration(tracker.getDuration()), true, SHORT_NAME_LENGTH);
+        if (!sessionMetrics.getProcesses().isEmpty()) logNameValue("Forks", getProcessesReport(), true, SHORT_NAME_LENGTH);
         if (!MavenTracker.getFailures().isEmpty()) {
             logNameValue("Extension Failures", buffer().failure(FormatterUtils.formatNumber(MavenTracker.getFailures().size())).toString(), false, SHORT_NAME_LENGTH);
         }
         logNameValue("Local Repository", getRepositoryReport(repositoryMetrics), true, SHORT_NAME_LENGTH);
         logNameValue("Remote Repository", getRepositoryReport(transferMetrics), true, SHORT_NAME_LENGTH);
+        String updateChecksReport = getUpdateChecksReport();
+        if (isNotEmpty(updateChecksReport)) logNameValue("Update Checks", updateChecksReport, true, SHORT_NAME_LENGTH);
         decreaseIndent();
     }
 
+    private String getProcessesReport() {
+        Duration cpuTime = sessionMetrics.getProcesses().stream().map(ChildProcessMetrics::getCpuTime)
+                .reduce(Duration.ZERO, Duration::plus);
+        long sessionDuration = getSessionDuration().toNanos();
+        double cores = sessionDuration > 0 ? (double) cpuTime.toNanos() / sessionDuration : 0;
+        return sessionMetrics.getProcesses().size() + " processes, CPU " + FormatterUtils.formatDuration(cpuTime)
+               + " (" + formatNumber(cores) + " cores on average)";
+    }
+
+    private MemoryMetrics getMemoryMetrics(long liveSet) {
+        long gcCount = 0;
+        long gcTime = 0;
+        StringJoiner collector = new StringJoiner(", ");
+        for (GarbageCollectorMXBean garbageCollectorMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collector.add(garbageCollectorMXBean.getName());
+            gcCount += Math.max(0, garbageCollectorMXBean.getCollectionCount());
+            gcTime += Math.max(0, garbageCollectorMXBean.getCollectionTime());
+        }
+        long allocatedBytes = mojoMetrics.values().stream().mapToLong(MojoMetrics::getAllocatedBytes).sum();
+        MemoryMetrics memoryMetrics = new MemoryMetrics(Runtime.getRuntime().maxMemory(), liveSet,
+                Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime()))
+                .setAllocatedBytes(allocatedBytes).setGc(collector.toString(), gcCount, Duration.ofMillis(gcTime));
+        OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+        long physicalMemory = operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean
+                ? ((com.sun.management.OperatingSystemMXBean) operatingSystemMXBean).getTotalMemorySize() : 0;
+        return memoryMetrics.setServer(physicalMemory, operatingSystemMXBean.getAvailableProcessors());
+    }
+
     private void printDependencySummary() {
         if (!configuration.isVerbose()) return;
         Map<String, Collection<DependencyMetrics>> dependencyMetricsByGroup = getDependencyMetricsByGroup();
@@ -241,6 +385,116 @@ public class ProfilerMetrics {
         if (!configuration.isVerbose()) return;
         printRepositorySummary("Local Repository", repositoryMetrics);
         printRepositorySummary("Remote Repository", transferMetrics);
+        printRepositoryHotspots();
+        printRepositoryUpdateChecks();
+    }
+
+    private void printRepositoryUpdateChecks() {
+        Collection<RepositoryTransferMetrics> repositoryTransfers = transferMetrics.getRepositoryTransfers();
+        if (repositoryTransfers.stream().noneMatch(r -> r.getMetadataTransfers() > 0)) return;
+        LOGGER.info("");
+        infoMain("Metadata Checks (per repository and the artifacts with the most expensive checks):");
+        LOGGER.info("");
+        increaseIndent();
+        for (RepositoryTransferMetrics repositoryTransfer : repositoryTransfers) {
+            String value = "[Metadata: " + String.format("%1$4d", repositoryTransfer.getMetadataTransfers())
+                           + " in " + formatDuration(repositoryTransfer.getMetadataDuration())
+                           + ", Snapshot: " + String.format("%1$4d", repositoryTransfer.getSnapshotMetadataTransfers())
+                           + " in " + formatDuration(repositoryTransfer.getSnapshotMetadataDuration())
+                           + ", Not Found: " + formatPercent(repositoryTransfer.getMetadataNotFoundRatio()) + "]";
+            if (!repositoryTransfer.isUsed()) {
+                value += " " + buffer().warning("unused, removing it saves " + formatDuration(repositoryTransfer.getDuration()));
+            }
+            logNameValue(repositoryTransfer.getName(), value, false);
+        }
+        List<MetadataCheckMetrics> metadataChecks = new ArrayList<>(transferMetrics.getMetadataChecks());
+        metadataChecks.sort(Comparator.comparing(MetadataCheckMetrics::getDuration).reversed());
+        for (MetadataCheckMetrics metadataCheck : metadataChecks.subList(0, Math.min(MAXIMUM_REPOSITORY_HOTSPOTS, metadataChecks.size()))) {
+            String value = "[Checks: " + String.format("%1$3d", metadataCheck.getChecks())
+                           + ", Not Found: " + String.format("%1$3d", metadataCheck.getNotFound())
+                           + ", Repositories: " + metadataCheck.getRepositories().size() + "] "
+                           + formatDuration(metadataCheck.getDuration());
+            logNameValue(TextUtils.abbreviateMiddle(metadataCheck.getName(), LONG_NAME_LENGTH - 5), value, false);
+        }
+        decreaseIndent();
+    }
+
+    private String getUpdateChecksReport() {
+        Collection<RepositoryTransferMetrics> repositoryTransfers = transferMetrics.getRepositoryTransfers();
+        int snapshotChecks = repositoryTransfers.stream().mapToInt(RepositoryTransferMetrics::getSnapshotMetadataTransfers).sum();
+        Collection<RepositoryTransferMetrics> unusedRepositories = repositoryTransfers.stream()
+                .filter(r -> !r.isUsed()).collect(Collectors.toList());
+        if (snapshotChecks == 0 && unusedRepositories.isEmpty()) return null;
+        Duration snapshotDuration = TimeUtils.sum(repositoryTransfers.stream().map(RepositoryTransferMetrics::getSnapshotMetadataDuration));
+        int metadataChecks = repositoryTransfers.stream().mapToInt(RepositoryTransferMetrics::getMetadataTransfers).sum();
+        int metadataNotFound = repositoryTransfers.stream().mapToInt(RepositoryTransferMetrics::getMetadataNotFound).sum();
+        StringBuilder builder = new StringBuilder();
+        builder.append(buffer().strong(formatDuration(snapshotDuration)))
+                .append(" (Snapshot: ").append(snapshotChecks)
+                .append(", Not Found: ").append(formatPercent(metadataChecks > 0 ? (100f * metadataNotFound) / metadataChecks : 0))
+                .append(")");
+        // with "daily", only the first build of the day checks the snapshots again
+        Collection<TrendMetrics> trends = sessionMetrics.getTrends();
+        Duration dailySavings = MetadataCheckMetrics.getDailyPolicySavings(trends);
+        if (dailySavings.compareTo(Duration.ZERO) > 0) {
+            builder.append(" (with updatePolicy=daily, the last ").append(trends.size()).append(" builds save ")
+                    .append(buffer().strong(formatDuration(dailySavings))).append(")");
+        } else if (snapshotChecks > 0) {
+            builder.append(" (with updatePolicy=daily, only the first build of the day checks)");
+        }
+        if (!unusedRepositories.isEmpty()) {
+            Duration unusedDuration = TimeUtils.sum(unusedRepositories.stream().map(RepositoryTransferMetrics::getDuration));
+            builder.append(" (").append(buffer().warning(unusedRepositories.size() + " unused repositories cost "
+                                                         + formatDuration(unusedDuration))).append(")");
+        }
+        return builder.toString();
+    }
+
+    private void printRepositoryRankings() {
+        Collection<RepositoryRankingMetrics> rankings = sessionMetrics.getRepositoryRankings();
+        boolean reordered = RepositoryRankingMetrics.isReordered(rankings);
+        boolean mostlyNotFound = rankings.stream().anyMatch(RepositoryRankingMetrics::isMostlyNotFound);
+        if (rankings.isEmpty() || !(reordered || mostlyNotFound || configuration.isVerbose())) return;
+        LOGGER.info("");
+        infoMain("Repository Order (" + (reordered ? buffer().warning("reorder recommended") : "current order recommended")
+                 + ", compared with previous builds):");
+        LOGGER.info("");
+        increaseIndent();
+        for (RepositoryRankingMetrics ranking : rankings) {
+            RepositoryTransferMetrics transfers = ranking.getTransfers();
+            String name = (ranking.getRecommendedPosition() >= 0 ? (ranking.getRecommendedPosition() + 1) + ". " : "-. ")
+                          + TextUtils.abbreviateMiddle(ranking.getName(), LONG_NAME_LENGTH - 8);
+            String value = "[Artifacts: " + String.format("%1$5d", transfers.getArtifactTransfers())
+                           + ", Not Found: " + formatPercent(transfers.getNotFoundRatio())
+                           + ", Median: " + formatDuration(ranking.getMedianLatency())
+                           + ", P95: " + formatDuration(ranking.getP95Latency()) + "]";
+            if (ranking.isMostlyNotFound()) {
+                value += " " + buffer().warning("mostly not found, costs " + formatDuration(ranking.getNotFoundCost()) + " per build");
+            } else if (ranking.isMoved()) {
+                value += " " + buffer().warning("currently " + (ranking.getPosition() + 1));
+            }
+            logNameValue(name, value, false);
+        }
+        decreaseIndent();
+    }
+
+    private void printRepositoryHotspots() {
+        List<ArtifactMetrics> hotspots = repositoryMetrics.getHotspots(MAXIMUM_REPOSITORY_HOTSPOTS);
+        if (hotspots.isEmpty()) return;
+        LOGGER.info("");
+        infoMain("Repository Hot Spots (local hit ratio " + formatPercent(repositoryMetrics.getLocalHitRatio())
+                 + ", lookups which could be avoided):");
+        LOGGER.info("");
+        increaseIndent();
+        for (ArtifactMetrics metrics : hotspots) {
+            String name = TextUtils.abbreviateMiddle(metrics.getGroupId() + ":" + metrics.getArtifactId(), LONG_NAME_LENGTH - 5);
+            String value = "[Metadata: " + String.format("%1$3d", metrics.getMetadataResolveCount())
+                           + ", Update Checks: " + String.format("%1$3d", metrics.getUpdateCheckCount())
+                           + ", Not Found: " + String.format("%1$3d", metrics.getRemoteNotFoundCount())
+                           + ", Local Hits: " + String.format("%1$3d", metrics.getLocalHitCount()) + "]";
+            logNameValue(name, value, false);
+        }
+        decreaseIndent();
     }
 
 
@@ -350,18 +604,64 @@ public class ProfilerMetrics {
         LOGGER.info("");
         increaseIndent();
         for (MavenProject project : tests.getProjects()) {
-            Collection<ReportTestSuite> testSuites = tests.getTestSuites(project);
+            Collection<TestMetrics> testsForProject = tests.getTests(project);
             StringBuilder buffer = new StringBuilder(128);
             buffer.append(project.getName()).append(' ');
             MavenUtils.appendDots(buffer).append(' ');
-            buffer.append(getTestsReport(getSum(testSuites, ReportTestSuite::getNumberOfTests),
-                    getSum(testSuites, ReportTestSuite::getNumberOfFailures),
-                    getSum(testSuites, ReportTestSuite::getNumberOfErrors),
-                    getSum(testSuites, ReportTestSuite::getNumberOfSkipped)));
+            buffer.append(getTestsReport(testsForProject.size(),
+                    getCount(testsForProject, TestMetrics::isFailure),
+                    getCount(testsForProject, TestMetrics::isError),
+                    getCount(testsForProject, TestMetrics::isSkipped)));
             LOGGER.info(getIndentSpaces() + buffer);
         }
         decreaseIndent();
+        printTestRegressions();
+        LOGGER.info("");
+    }
+
+    private void printBuildRegressions() {
+        Collection<BuildRegressionMetrics> regressions = sessionMetrics.getBuildRegressions();
+        if (regressions.isEmpty()) return;
         LOGGER.info("");
+        infoMain("Slower Build (" + buffer().warning(regressions.size()) + ", compared with previous builds with the same goals and profiles):");
+        LOGGER.info("");
+        increaseIndent();
+        regressions.stream().limit(configuration.isVerbose() ? Integer.MAX_VALUE : MAXIMUM_BUILD_REGRESSIONS)
+                .forEach(regression -> {
+                    String name = TextUtils.abbreviateMiddle(getTypeName(regression.getType())
+                                                             + " " + regression.getName(), LONG_NAME_LENGTH - 5);
+                    String value = formatDuration(regression.getDuration()) + " [Median: "
+                                   + formatDuration(regression.getMedian()) + ", MAD: "
+                                   + formatDuration(regression.getDeviation()) + ", Builds: " + regression.getSamples() + ", "
+                                   + buffer().warning("+" + formatPercent(regression.getIncreasePercent())) + "]";
+                    logNameValue(name, value, false);
+                });
+        decreaseIndent();
+    }
+
+    private String getTypeName(BuildRegressionMetrics.Type type) {
+        String name = type.name();
+        return name.charAt(0) + name.substring(1).toLowerCase();
+    }
+
+    private void printTestRegressions() {
+        Collection<TestRegressionMetrics> regressions = sessionMetrics.getTestRegressions();
+        if (regressions.isEmpty()) return;
+        LOGGER.info("");
+        infoMain("Slower Tests (" + buffer().warning(regressions.size()) + ", compared with previous builds):");
+        LOGGER.info("");
+        increaseIndent();
+        regressions.stream().limit(configuration.isVerbose() ? Integer.MAX_VALUE : MAXIMUM_TEST_REGRESSIONS)
+                .forEach(regression -> {
+                    String name = TextUtils.abbreviateMiddle(regression.getSimpleClassName() + "."
+                                                             + regression.getName(), LONG_NAME_LENGTH - 5);
+                    String value = formatDuration(regression.getDuration()) + " [Median: "
+                                   + formatDuration(regression.getMedian()) + ", P95: "
+                                   + formatDuration(regression.getP95()) + ", "
+                                   + buffer().warning(formatNumber(regression.getRatio()) + "x") + "]";
+                    logNameValue(name, value, false);
+                });
+        decreaseIndent();
     }
 
     private void printExtensionSummary() {
@@ -402,12 +702,135 @@ public class ProfilerMetrics {
                 buffer.append(buffer().success("SUCCESS"));
             }
             buffer.append(", ").append(buffer().strong("Executions " + metric.getExecutionCount()));
+            if (metric.getCpuTime().toMillis() > 0) {
+                buffer.append(", CPU ").append(formatDuration(metric.getCpuTime()));
+            }
+            if (metric.getAllocatedBytes() > 0) {
+                buffer.append(", Allocated ").append(formatBytes(metric.getAllocatedBytes()));
+            }
+            if (metric.getGcTime().toMillis() > 0) {
+                buffer.append(", GC ").append(formatDuration(metric.getGcTime()));
+            }
+            if (metric.getProcessCount() > 0) {
+                buffer.append(", Forks ").append(metric.getProcessCount())
+                        .append(" (CPU ").append(formatDuration(metric.getProcessCpuTime()))
+                        .append(", RSS ").append(formatBytes(metric.getProcessMaximumMemory())).append(")");
+            }
+            if (metric.getReadBytes() > 0 || metric.getWriteBytes() > 0) {
+                buffer.append(", I/O ").append(formatBytes(metric.getReadBytes())).append(" / ")
+                        .append(formatBytes(metric.getWriteBytes()));
+            }
             buffer.append(")");
             LOGGER.info(getIndentSpaces() + buffer);
         }
         decreaseIndent();
     }
 
+    private void printContentionSummary() {
+        List<MojoMetrics> metrics = mojoMetrics.values().stream()
+                .filter(m -> m.getBlockedTime().toMillis() > 0 || m.getWaitedTime().toMillis() > 0)
+                .sorted(Comparator.comparing((MojoMetrics m) -> m.getBlockedTime().plus(m.getWaitedTime())).reversed())
+                .limit(MAXIMUM_CONTENTIONS).collect(Collectors.toList());
+        if (metrics.isEmpty()) return;
+        LOGGER.info("");
+        infoMain("Lock Contention:");
+        LOGGER.info("");
+        increaseIndent();
+        for (MojoMetrics metric : metrics) {
+            String value = "[Blocked: " + String.format("%1$6d", metric.getBlockedCount())
+                           + ", Waited: " + String.format("%1$6d", metric.getWaitedCount()) + "] "
+                           + formatDuration(metric.getBlockedTime()) + " / " + formatDuration(metric.getWaitedTime());
+            logNameValue(metric.getName() + " (" + metric.getGoal() + ")", value, false);
+        }
+        List<LockContentionMetrics> locks = sessionMetrics.getLockContentions().stream()
+                .sorted(Comparator.comparing(LockContentionMetrics::getSamples).reversed())
+                .limit(MAXIMUM_CONTENTIONS).collect(Collectors.toList());
+        if (!locks.isEmpty()) {
+            LOGGER.info("");
+            for (LockContentionMetrics lock : locks) {
+                String owners = lock.getOwners().isEmpty() ? "" : ", owned by " + lock.getOwners().get(0);
+                logNameValue(TextUtils.abbreviateMiddle(lock.getName(), LONG_NAME_LENGTH - 5),
+                        "[Samples: " + String.format("%1$5d", lock.getSamples()) + "] " + lock.getWaiters().get(0) + owners, false);
+            }
+        }
+        decreaseIndent();
+    }
+
+    private void printThreadSafetySummary() {
+        List<MojoMetrics> metrics = mojoMetrics.values().stream().filter(m -> !m.isThreadSafe())
+                .sorted(Comparator.comparing(MojoMetrics::getSerializedTime).thenComparing(MojoMetrics::getActiveDuration).reversed())
+                .collect(Collectors.toList());
+        if (metrics.isEmpty()) return;
+        LOGGER.info("");
+        infoMain("Not Thread Safe (" + (session.getRequest().getDegreeOfConcurrency() > 1 ? "parallelism lost" : "serialized in parallel builds") + "):");
+        LOGGER.info("");
+        increaseIndent();
+        for (MojoMetrics metric : metrics) {
+            String name = TextUtils.abbreviateMiddle(metric.getPlugin() + " (" + metric.getGoal() + ")", LONG_NAME_LENGTH - 5);
+            String value = "[Executions: " + String.format("%1$4d", metric.getExecutionCount())
+                           + ", Duration: " + formatDuration(metric.getActiveDuration()) + "] "
+                           + formatDuration(metric.getSerializedTime());
+            logNameValue(name, value, metric.getSerializedTime().toMillis() > 0);
+        }
+        decreaseIndent();
+    }
+
+    private void printCompileSummary() {
+        List<CompileMetrics> compiles = sessionMetrics.getCompiles().stream()
+                .filter(c -> c.isSlow() || (configuration.isVerbose() && c.isCompiled()))
+                .sorted(Comparator.comparing(CompileMetrics::getDuration).reversed())
+                .limit(MAXIMUM_COMPILES).collect(Collectors.toList());
+        if (compiles.isEmpty()) return;
+        LOGGER.info("");
+        infoMain("Compile (" + (configuration.isVerbose() ? "slowest modules" : "modules with an abnormally slow compile rate") + "):");
+        LOGGER.info("");
+        increaseIndent();
+        for (CompileMetrics compile : compiles) {
+            String name = TextUtils.abbreviateMiddle(sessionMetrics.getModule(compile.getModuleId()).getName()
+                                                     + " (" + compile.getGoal() + ")", LONG_NAME_LENGTH - 5);
+            String value = "[Sources: " + String.format("%1$5d", compile.getSourceFiles())
+                           + ", Generated: " + String.format("%1$4d", compile.getGeneratedFiles())
+                           + ", Lines: " + String.format("%1$7d", compile.getSourceLines())
+                           + ", Classes: " + String.format("%1$5d", compile.getClasses())
+                           + ", Rate: " + formatNumber(compile.getThroughput()) + " files/s] "
+                           + formatDuration(compile.getDuration());
+            if (compile.isSlow()) value += " " + buffer().warning("slow");
+            logNameValue(name, value, false);
+        }
+        decreaseIndent();
+    }
+
+    private void printMemorySummary() {
+        MemoryMetrics memory = sessionMetrics.getMemory();
+        MemoryRecommendationMetrics recommendation = sessionMetrics.getMemoryRecommendation();
+        boolean changeRecommended = recommendation != null && recommendation.isChangeRecommended();
+        if (memory == null || !(changeRecommended || configuration.isVerbose())) return;
+        LOGGER.info("");
+        infoMain("Memory:");
+        LOGGER.info("");
+        increaseIndent();
+        String liveSet = memory.getLiveSet() > 0 ? formatBytes(memory.getLiveSet()) : "not available";
+        logNameValue("Heap", "Maximum " + formatBytes(memory.getMaximumHeap()) + ", Live Set "
+                             + liveSet + ", Allocation Rate "
+                             + formatBytes((long) memory.getAllocationRate()) + "/s", true, SHORT_NAME_LENGTH);
+        String gc = formatDuration(memory.getGcTime()) + " (" + formatPercent(memory.getGcPercent())
+                    + " of the process, " + memory.getGcCount() + " collections, " + memory.getCollector() + ")";
+        if (memory.getGcPercent() >= MemoryRecommendationMetrics.GC_THRESHOLD) {
+            logNameValue("GC", buffer().warning(gc).toString(), false, SHORT_NAME_LENGTH);
+        } else {
+            logNameValue("GC", gc, true, SHORT_NAME_LENGTH);
+        }
+        if (changeRecommended) {
+            String value = recommendation.getOptions() + " (in .mvn/jvm.config)";
+            if (recommendation.isHeapChanged()) {
+                value += ", GC time saved " + formatDuration(recommendation.getSavings())
+                         + " (" + formatPercent(recommendation.getSavingsPercent()) + " of the build)";
+            }
+            logNameValue("Recommendation", buffer().warning(value).toString(), false, SHORT_NAME_LENGTH);
+        }
+        decreaseIndent();
+    }
+
     private Collection<MojoMetrics> getMojoMetrics() {
         List<MojoMetrics> metrics = new ArrayList<>(mojoMetrics.values());
         metrics.sort(Comparator.comparing(MojoMetrics::getActiveDuration).reversed());
@@ -538,10 +961,10 @@ public class ProfilerMetrics {
         }
     }
 
-    private int getSum(Collection<ReportTestSuite> testSuites, Function<ReportTestSuite, Integer> function) {
+    private int getCount(Collection<TestMetrics> tests, Predicate<TestMetrics> predicate) {
         int total = 0;
-        for (ReportTestSuite testSuite : testSuites) {
-            total += function.apply(testSuite);
+        for (TestMetrics test : tests) {
+            if (predicate.test(test)) total++;
         }
         return total;
     }
@@ -557,20 +980,64 @@ public class ProfilerMetrics {
         DependencyGraphBuilder dependencyGraphBuilder = new DefaultDependencyGraphBuilder(dependenciesResolver);
         DependencyNode node = resolveProject(dependencyGraphBuilder, project);
         if (node != null) {
-            walkDependencyGraph(node, project, false);
+            walkDependencyGraph(node, project, null);
+        }
+        // the resolved graph keeps a shared dependency under one path only, the verbose graph keeps every path to it
+        DependencyCollectorBuilder dependencyCollectorBuilder = new DefaultDependencyCollectorBuilder(repositorySystem);
+        DependencyNode verboseNode = collectProject(dependencyCollectorBuilder, project);
+        if (verboseNode != null) {
+            registerClosures(verboseNode);
+        } else if (node != null) {
+            registerClosures(node);
+        }
+    }
+
+    private void registerClosures(DependencyNode node) {
+        Map<String, Set<String>> edges = new HashMap<>();
+        collectEdges(node, edges);
+        for (DependencyNode child : node.getChildren()) {
+            DependencyMetrics directDependency = dependencyMetrics.get(net.microfalx.talos.core.MavenUtils.getId(child.getArtifact()));
+            if (directDependency == null) continue;
+            for (String id : getReachable(directDependency.getId(), edges)) {
+                DependencyMetrics dependency = dependencyMetrics.get(id);
+                if (dependency != null) directDependency.addTransitive(dependency);
+            }
+        }
+    }
+
+    private void collectEdges(DependencyNode node, Map<String, Set<String>> edges) {
+        for (DependencyNode child : node.getChildren()) {
+            if (node.getParent() != null) {
+                edges.computeIfAbsent(net.microfalx.talos.core.MavenUtils.getId(node.getArtifact()), k -> new HashSet<>())
+                        .add(net.microfalx.talos.core.MavenUtils.getId(child.getArtifact()));
+            }
+            collectEdges(child, edges);
         }
     }
 
-    private void walkDependencyGraph(DependencyNode node, MavenProject project, boolean transitive) {
+    private Set<String> getReachable(String id, Map<String, Set<String>> edges) {
+        Set<String> reachable = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(id);
+        while (!pending.isEmpty()) {
+            String current = pending.poll();
+            if (reachable.add(current)) pending.addAll(edges.getOrDefault(current, Collections.emptySet()));
+        }
+        return reachable;
+    }
+
+    private void walkDependencyGraph(DependencyNode node, MavenProject project, DependencyMetrics directDependency) {
         for (DependencyNode child : node.getChildren()) {
             Dependency dependency = MavenUtils.fromArtifact(child.getArtifact());
             DependencyMetrics dependencyMetrics = getMetrics(dependency).register(project, dependency);
             dependencyMetrics.setScope(dependency.getScope()).setType(dependency.getType())
-                    .setOptional(dependency.isOptional()).setTransitive(transitive);
+                    .setOptional(dependency.isOptional()).setTransitive(directDependency != null);
             if (child.getArtifact().getFile() != null) {
                 dependencyMetrics.setSize(child.getArtifact().getFile().length());
             }
-            walkDependencyGraph(child, project, true);
+            if (directDependency != null) directDependency.addTransitive(dependencyMetrics);
+            if (configuration.isDuplicateClassesEnabled()) duplicateClassScanner.register(project, child.getArtifact());
+            walkDependencyGraph(child, project, directDependency != null ? directDependency : dependencyMetrics);
         }
     }
 
@@ -586,6 +1053,18 @@ public class ProfilerMetrics {
         }
     }
 
+    private DependencyNode collectProject(DependencyCollectorBuilder dependencyCollectorBuilder, MavenProject project) {
+        try {
+            ArtifactFilter artifactFilter = artifact -> true;
+            ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
+            buildingRequest.setProject(project);
+            return dependencyCollectorBuilder.collectDependencyGraph(buildingRequest, artifactFilter);
+        } catch (DependencyCollectorBuilderException e) {
+            tracker.logFailure("Collect Dependency Graph", e);
+            return null;
+        }
+    }
+
     private void updateLifeCycle(SessionMetrics sessionMetrics) {
         Collection<LifecycleMetrics> lifecycles = new ArrayList<>();
         lifecycles.add(new LifecycleMetrics("Configuration").addActiveDuration(getConfigurationDuration()));
@@ -608,6 +1087,9 @@ public class ProfilerMetrics {
                 dependencyMetrics.setDuration(artifactMetrics.getDuration());
             }
         }
+        Map<String, DependencyMetrics> dependenciesById = new HashMap<>();
+        dependencyMetrics.values().forEach(d -> dependenciesById.put(d.getId(), d));
+        dependencyMetrics.values().forEach(d -> d.updateClosure(dependenciesById));
     }
 
     private DependencyMetrics getMetrics(Dependency dependency) {
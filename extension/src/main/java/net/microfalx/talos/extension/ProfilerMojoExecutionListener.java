@@ -48,7 +48,7 @@ public class ProfilerMojoExecutionListener implements MojoExecutionListener {
     @Override
     public void beforeMojoExecution(MojoExecutionEvent event) throws MojoExecutionException {
         tracker.track("Mojo Execution", t -> {
-            profilerMetrics.mojoStarted(event.getMojo(), event.getExecution());
+            profilerMetrics.mojoStarted(event.getProject(), event.getMojo(), event.getExecution());
             if (configuration.isQuietAndWithProgress()) printMojo(event);
         }, event.getProject(), event.getMojo());
 
@@ -57,14 +57,14 @@ public class ProfilerMojoExecutionListener implements MojoExecutionListener {
     @Override
     public void afterMojoExecutionSuccess(MojoExecutionEvent event) throws MojoExecutionException {
         tracker.track("Mojo Success", t -> {
-            profilerMetrics.mojoStop(event.getProject(), event.getMojo(), null);
+            profilerMetrics.mojoStop(event.getProject(), event.getMojo(), event.getExecution(), null);
         }, event.getProject(), event.getMojo());
     }
 
     @Override
     public void afterExecutionFailure(MojoExecutionEvent event) {
         tracker.track("Mojo Failure", t -> {
-            profilerMetrics.mojoStop(event.getProject(), event.getMojo(), event.getCause());
+            profilerMetrics.mojoStop(event.getProject(), event.getMojo(), event.getExecution(), event.getCause());
         }, event.getProject(), event.getMojo());
     }
 
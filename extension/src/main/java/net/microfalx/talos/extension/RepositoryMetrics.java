@@ -1,15 +1,31 @@
 package net.microfalx.talos.extension;
 
 import net.microfalx.talos.core.MavenTracker;
+import net.microfalx.talos.core.MavenUtils;
+import net.microfalx.talos.model.ArtifactMetrics;
+import net.microfalx.talos.model.RepositoryTransferMetrics;
 import org.apache.maven.eventspy.EventSpy;
 import org.eclipse.aether.RepositoryEvent;
 import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.metadata.Metadata;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.io.File;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * Collects metrics about various Maven events.
@@ -22,6 +38,43 @@ public class RepositoryMetrics extends AbstractRepositoryMetrics implements Even
 
     private final MavenTracker tracker = new MavenTracker(RepositoryMetrics.class);
 
+    private final Set<String> downloads = ConcurrentHashMap.newKeySet();
+    private final Set<String> updateChecks = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> resolvedArtifacts = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the artifacts with the most lookups which could be avoided.
+     *
+     * @param limit the maximum number of artifacts
+     * @return a non-null instance
+     */
+    public List<ArtifactMetrics> getHotspots(int limit) {
+        return getMetrics().stream().filter(m -> m.getAvoidableLookupCount() > 0)
+                .sorted(Comparator.comparing(ArtifactMetrics::getAvoidableLookupCount).reversed())
+                .limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the percentage of lookups resolved from the local repository.
+     *
+     * @return a percentage (0 to 100)
+     */
+    public float getLocalHitRatio() {
+        return ArtifactMetrics.getLocalHitRatio(getMetrics());
+    }
+
+    /**
+     * Returns the number of artifacts resolved from a remote repository, downloaded or already in the local
+     * repository (the local repository remembers the repository which provided each artifact).
+     *
+     * @param host the host of the repository
+     * @return a positive integer
+     */
+    public int getResolvedArtifacts(String host) {
+        AtomicInteger count = resolvedArtifacts.get(host);
+        return count != null ? count.get() : 0;
+    }
+
     @Override
     public void init(Context context) throws Exception {
         // empty on purpose
@@ -46,8 +99,22 @@ public class RepositoryMetrics extends AbstractRepositoryMetrics implements Even
             case ARTIFACT_RESOLVING:
                 getMetrics(artifact).artifactResolveStart(artifact);
                 break;
+            case ARTIFACT_DOWNLOADING:
+                downloads.add(getDownloadKey(artifact));
+                break;
+            case ARTIFACT_DOWNLOADED:
+                getMetrics(artifact).lookup(repositoryEvent.getException() instanceof ArtifactNotFoundException
+                        ? ArtifactMetrics.Lookup.REMOTE_NOT_FOUND : ArtifactMetrics.Lookup.REMOTE_DOWNLOAD);
+                break;
             case ARTIFACT_RESOLVED:
                 getMetrics(artifact).artifactResolveStop(artifact, repositoryEvent.getException());
+                if (!downloads.remove(getDownloadKey(artifact)) && repositoryEvent.getException() == null) {
+                    getMetrics(artifact).lookup(ArtifactMetrics.Lookup.LOCAL_HIT);
+                }
+                if (repositoryEvent.getException() == null && repositoryEvent.getRepository() instanceof RemoteRepository) {
+                    String host = RepositoryTransferMetrics.getHost(((RemoteRepository) repositoryEvent.getRepository()).getUrl());
+                    resolvedArtifacts.computeIfAbsent(host, k -> new AtomicInteger()).incrementAndGet();
+                }
                 break;
             case ARTIFACT_INSTALLING:
                 getMetrics(artifact).artifactInstallStart(artifact);
@@ -66,13 +133,52 @@ public class RepositoryMetrics extends AbstractRepositoryMetrics implements Even
                 break;
             case METADATA_RESOLVED:
                 getMetrics(metadata).metadataResolveStop(repositoryEvent.getException());
+                if (!downloads.remove(getDownloadKey(metadata)) && repositoryEvent.getException() == null) {
+                    getMetrics(metadata).lookup(ArtifactMetrics.Lookup.LOCAL_HIT);
+                }
                 break;
             case METADATA_DOWNLOADING:
                 getMetrics(metadata).metadataDownloadStart(metadata);
+                downloads.add(getDownloadKey(metadata));
+                if (isLocalMetadataAvailable(repositoryEvent)) updateChecks.add(getUpdateKey(repositoryEvent));
                 break;
             case METADATA_DOWNLOADED:
                 getMetrics(metadata).metadataDownloadStop(repositoryEvent.getException());
+                boolean updateCheck = updateChecks.remove(getUpdateKey(repositoryEvent));
+                if (repositoryEvent.getException() instanceof MetadataNotFoundException) {
+                    getMetrics(metadata).lookup(ArtifactMetrics.Lookup.REMOTE_NOT_FOUND);
+                } else {
+                    getMetrics(metadata).lookup(updateCheck ? ArtifactMetrics.Lookup.UPDATE_CHECK : ArtifactMetrics.Lookup.REMOTE_DOWNLOAD);
+                }
                 break;
         }
     }
+
+    private static boolean isLocalMetadataAvailable(RepositoryEvent repositoryEvent) {
+        // the metadata is downloaded again (an update check) only if a copy from the same repository already exists
+        RepositorySystemSession session = repositoryEvent.getSession();
+        if (session == null || session.getLocalRepositoryManager() == null
+            || !(repositoryEvent.getRepository() instanceof RemoteRepository)) {
+            return false;
+        }
+        String path = session.getLocalRepositoryManager().getPathForRemoteMetadata(repositoryEvent.getMetadata(),
+                (RemoteRepository) repositoryEvent.getRepository(), "");
+        return new File(session.getLocalRepository().getBasedir(), path).exists();
+    }
+
+    private static String getUpdateKey(RepositoryEvent repositoryEvent) {
+        String repository = repositoryEvent.getRepository() != null ? repositoryEvent.getRepository().getId() : null;
+        return getDownloadKey(repositoryEvent.getMetadata()) + ":" + repository;
+    }
+
+    private static String getDownloadKey(Artifact artifact) {
+        // an artifact is downloaded and resolved by the same thread, while other threads (parallel builds)
+        // can resolve the same artifact from the local repository in the meantime
+        return "A:" + ArtifactIdUtils.toId(artifact) + "@" + Thread.currentThread().getId();
+    }
+
+    private static String getDownloadKey(Metadata metadata) {
+        // metadata is downloaded by the worker threads of the resolver, so the thread cannot be part of the key
+        return "M:" + MavenUtils.getId(metadata) + ":" + metadata.getVersion() + ":" + metadata.getType();
+    }
 }
@@ -0,0 +1,218 @@
+package net.microfalx.talos.extension;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import net.microfalx.talos.core.MavenLogger;
+import net.microfalx.talos.core.MavenTracker;
+import net.microfalx.talos.model.CompactSeries;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.*;
+import java.time.Duration;
+import java.util.*;
+
+import static net.microfalx.talos.model.SessionMetrics.*;
+
+/**
+ * Samples the resources used by the process (and the server) at a configurable interval, down to 100ms.
+ * <p>
+ * The JVM and server collectors record a large number of metrics at a fixed cadence, which is too coarse to
+ * correlate short spikes (a GC, a burst of CPU) with the tasks executing at the time. This sampler records a
+ * few essential resources at a high resolution in {@link CompactSeries}, so a long build costs kilobytes.
+ * <p>
+ * The live set is the heap used after a collection of the old generation (a full collection, a G1 mixed collection
+ * or remark pause, a ZGC/Shenandoah cycle), received as a GC notification. The heap used after a young collection
+ * still contains the garbage of the old generation, so young collections do not update the live set.
+ */
+final class ResourceSampler implements Runnable {
+
+    private static final MavenLogger LOGGER = MavenLogger.create(ResourceSampler.class);
+
+    private static final String G1_YOUNG = "G1 Young Generation";
+    private static final Set<String> OLD_COLLECTORS = new HashSet<>(Arrays.asList("G1 Concurrent GC", "ZGC Cycles",
+            "ZGC Major Cycles", "Shenandoah Cycles"));
+
+    static final Duration MINIMUM_INTERVAL = Duration.ofMillis(100);
+
+    private final MavenTracker tracker = new MavenTracker(ResourceSampler.class);
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+    private final Map<String, CompactSeries> series = new LinkedHashMap<>();
+    private final Set<String> heapPools = new HashSet<>();
+    private final NotificationListener gcListener = this::handleGcNotification;
+    private final long interval;
+    private final long startTime = System.currentTimeMillis();
+    private final long startNanoTime = System.nanoTime();
+    private volatile Thread thread;
+    private long lastGcTime = -1;
+    private long lastTimestamp;
+    private volatile long liveSet;
+    private volatile long maximumLiveSet;
+
+    ResourceSampler(Duration interval) {
+        this.interval = Math.max(MINIMUM_INTERVAL.toMillis(), interval.toMillis());
+        register(RESOURCE_PROCESS_CPU, "Process CPU");
+        register(RESOURCE_SYSTEM_CPU, "System CPU");
+        register(RESOURCE_HEAP_USED, "Heap Used");
+        register(RESOURCE_HEAP_COMMITTED, "Heap Committed");
+        register(RESOURCE_HEAP_LIVE, "Heap Live");
+        register(RESOURCE_GC, "GC");
+        register(RESOURCE_THREADS, "Threads");
+        for (MemoryPoolMXBean memoryPoolMXBean : ManagementFactory.getMemoryPoolMXBeans()) {
+            // the young pools are empty after a full collection, but not after a remark pause
+            if (memoryPoolMXBean.getType() == MemoryType.HEAP && !memoryPoolMXBean.getName().contains("Eden")) {
+                heapPools.add(memoryPoolMXBean.getName());
+            }
+        }
+    }
+
+    /**
+     * Returns the series collected so far.
+     *
+     * @return a non-null instance
+     */
+    Collection<CompactSeries> getSeries() {
+        Collection<CompactSeries> result = new ArrayList<>();
+        for (CompactSeries value : series.values()) {
+            if (value.isEmpty()) continue;
+            value.trim();
+            result.add(value);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the maximum heap used after a collection of the old generation (the live set).
+     *
+     * @return a positive integer, 0 if the old generation was not collected (the live set is not available)
+     */
+    long getMaximumLiveSet() {
+        return maximumLiveSet;
+    }
+
+    void start() {
+        LOGGER.debug("Start resource sampler, interval: {}ms", interval);
+        thread = new Thread(this);
+        thread.setName("Talos Resource Sampler");
+        thread.setDaemon(true);
+        thread.start();
+        for (GarbageCollectorMXBean garbageCollectorMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (garbageCollectorMXBean instanceof NotificationEmitter) {
+                ((NotificationEmitter) garbageCollectorMXBean).addNotificationListener(gcListener, null, null);
+            }
+        }
+    }
+
+    void stop() {
+        Thread thread = this.thread;
+        this.thread = null;
+        if (thread == null) return;
+        for (GarbageCollectorMXBean garbageCollectorMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (garbageCollectorMXBean instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) garbageCollectorMXBean).removeNotificationListener(gcListener);
+                } catch (ListenerNotFoundException e) {
+                    // not registered, nothing to remove
+                }
+            }
+        }
+        thread.interrupt();
+        try {
+            thread.join(interval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (thread != null) {
+            tracker.track("Sample Resources", t -> sample());
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    private void sample() {
+        long timestamp = getTimestamp();
+        if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+            com.sun.management.OperatingSystemMXBean osMXBean = (com.sun.management.OperatingSystemMXBean) operatingSystemMXBean;
+            add(RESOURCE_PROCESS_CPU, timestamp, osMXBean.getProcessCpuLoad());
+            add(RESOURCE_SYSTEM_CPU, timestamp, osMXBean.getCpuLoad());
+        }
+        MemoryUsage heap = memoryMXBean.getHeapMemoryUsage();
+        series.get(RESOURCE_HEAP_USED).add(timestamp, heap.getUsed());
+        series.get(RESOURCE_HEAP_COMMITTED).add(timestamp, heap.getCommitted());
+        series.get(RESOURCE_THREADS).add(timestamp, threadMXBean.getThreadCount());
+        long liveSet = this.liveSet;
+        if (liveSet > 0) series.get(RESOURCE_HEAP_LIVE).add(timestamp, liveSet);
+        long gcTime = 0;
+        for (GarbageCollectorMXBean garbageCollectorMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcTime += Math.max(0, garbageCollectorMXBean.getCollectionTime());
+        }
+        if (lastGcTime >= 0 && timestamp > lastTimestamp) {
+            float ratio = (float) (gcTime - lastGcTime) / (timestamp - lastTimestamp);
+            series.get(RESOURCE_GC).add(timestamp, Math.min(100, 100 * ratio));
+        }
+        lastGcTime = gcTime;
+        lastTimestamp = timestamp;
+    }
+
+    /**
+     * Returns the wall-clock time of a sample, derived from the monotonic clock.
+     * <p>
+     * The series reject timestamps going backward, which would happen after a wall-clock step (NTP).
+     *
+     * @return the time in milliseconds since epoch
+     */
+    private long getTimestamp() {
+        return startTime + (System.nanoTime() - startNanoTime) / 1_000_000;
+    }
+
+    private void handleGcNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+        tracker.track("Update Live Set", t -> {
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            if (!isOldCollection(info)) return;
+            long liveSet = 0;
+            for (Map.Entry<String, MemoryUsage> entry : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+                if (heapPools.contains(entry.getKey())) liveSet += entry.getValue().getUsed();
+            }
+            this.liveSet = liveSet;
+            maximumLiveSet = Math.max(maximumLiveSet, liveSet);
+        });
+    }
+
+    private static boolean isOldCollection(GarbageCollectionNotificationInfo info) {
+        // serial, parallel and G1 full collections are reported as "end of major GC"
+        if (info.getGcAction().contains("major") || OLD_COLLECTORS.contains(info.getGcName())) return true;
+        // G1 mixed collections are reported as young collections, but they also reclaim old regions
+        return G1_YOUNG.equals(info.getGcName()) && isOldGenerationReduced(info.getGcInfo());
+    }
+
+    private static boolean isOldGenerationReduced(GcInfo gcInfo) {
+        for (Map.Entry<String, MemoryUsage> entry : gcInfo.getMemoryUsageBeforeGc().entrySet()) {
+            if (!entry.getKey().contains("Old Gen")) continue;
+            MemoryUsage usageAfter = gcInfo.getMemoryUsageAfterGc().get(entry.getKey());
+            if (usageAfter != null && usageAfter.getUsed() < entry.getValue().getUsed()) return true;
+        }
+        return false;
+    }
+
+    private void add(String id, long timestamp, double load) {
+        // the load is negative when not available
+        if (load >= 0) series.get(id).add(timestamp, Math.round(1000 * load) / 10f);
+    }
+
+    private void register(String id, String name) {
+        series.put(id, new CompactSeries(id, name));
+    }
+}
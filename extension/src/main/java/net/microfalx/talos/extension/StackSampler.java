@@ -0,0 +1,144 @@
+package net.microfalx.talos.extension;
+
+import net.microfalx.talos.core.MavenLogger;
+import net.microfalx.talos.core.MavenTracker;
+import net.microfalx.talos.model.LockContentionMetrics;
+import net.microfalx.talos.model.MojoMetrics;
+import net.microfalx.talos.model.StackSampleMetrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * A low frequency sampling profiler for the threads executing mojos.
+ * <p>
+ * A dedicated thread periodically collects the stack traces of the threads which execute a mojo at the time and
+ * aggregates them (per mojo) in a {@link StackSampleMetrics}. Only the threads executing mojos are sampled and the
+ * stack depth is limited, so the cost of a sample depends on the degree of parallelism of the build, not the number
+ * of threads in the JVM. The memory is bounded by the size of the trie of each mojo.
+ * <p>
+ * The same samples are used to find the locks where the threads were blocked or waiting (and the mojo which owned
+ * the lock), aggregated by the class of the lock in a {@link LockContentionMetrics}.
+ */
+final class StackSampler implements Runnable {
+
+    private static final MavenLogger LOGGER = MavenLogger.create(StackSampler.class);
+
+    private static final int MAXIMUM_DEPTH = 256;
+
+    private final MavenTracker tracker = new MavenTracker(StackSampler.class);
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final Map<Long, Deque<MojoMetrics>> activeMojos = new ConcurrentHashMap<>();
+    private final Map<String, StackSampleMetrics> samples = new ConcurrentHashMap<>();
+    private final Map<String, LockContentionMetrics> locks = new ConcurrentHashMap<>();
+    private final long interval;
+    private final boolean stacks;
+    private final boolean contention;
+    private volatile Thread thread;
+
+    StackSampler(int frequency, boolean stacks, boolean contention) {
+        interval = 1000 / Math.min(100, Math.max(1, frequency));
+        this.stacks = stacks;
+        this.contention = contention;
+    }
+
+    /**
+     * Returns the samples collected for each mojo.
+     *
+     * @return a non-null instance
+     */
+    Collection<StackSampleMetrics> getSamples() {
+        return new ArrayList<>(samples.values());
+    }
+
+    /**
+     * Returns the locks where the threads executing mojos were blocked or waiting.
+     *
+     * @return a non-null instance
+     */
+    Collection<LockContentionMetrics> getLocks() {
+        return new ArrayList<>(locks.values());
+    }
+
+    void start() {
+        LOGGER.debug("Start stack sampler, interval: {}ms, stacks: {}, contention: {}", interval, stacks, contention);
+        thread = new Thread(this);
+        thread.setName("Talos Stack Sampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        Thread thread = this.thread;
+        this.thread = null;
+        if (thread != null) thread.interrupt();
+    }
+
+    void mojoStarted(MojoMetrics mojoMetrics) {
+        requireNonNull(mojoMetrics);
+        activeMojos.computeIfAbsent(Thread.currentThread().getId(), id -> new ConcurrentLinkedDeque<>()).push(mojoMetrics);
+    }
+
+    void mojoStopped(MojoMetrics mojoMetrics) {
+        requireNonNull(mojoMetrics);
+        long threadId = Thread.currentThread().getId();
+        Deque<MojoMetrics> mojos = activeMojos.get(threadId);
+        if (mojos == null) return;
+        mojos.remove(mojoMetrics);
+        if (mojos.isEmpty()) activeMojos.remove(threadId);
+    }
+
+    @Override
+    public void run() {
+        while (thread != null) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                break;
+            }
+            tracker.track("Sample Stacks", t -> sample());
+        }
+    }
+
+    private void sample() {
+        Map<Long, MojoMetrics> mojos = new HashMap<>();
+        activeMojos.forEach((threadId, threadMojos) -> {
+            MojoMetrics mojoMetrics = threadMojos.peek();
+            if (mojoMetrics != null) mojos.put(threadId, mojoMetrics);
+        });
+        if (mojos.isEmpty()) return;
+        long[] threadIds = mojos.keySet().stream().mapToLong(Long::longValue).toArray();
+        for (ThreadInfo threadInfo : threadMXBean.getThreadInfo(threadIds, stacks ? MAXIMUM_DEPTH : 0)) {
+            if (threadInfo == null) continue;
+            MojoMetrics mojoMetrics = mojos.get(threadInfo.getThreadId());
+            if (stacks) {
+                // the JVM keeps only the most recent frames of deeper stacks
+                StackTraceElement[] stackTrace = threadInfo.getStackTrace();
+                samples.computeIfAbsent(mojoMetrics.getId(), id -> new StackSampleMetrics(id, mojoMetrics.getName()))
+                        .add(stackTrace, stackTrace.length >= MAXIMUM_DEPTH);
+            }
+            if (contention) sampleLock(threadInfo, mojoMetrics, mojos);
+        }
+    }
+
+    private void sampleLock(ThreadInfo threadInfo, MojoMetrics mojoMetrics, Map<Long, MojoMetrics> mojos) {
+        if (threadInfo.getLockInfo() == null) return;
+        Thread.State state = threadInfo.getThreadState();
+        if (!(state == Thread.State.BLOCKED || state == Thread.State.WAITING || state == Thread.State.TIMED_WAITING)) {
+            return;
+        }
+        String owner = null;
+        if (threadInfo.getLockOwnerId() >= 0) {
+            MojoMetrics ownerMojoMetrics = mojos.get(threadInfo.getLockOwnerId());
+            owner = ownerMojoMetrics != null ? ownerMojoMetrics.getName() : threadInfo.getLockOwnerName();
+        }
+        locks.computeIfAbsent(threadInfo.getLockInfo().getClassName(), LockContentionMetrics::new)
+                .add(state == Thread.State.BLOCKED, mojoMetrics.getName(), owner);
+    }
+}
@@ -5,6 +5,9 @@ import net.microfalx.talos.core.MavenConfiguration;
 import net.microfalx.talos.core.MavenLogger;
 import net.microfalx.talos.core.MavenTracker;
 import net.microfalx.talos.model.ArtifactMetrics;
+import net.microfalx.talos.model.MetadataCheckMetrics;
+import net.microfalx.talos.model.RepositoryTransferMetrics;
+import net.microfalx.talos.model.TransferTimelineMetrics;
 import org.apache.maven.execution.MavenSession;
 import org.eclipse.aether.RepositoryEvent;
 import org.eclipse.aether.artifact.Artifact;
@@ -12,16 +15,28 @@ import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.metadata.DefaultMetadata;
 import org.eclipse.aether.metadata.Metadata;
 import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
 import org.eclipse.aether.transfer.TransferCancelledException;
 import org.eclipse.aether.transfer.TransferEvent;
 import org.eclipse.aether.transfer.TransferListener;
+import org.eclipse.aether.transfer.TransferResource;
+import org.joor.Reflect;
+import org.joor.ReflectException;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+
 /**
  * A class which tracks repository activity.
  */
@@ -41,6 +56,11 @@ public class TransferMetrics extends AbstractRepositoryMetrics implements Transf
     private final AtomicLong downloadVolume = new AtomicLong();
     private final AtomicLong uploadVolume = new AtomicLong();
 
+    private final Map<TransferResource, Transfer> transfers = new ConcurrentHashMap<>();
+    private final Map<String, RepositoryTransferMetrics> repositoryTransfers = new ConcurrentHashMap<>();
+    private final TransferTimelineMetrics transferTimeline = new TransferTimelineMetrics();
+    private final Map<String, MetadataCheckMetrics> metadataChecks = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void postInit() {
         this.configuration = new MavenConfiguration(session);
@@ -54,6 +74,33 @@ public class TransferMetrics extends AbstractRepositoryMetrics implements Transf
         return uploadVolume.get();
     }
 
+    /**
+     * Returns the transfer metrics for each remote repository host.
+     *
+     * @return a non-null instance
+     */
+    public Collection<RepositoryTransferMetrics> getRepositoryTransfers() {
+        return new ArrayList<>(repositoryTransfers.values());
+    }
+
+    /**
+     * Returns the interval (and thread) of each transfer.
+     *
+     * @return a non-null instance
+     */
+    public TransferTimelineMetrics getTransferTimeline() {
+        return transferTimeline;
+    }
+
+    /**
+     * Returns the metadata transfers for each artifact (or snapshot version).
+     *
+     * @return a non-null instance
+     */
+    public Collection<MetadataCheckMetrics> getMetadataChecks() {
+        return new ArrayList<>(metadataChecks.values());
+    }
+
     TransferMetrics intercept(TransferListener listener) {
         this.listener = listener != null ? listener : new NoopTransferListener();
         return this;
@@ -62,12 +109,17 @@ public class TransferMetrics extends AbstractRepositoryMetrics implements Transf
     @Override
     public void transferInitiated(TransferEvent event) throws TransferCancelledException {
         if (shouldForwardEvents()) listener.transferInitiated(event);
-        tracker.track("Repository", t -> trackEvent(event));
+        tracker.track("Repository", t -> {
+            transfers.put(event.getResource(), new Transfer());
+            trackEvent(event);
+        });
     }
 
     @Override
     public void transferStarted(TransferEvent event) throws TransferCancelledException {
         if (shouldForwardEvents()) listener.transferStarted(event);
+        Transfer transfer = transfers.get(event.getResource());
+        if (transfer != null && transfer.firstByte == 0) transfer.firstByte = System.nanoTime();
     }
 
     @Override
@@ -78,7 +130,10 @@ public class TransferMetrics extends AbstractRepositoryMetrics implements Transf
     @Override
     public void transferSucceeded(TransferEvent event) {
         if (shouldForwardEvents()) listener.transferSucceeded(event);
-        tracker.track("Repository", t -> trackEvent(event));
+        tracker.track("Repository", t -> {
+            trackEvent(event);
+            trackTransfer(event, false);
+        });
     }
 
     @Override
@@ -89,7 +144,10 @@ public class TransferMetrics extends AbstractRepositoryMetrics implements Transf
     @Override
     public void transferFailed(TransferEvent event) {
         if (shouldForwardEvents()) listener.transferFailed(event);
-        tracker.track("Repository", t -> trackEvent(event));
+        tracker.track("Repository", t -> {
+            trackEvent(event);
+            trackTransfer(event, true);
+        });
     }
 
     private Artifact convertArtifact(TransferEvent event) {
@@ -155,6 +213,49 @@ public class TransferMetrics extends AbstractRepositoryMetrics implements Transf
                      + ", artifact: " + artifact + ", metadata: " + metadata);
     }
 
+    private void trackTransfer(TransferEvent event, boolean failed) {
+        Transfer transfer = transfers.remove(event.getResource());
+        if (transfer == null) return;
+        long endTime = System.nanoTime();
+        Duration firstByte = transfer.firstByte > 0 ? Duration.ofNanos(transfer.firstByte - transfer.startTime) : null;
+        Duration duration = Duration.ofNanos(endTime - transfer.startTime);
+        String host = RepositoryTransferMetrics.getHost(event.getResource().getRepositoryUrl());
+        String resourceName = event.getResource().getResourceName();
+        boolean notFound = failed && isNotFound(event.getException());
+        MetadataCheckMetrics metadataCheck = MetadataCheckMetrics.from(resourceName);
+        RepositoryTransferMetrics repositoryTransfer = repositoryTransfers.computeIfAbsent(host, RepositoryTransferMetrics::new);
+        repositoryTransfer.record(firstByte, duration, event.getTransferredBytes(), failed);
+        repositoryTransfer.record(duration, MetadataCheckMetrics.isMetadata(resourceName),
+                metadataCheck != null && metadataCheck.isSnapshot(), failed, notFound);
+        if (metadataCheck != null) {
+            metadataChecks.computeIfAbsent(metadataCheck.getId(), k -> metadataCheck).record(host, duration, notFound);
+        }
+        transferTimeline.add(resourceName, host, transfer.thread, transfer.timestamp,
+                duration, event.getTransferredBytes(), failed);
+    }
+
+    private boolean isNotFound(Throwable throwable) {
+        while (throwable != null) {
+            // the connector reports the "not found" of any transporter (wagon included) as resolver exceptions
+            if (throwable instanceof ArtifactNotFoundException || throwable instanceof MetadataNotFoundException) {
+                return true;
+            }
+            if (getStatusCode(throwable) == HTTP_NOT_FOUND) return true;
+            throwable = throwable.getCause();
+        }
+        return false;
+    }
+
+    private int getStatusCode(Throwable throwable) {
+        // the HTTP transporter (not visible to extensions) reports the status code of failed requests
+        try {
+            Object statusCode = Reflect.on(throwable).call("getStatusCode").get();
+            return statusCode instanceof Integer ? (Integer) statusCode : -1;
+        } catch (ReflectException e) {
+            return -1;
+        }
+    }
+
     private void uploadVolume(TransferEvent event) {
         boolean upload = event.getRequestType() == TransferEvent.RequestType.PUT;
         if (upload) {
@@ -169,6 +270,14 @@ public class TransferMetrics extends AbstractRepositoryMetrics implements Transf
         return false;//!configuration.isQuiet();
     }
 
+    private static final class Transfer {
+
+        private final long startTime = System.nanoTime();
+        private final long timestamp = System.currentTimeMillis();
+        private final String thread = Thread.currentThread().getName();
+        private volatile long firstByte;
+    }
+
     static final class NoopTransferListener extends AbstractTransferListener {
 
     }
@@ -0,0 +1,75 @@
+package net.microfalx.talos.extension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateClassScannerTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void readClasses() throws IOException {
+        File file = new File(directory, "test.jar");
+        try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(file))) {
+            output.setComment("test");
+            for (String name : new String[]{"META-INF/MANIFEST.MF", "net/microfalx/A.class", "net/microfalx/B.class",
+                    "net/microfalx/package-info.class", "module-info.class", "META-INF/versions/11/net/microfalx/A.class"}) {
+                output.putNextEntry(new ZipEntry(name));
+                output.write(name.getBytes());
+                output.closeEntry();
+            }
+        }
+        assertArrayEquals(new String[]{"net.microfalx.A", "net.microfalx.B"}, DuplicateClassScanner.readClasses(file));
+    }
+
+    @Test
+    void invalidArchive() throws IOException {
+        File file = new File(directory, "invalid.jar");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(new byte[100]);
+        }
+        assertThrows(IOException.class, () -> DuplicateClassScanner.readClasses(file));
+    }
+
+    @Test
+    void truncatedDirectory() throws IOException {
+        File file = new File(directory, "truncated.jar");
+        try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(file))) {
+            output.putNextEntry(new ZipEntry("net/microfalx/A.class"));
+            output.closeEntry();
+        }
+        byte[] content = Files.readAllBytes(file.toPath());
+        ByteBuffer buffer = ByteBuffer.wrap(content).order(ByteOrder.LITTLE_ENDIAN);
+        for (int position = content.length - 4; position >= 0; position--) {
+            if (buffer.getInt(position) != 0x02014b50) continue;
+            // a name longer than the central directory
+            buffer.putShort(position + 28, (short) 0xFFFF);
+            break;
+        }
+        Files.write(file.toPath(), content);
+        assertThrows(IOException.class, () -> DuplicateClassScanner.readClasses(file));
+    }
+
+    @Test
+    void checksum() throws IOException {
+        File file = new File(directory, "test.jar");
+        assertTrue(file.createNewFile());
+        try (FileOutputStream output = new FileOutputStream(new File(directory, "test.jar.sha1"))) {
+            output.write("abc123  test.jar\n".getBytes());
+        }
+        assertEquals("abc123", DuplicateClassScanner.getChecksum(file));
+        assertEquals("abc123:0:" + file.lastModified(), DuplicateClassScanner.getCacheKey(file));
+    }
+}
@@ -0,0 +1,51 @@
+package net.microfalx.talos.extension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessIoTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void read() throws URISyntaxException {
+        ProcessIo io = ProcessIo.read(getFixture());
+        assertNotNull(io);
+        assertEquals(2048, io.getReadBytes());
+        assertEquals(1024, io.getWriteBytes());
+        assertEquals(4096, io.getDiskReadBytes());
+        assertEquals(512, io.getDiskWriteBytes());
+    }
+
+    @Test
+    void since() throws IOException, URISyntaxException {
+        ProcessIo previous = ProcessIo.read(getFixture());
+        File file = new File(directory, "io");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write("rchar: 3072\nwchar: 1024\nread_bytes: 8192\nwrite_bytes: 0\n".getBytes());
+        }
+        ProcessIo io = ProcessIo.read(file).since(previous);
+        assertEquals(1024, io.getReadBytes());
+        assertEquals(0, io.getWriteBytes());
+        assertEquals(4096, io.getDiskReadBytes());
+        // a counter lower than in the previous snapshot is clamped, never negative
+        assertEquals(0, io.getDiskWriteBytes());
+    }
+
+    @Test
+    void missing() {
+        assertNull(ProcessIo.read(new File(directory, "missing")));
+    }
+
+    private File getFixture() throws URISyntaxException {
+        return new File(ProcessIoTest.class.getResource("/proc/io").toURI());
+    }
+}
@@ -0,0 +1,80 @@
+package net.microfalx.talos.extension;
+
+import net.microfalx.talos.model.MojoMetrics;
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessTrackerTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void parallelMojos() throws InterruptedException {
+        ProcessTracker tracker = new ProcessTracker(Duration.ofSeconds(1));
+        MavenProject api = createProject("api");
+        MavenProject web = createProject("web");
+        MojoMetrics compile = new MojoMetrics(new CompilerMojo());
+        MojoMetrics test = new MojoMetrics(new SurefireMojo());
+        startInThread(() -> tracker.mojoStarted(api, new MojoExecution(new MojoDescriptor()), compile));
+        startInThread(() -> tracker.mojoStarted(web, new MojoExecution(new MojoDescriptor()), test));
+        Instant startTime = Instant.now();
+        assertSame(test, tracker.findMojo(startTime, web.getBasedir(), emptyList()));
+        assertSame(compile, tracker.findMojo(startTime, null, List.of("java", "-jar",
+                new File(api.getBuild().getDirectory(), "surefire/surefirebooter.jar").getAbsolutePath())));
+        assertNull(tracker.findMojo(startTime, directory, emptyList()));
+    }
+
+    @Test
+    void singleThread() {
+        ProcessTracker tracker = new ProcessTracker(Duration.ofSeconds(1));
+        MojoMetrics compile = new MojoMetrics(new CompilerMojo());
+        tracker.mojoStarted(createProject("api"), new MojoExecution(new MojoDescriptor()), compile);
+        assertSame(compile, tracker.findMojo(Instant.now(), null, emptyList()));
+    }
+
+    private void startInThread(Runnable runnable) throws InterruptedException {
+        Thread thread = new Thread(runnable);
+        thread.start();
+        thread.join();
+    }
+
+    private MavenProject createProject(String name) {
+        File baseDirectory = new File(directory, name);
+        assertTrue(baseDirectory.mkdirs());
+        MavenProject project = new MavenProject();
+        project.setArtifactId(name);
+        project.setFile(new File(baseDirectory, "pom.xml"));
+        Build build = new Build();
+        build.setDirectory(new File(baseDirectory, "target").getAbsolutePath());
+        project.setBuild(build);
+        return project;
+    }
+
+    private static class CompilerMojo extends AbstractMojo {
+
+        @Override
+        public void execute() {
+        }
+    }
+
+    private static class SurefireMojo extends AbstractMojo {
+
+        @Override
+        public void execute() {
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package net.microfalx.talos.junit;
+
+import java.time.Duration;
+import java.util.*;
+
+import static java.util.Collections.unmodifiableList;
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.lang.ArgumentUtils.requireNotEmpty;
+
+/**
+ * Distributes test classes in a number of shards with (almost) equal duration.
+ * <p>
+ * The planner uses the "longest processing time first" heuristic: test classes are sorted by their (historical)
+ * duration, the slowest first, and each class is assigned to the shard with the smallest duration so far.
+ */
+public final class ShardPlanner {
+
+    private final int shardCount;
+    private final List<TestClass> testClasses = new ArrayList<>();
+
+    public ShardPlanner(int shardCount) {
+        if (shardCount < 1) throw new IllegalArgumentException("At least one shard is required, got " + shardCount);
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Registers a test class.
+     *
+     * @param moduleId  the module (artifact identifier) which owns the test class
+     * @param className the class name
+     * @param duration  the expected duration of the class
+     * @return self
+     */
+    public ShardPlanner add(String moduleId, String className, Duration duration) {
+        testClasses.add(new TestClass(moduleId, className, duration));
+        return this;
+    }
+
+    /**
+     * Creates the shards.
+     *
+     * @return a non-null instance, one entry for each shard
+     */
+    public List<Shard> plan() {
+        List<Shard> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new Shard(i + 1));
+        }
+        PriorityQueue<Shard> queue = new PriorityQueue<>(Comparator.comparing(Shard::getDuration)
+                .thenComparing(Shard::getIndex));
+        queue.addAll(shards);
+        List<TestClass> sortedTestClasses = new ArrayList<>(testClasses);
+        sortedTestClasses.sort(Comparator.comparing(TestClass::getDuration).reversed()
+                .thenComparing(TestClass::getModuleId).thenComparing(TestClass::getClassName));
+        for (TestClass testClass : sortedTestClasses) {
+            Shard shard = queue.poll();
+            shard.add(testClass);
+            queue.add(shard);
+        }
+        return shards;
+    }
+
+    /**
+     * A shard, a group of test classes executed together.
+     */
+    public static final class Shard {
+
+        private final int index;
+        private final List<TestClass> testClasses = new ArrayList<>();
+        private Duration duration = Duration.ZERO;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Returns the index of the shard (starts at 1).
+         *
+         * @return a positive integer
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the expected duration of the shard.
+         *
+         * @return a non-null instance
+         */
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * Returns the test classes assigned to this shard.
+         *
+         * @return a non-null instance
+         */
+        public List<TestClass> getTestClasses() {
+            return unmodifiableList(testClasses);
+        }
+
+        /**
+         * Returns the test classes of a module assigned to this shard.
+         *
+         * @param moduleId the module (artifact identifier)
+         * @return a non-null instance
+         */
+        public List<TestClass> getTestClasses(String moduleId) {
+            requireNonNull(moduleId);
+            List<TestClass> moduleTestClasses = new ArrayList<>();
+            for (TestClass testClass : testClasses) {
+                if (testClass.getModuleId().equals(moduleId)) moduleTestClasses.add(testClass);
+            }
+            return moduleTestClasses;
+        }
+
+        private void add(TestClass testClass) {
+            testClasses.add(testClass);
+            duration = duration.plus(testClass.getDuration());
+        }
+
+        @Override
+        public String toString() {
+            return new StringJoiner(", ", Shard.class.getSimpleName() + "[", "]")
+                    .add("index=" + index)
+                    .add("testClasses=" + testClasses.size())
+                    .add("duration=" + duration)
+                    .toString();
+        }
+    }
+
+    /**
+     * A test class and its expected duration.
+     */
+    public static final class TestClass {
+
+        private final String moduleId;
+        private final String className;
+        private final Duration duration;
+
+        private TestClass(String moduleId, String className, Duration duration) {
+            requireNonNull(moduleId);
+            requireNotEmpty(className);
+            requireNonNull(duration);
+            this.moduleId = moduleId;
+            this.className = className;
+            this.duration = duration;
+        }
+
+        public String getModuleId() {
+            return moduleId;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * Returns the include pattern (as expected by Surefire/Failsafe) for this class.
+         *
+         * @return a non-null instance
+         */
+        public String getIncludePattern() {
+            String name = className;
+            int nestedIndex = name.indexOf('$');
+            if (nestedIndex > 0) name = name.substring(0, nestedIndex);
+            return name.replace('.', '/') + ".java";
+        }
+
+        @Override
+        public String toString() {
+            return new StringJoiner(", ", TestClass.class.getSimpleName() + "[", "]")
+                    .add("moduleId='" + moduleId + "'")
+                    .add("className='" + className + "'")
+                    .add("duration=" + duration)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package net.microfalx.talos.junit;
+
+import net.microfalx.resource.Resource;
+import net.microfalx.resource.ResourceUtils;
+import net.microfalx.talos.core.MavenStorage;
+import net.microfalx.talos.model.TestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.lang.ExceptionUtils.getRootCauseDescription;
+
+/**
+ * A cache (persisted across builds) of the tests extracted from the reports available in a directory.
+ * <p>
+ * Each report file is identified by its name, size and last modified time, so only new or changed reports
+ * have to be parsed again. The cache stores only the compact results (see {@link SurefireReportReader}).
+ */
+final class SurefireReportCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SurefireReportCache.class);
+
+    private static final String CACHE_TYPE = "surefire";
+    private static final int VERSION = 1;
+
+    private static final int FAILURE_FLAG = 1;
+    private static final int ERROR_FLAG = 2;
+    private static final int SKIPPED_FLAG = 4;
+
+    private final Resource resource;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Entry> usedEntries = new HashMap<>();
+    private boolean changed;
+
+    /**
+     * Loads the cache associated with a report directory.
+     *
+     * @param directory the report directory
+     * @param moduleId  the module which owns the tests
+     * @param names     the pool of names (class names, failure types)
+     * @return a non-null instance
+     */
+    static SurefireReportCache load(File directory, String moduleId, Map<String, String> names) {
+        requireNonNull(directory);
+        return load(MavenStorage.getLocalCache(CACHE_TYPE, directory), moduleId, names);
+    }
+
+    /**
+     * Loads a cache stored in a given resource.
+     *
+     * @param resource the resource which stores the cache
+     * @param moduleId the module which owns the tests
+     * @param names    the pool of names (class names, failure types)
+     * @return a non-null instance
+     */
+    static SurefireReportCache load(Resource resource, String moduleId, Map<String, String> names) {
+        SurefireReportCache cache = new SurefireReportCache(resource);
+        cache.read(moduleId, names);
+        return cache;
+    }
+
+    SurefireReportCache(Resource resource) {
+        requireNonNull(resource);
+        this.resource = resource;
+    }
+
+    /**
+     * Returns the tests of a report, if the report did not change since it was cached.
+     *
+     * @param file the report
+     * @return the tests, null if not cached or changed
+     */
+    List<TestMetrics> get(File file) {
+        Entry entry = entries.get(file.getName());
+        if (entry == null || entry.size != file.length() || entry.lastModified != file.lastModified()) return null;
+        usedEntries.put(file.getName(), entry);
+        return entry.tests;
+    }
+
+    /**
+     * Registers the tests of a (new or changed) report.
+     *
+     * @param file  the report
+     * @param tests the tests
+     */
+    void put(File file, List<TestMetrics> tests) {
+        usedEntries.put(file.getName(), new Entry(file.getName(), file.length(), file.lastModified(), tests));
+        changed = true;
+    }
+
+    /**
+     * Stores the cache, if reports were added, changed or removed since the cache was loaded.
+     * <p>
+     * Reports which were not accessed since the cache was loaded are discarded.
+     */
+    void store() {
+        if (!changed && usedEntries.size() == entries.size()) return;
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(resource.getOutputStream()))) {
+            output.writeInt(VERSION);
+            output.writeInt(usedEntries.size());
+            for (Entry entry : usedEntries.values()) {
+                writeString(output, entry.name);
+                output.writeLong(entry.size);
+                output.writeLong(entry.lastModified);
+                output.writeInt(entry.tests.size());
+                for (TestMetrics test : entry.tests) {
+                    write(output, test);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to store test cache {}, root cause: {}", resource, getRootCauseDescription(e));
+        }
+    }
+
+    private void read(String moduleId, Map<String, String> names) {
+        try {
+            if (!ResourceUtils.exists(resource)) return;
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(resource.getInputStream()))) {
+                if (input.readInt() != VERSION) return;
+                int entryCount = input.readInt();
+                for (int i = 0; i < entryCount; i++) {
+                    String name = readString(input);
+                    long size = input.readLong();
+                    long lastModified = input.readLong();
+                    int testCount = input.readInt();
+                    List<TestMetrics> tests = new ArrayList<>(testCount);
+                    for (int j = 0; j < testCount; j++) {
+                        tests.add(read(input, moduleId, names));
+                    }
+                    entries.put(name, new Entry(name, size, lastModified, tests));
+                }
+            }
+        } catch (IOException e) {
+            entries.clear();
+            LOGGER.warn("Failed to load test cache {}, root cause: {}", resource, getRootCauseDescription(e));
+        }
+    }
+
+    private void write(DataOutputStream output, TestMetrics test) throws IOException {
+        writeString(output, test.getClassName());
+        writeString(output, test.getName());
+        output.writeFloat(test.getTime());
+        int flags = (test.isFailure() ? FAILURE_FLAG : 0) | (test.isError() ? ERROR_FLAG : 0)
+                | (test.isSkipped() ? SKIPPED_FLAG : 0);
+        output.writeByte(flags);
+        if (test.isFailureOrError()) {
+            writeString(output, test.getFailureMessage());
+            writeString(output, test.getFailureType());
+            writeString(output, test.getFailureErrorLine());
+            writeString(output, test.getFailureDetail());
+        }
+    }
+
+    private TestMetrics read(DataInputStream input, String moduleId, Map<String, String> names) throws IOException {
+        String className = intern(names, readString(input));
+        String name = readString(input);
+        TestMetrics test = new TestMetrics(moduleId, className, name).setTime(input.readFloat());
+        int flags = input.readByte();
+        test.setFailure((flags & FAILURE_FLAG) != 0).setError((flags & ERROR_FLAG) != 0)
+                .setSkipped((flags & SKIPPED_FLAG) != 0);
+        if (test.isFailureOrError()) {
+            test.setFailureMessage(readString(input));
+            String failureType = readString(input);
+            test.setFailureType(failureType != null ? intern(names, failureType) : null);
+            test.setFailureErrorLine(readString(input));
+            test.setFailureDetail(readString(input));
+        }
+        return test;
+    }
+
+    private static String intern(Map<String, String> names, String value) {
+        String current = names.putIfAbsent(value, value);
+        return current != null ? current : value;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+        } else {
+            byte[] data = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(data.length);
+            output.write(data);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) return null;
+        byte[] data = new byte[length];
+        input.readFully(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    private static class Entry {
+
+        private final String name;
+        private final long size;
+        private final long lastModified;
+        private final List<TestMetrics> tests;
+
+        private Entry(String name, long size, long lastModified, List<TestMetrics> tests) {
+            this.name = name;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.tests = tests;
+        }
+    }
+}
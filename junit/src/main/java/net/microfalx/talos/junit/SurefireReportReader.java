@@ -0,0 +1,248 @@
+package net.microfalx.talos.junit;
+
+import net.microfalx.resource.Resource;
+import net.microfalx.talos.model.TestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.lang.StringUtils.isEmpty;
+
+/**
+ * A streaming (StAX) reader for Surefire/Failsafe XML reports which creates {@link TestMetrics} directly.
+ * <p>
+ * Only the attributes required by the report are extracted: class names (and failure types) are interned since
+ * a test class usually has many tests, and failure details (stack traces) are kept only for failing tests.
+ * The output of the tests ({@code system-out}, {@code system-err}) is never materialized.
+ */
+final class SurefireReportReader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SurefireReportReader.class);
+
+    private static final String REPORT_PREFIX = "TEST-";
+    private static final String REPORT_SUFFIX = ".xml";
+
+    private static final String TEST_SUITE = "testsuite";
+    private static final String TEST_CASE = "testcase";
+    private static final String FAILURE = "failure";
+    private static final String ERROR = "error";
+    private static final String SKIPPED = "skipped";
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private final Map<String, String> names;
+    private final boolean cached;
+    private final File cacheDirectory;
+
+    SurefireReportReader() {
+        this(new ConcurrentHashMap<>(), false);
+    }
+
+    SurefireReportReader(Map<String, String> names, boolean cached) {
+        this(names, cached, null);
+    }
+
+    /**
+     * Creates a cached reader which stores the caches in a given directory, instead of the local storage.
+     *
+     * @param names          the pool of names (class names, failure types)
+     * @param cacheDirectory the directory which stores the caches
+     */
+    SurefireReportReader(Map<String, String> names, File cacheDirectory) {
+        this(names, true, cacheDirectory);
+        requireNonNull(cacheDirectory);
+    }
+
+    private SurefireReportReader(Map<String, String> names, boolean cached, File cacheDirectory) {
+        requireNonNull(names);
+        this.names = names;
+        this.cached = cached;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Reads all reports available in a collection of directories.
+     * <p>
+     * If the reader is cached, only reports which changed since the previous build are parsed.
+     *
+     * @param moduleId    the module (artifact identifier) which owns the tests
+     * @param directories the directories with reports
+     * @return a non-null instance
+     */
+    List<TestMetrics> read(String moduleId, Collection<File> directories) {
+        requireNonNull(moduleId);
+        requireNonNull(directories);
+        List<TestMetrics> tests = new ArrayList<>();
+        for (File directory : directories) {
+            File[] files = directory.listFiles((dir, name) -> name.startsWith(REPORT_PREFIX) && name.endsWith(REPORT_SUFFIX));
+            if (files == null) continue;
+            Arrays.sort(files);
+            SurefireReportCache cache = cached ? loadCache(moduleId, directory) : null;
+            for (File file : files) {
+                List<TestMetrics> testsForFile = cache != null ? cache.get(file) : null;
+                if (testsForFile == null) {
+                    try {
+                        testsForFile = read(moduleId, file);
+                        if (cache != null) cache.put(file, testsForFile);
+                    } catch (IOException e) {
+                        LOGGER.warn("Failed to read test report {}, root cause: {}", file, e.getMessage());
+                        continue;
+                    }
+                }
+                tests.addAll(testsForFile);
+            }
+            if (cache != null) cache.store();
+        }
+        return tests;
+    }
+
+    /**
+     * Reads a single report.
+     *
+     * @param moduleId the module (artifact identifier) which owns the tests
+     * @param file     the report
+     * @return a non-null instance
+     * @throws IOException if the report cannot be read or parsed
+     */
+    List<TestMetrics> read(String moduleId, File file) throws IOException {
+        requireNonNull(moduleId);
+        requireNonNull(file);
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            return read(moduleId, inputStream);
+        }
+    }
+
+    /**
+     * Reads a single report from a stream.
+     *
+     * @param moduleId    the module (artifact identifier) which owns the tests
+     * @param inputStream the stream
+     * @return a non-null instance
+     * @throws IOException if the report cannot be parsed
+     */
+    List<TestMetrics> read(String moduleId, InputStream inputStream) throws IOException {
+        requireNonNull(moduleId);
+        requireNonNull(inputStream);
+        List<TestMetrics> tests = new ArrayList<>();
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(inputStream);
+            String suiteName = null;
+            TestMetrics test = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if (TEST_SUITE.equals(element)) {
+                        suiteName = reader.getAttributeValue(null, "name");
+                    } else if (TEST_CASE.equals(element)) {
+                        test = createTest(moduleId, suiteName, reader);
+                        tests.add(test);
+                    } else if (test != null && (FAILURE.equals(element) || ERROR.equals(element))) {
+                        updateFailure(test, FAILURE.equals(element), reader);
+                    } else if (test != null && SKIPPED.equals(element)) {
+                        test.setSkipped(true);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && TEST_CASE.equals(reader.getLocalName())) {
+                    test = null;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to parse test report", e);
+        } finally {
+            close(reader);
+        }
+        return tests;
+    }
+
+    private SurefireReportCache loadCache(String moduleId, File directory) {
+        if (cacheDirectory == null) return SurefireReportCache.load(directory, moduleId, names);
+        Resource resource = Resource.file(new File(cacheDirectory, directory.getName() + ".data"));
+        return SurefireReportCache.load(resource, moduleId, names);
+    }
+
+    private TestMetrics createTest(String moduleId, String suiteName, XMLStreamReader reader) {
+        String className = reader.getAttributeValue(null, "classname");
+        if (isEmpty(className)) className = suiteName;
+        if (isEmpty(className)) className = "Unknown";
+        String name = reader.getAttributeValue(null, "name");
+        if (name == null) name = "";
+        return new TestMetrics(moduleId, intern(className), name)
+                .setTime(parseTime(reader.getAttributeValue(null, "time")));
+    }
+
+    private void updateFailure(TestMetrics test, boolean failure, XMLStreamReader reader) throws XMLStreamException {
+        if (failure) {
+            test.setFailure(true);
+        } else {
+            test.setError(true);
+        }
+        test.setFailureMessage(reader.getAttributeValue(null, "message"));
+        String type = reader.getAttributeValue(null, "type");
+        if (type != null) test.setFailureType(intern(type));
+        String detail = reader.getElementText();
+        if (!isEmpty(detail)) {
+            detail = detail.trim();
+            test.setFailureDetail(detail);
+            test.setFailureErrorLine(getErrorLine(test.getClassName(), detail));
+        }
+    }
+
+    private String intern(String value) {
+        String current = names.putIfAbsent(value, value);
+        return current != null ? current : value;
+    }
+
+    static String getErrorLine(String className, String detail) {
+        int index = detail.indexOf(className + ".");
+        if (index < 0) return null;
+        int start = detail.indexOf(".java:", index);
+        if (start < 0) return null;
+        start += 6;
+        int end = start;
+        while (end < detail.length() && Character.isDigit(detail.charAt(end))) end++;
+        return end > start ? detail.substring(start, end) : null;
+    }
+
+    static float parseTime(String value) {
+        if (isEmpty(value)) return 0;
+        try {
+            return Float.parseFloat(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader == null) return;
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // ignore
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -1,9 +1,7 @@
 package net.microfalx.talos.junit;
 
+import net.microfalx.talos.model.TestMetrics;
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.plugin.surefire.log.api.NullConsoleLogger;
-import org.apache.maven.plugins.surefire.report.ReportTestSuite;
-import org.apache.maven.plugins.surefire.report.SurefireReportParser;
 import org.apache.maven.project.MavenProject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,6 +14,11 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableCollection;
@@ -27,13 +30,18 @@ public class SurefireTests {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SurefireTests.class);
 
-    private final Map<MavenProject, Collection<ReportTestSuite>> testSuites = new ConcurrentHashMap<>();
+    private static final int MAXIMUM_PARSER_THREADS = 2;
+
+    private final Map<MavenProject, Collection<TestMetrics>> tests = new ConcurrentHashMap<>();
+    private final SurefireReportReader reader = new SurefireReportReader(new ConcurrentHashMap<>(), true);
+    private final Map<MavenProject, Future<?>> pendingTestSuites = new ConcurrentHashMap<>();
+    private volatile ExecutorService executor;
     private int totalCount;
     private int successfulCount;
     private int failedCount;
     private int errorCount;
     private int skippedCount;
-    private boolean loaded;
+    private volatile boolean loaded;
 
     /**
      * Returns the total number of tests across all projects.
@@ -86,23 +94,53 @@ public class SurefireTests {
      * @return a non-null instance
      */
     public Collection<MavenProject> getProjects() {
-        return unmodifiableCollection(testSuites.keySet());
+        return unmodifiableCollection(tests.keySet());
     }
 
     /**
-     * Returns the test suites for a project.
+     * Returns the tests for a project.
      *
      * @param project the project;
      * @return the tests
      */
-    public Collection<ReportTestSuite> getTestSuites(MavenProject project) {
+    public Collection<TestMetrics> getTests(MavenProject project) {
+        requireNonNull(project);
+        Collection<TestMetrics> testsForProject = tests.get(project);
+        return testsForProject == null ? emptyList() : unmodifiableCollection(testsForProject);
+    }
+
+    /**
+     * Returns the tests across all projects.
+     *
+     * @return a non-null instance
+     */
+    public Collection<TestMetrics> getTests() {
+        Collection<TestMetrics> allTests = new ArrayList<>();
+        tests.values().forEach(allTests::addAll);
+        return unmodifiableCollection(allTests);
+    }
+
+    /**
+     * Loads (in background) the tests of a project, usually as soon as the project (module) completes.
+     * <p>
+     * The results are merged later when {@link #load(MavenSession)} is called.
+     *
+     * @param project the project
+     */
+    public void loadAsync(MavenProject project) {
         requireNonNull(project);
-        Collection<ReportTestSuite> testSuitesForProject = testSuites.get(project);
-        return testSuitesForProject == null ? emptyList() : testSuitesForProject;
+        if (loaded || tests.containsKey(project)) return;
+        synchronized (this) {
+            // the executor is shut down once the tests are loaded
+            if (loaded) return;
+            pendingTestSuites.computeIfAbsent(project, p -> getExecutor().submit(() -> load(p)));
+        }
     }
 
     /**
      * Loads tests for a session.
+     * <p>
+     * Projects already parsed in background (see {@link #loadAsync(MavenProject)}) are only merged.
      *
      * @param session the session
      */
@@ -111,21 +149,25 @@ public class SurefireTests {
         if (loaded) return;
         LOGGER.debug("Load surefire test suites");
         for (MavenProject project : session.getProjects()) {
-            SurefireReportParser parser = createParser(project);
-            if (parser == null) continue;
-            List<ReportTestSuite> reportTestSuites = parser.parseXMLReportFiles();
-            testSuites.put(project, reportTestSuites);
-            updateStat(project, reportTestSuites);
+            Future<?> future = pendingTestSuites.remove(project);
+            if (future != null) waitForLoad(project, future);
+            if (!tests.containsKey(project)) load(project);
+        }
+        LOGGER.debug("Loaded {} projects with tests", tests.size());
+        synchronized (this) {
+            loaded = true;
+            shutdownExecutor();
         }
-        LOGGER.debug("Loaded {} projects with tests", testSuites.size());
-        loaded = true;
     }
 
     /**
      * Resets the state.
      */
     public void reset() {
-        testSuites.clear();
+        pendingTestSuites.values().forEach(future -> future.cancel(true));
+        pendingTestSuites.clear();
+        shutdownExecutor();
+        tests.clear();
         totalCount = 0;
         failedCount = 0;
         skippedCount = 0;
@@ -134,12 +176,53 @@ public class SurefireTests {
         loaded = false;
     }
 
-    private SurefireReportParser createParser(MavenProject project) {
+    private void load(MavenProject project) {
+        List<File> directories = getDirectories(project);
+        if (directories.isEmpty()) return;
+        List<TestMetrics> testsForProject = reader.read(project.getArtifactId(), directories);
+        if (tests.putIfAbsent(project, testsForProject) == null) {
+            updateStat(project, testsForProject);
+        }
+    }
+
+    private void waitForLoad(MavenProject project, Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.warn("Failed to load tests for project {}, root cause: {}", project.getName(),
+                    e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    AtomicInteger index = new AtomicInteger(1);
+                    executor = Executors.newFixedThreadPool(MAXIMUM_PARSER_THREADS, r -> {
+                        Thread thread = new Thread(r, "Surefire Parser " + index.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return executor;
+    }
+
+    private synchronized void shutdownExecutor() {
+        if (executor == null) return;
+        executor.shutdown();
+        executor = null;
+    }
+
+    private List<File> getDirectories(MavenProject project) {
         List<File> directories = new ArrayList<>();
         appendDirectory(project, directories, "surefire-reports");
         appendDirectory(project, directories, "failsafe-reports");
-        if (directories.isEmpty()) return null;
-        return new SurefireReportParser(directories, new NullConsoleLogger());
+        return directories;
     }
 
     private void appendDirectory(MavenProject project, List<File> directories, String subDirectory) {
@@ -150,14 +233,14 @@ public class SurefireTests {
         }
     }
 
-    private void updateStat(MavenProject project, List<ReportTestSuite> suites) {
-        for (ReportTestSuite suite : suites) {
-            LOGGER.debug("{} / {} = {}", project.getName(), suite.getName(), suite.getNumberOfTests());
-            totalCount += suite.getNumberOfTests();
-            failedCount += suite.getNumberOfFailures();
-            skippedCount += suite.getNumberOfSkipped();
-            errorCount += suite.getNumberOfErrors();
-            successfulCount += suite.getNumberOfTests() - suite.getNumberOfErrors() - suite.getNumberOfFailures();
+    private synchronized void updateStat(MavenProject project, List<TestMetrics> testsForProject) {
+        LOGGER.debug("{} = {}", project.getName(), testsForProject.size());
+        for (TestMetrics test : testsForProject) {
+            totalCount++;
+            if (test.isFailure()) failedCount++;
+            if (test.isError()) errorCount++;
+            if (test.isSkipped()) skippedCount++;
+            if (!test.isFailureOrError()) successfulCount++;
         }
     }
 }
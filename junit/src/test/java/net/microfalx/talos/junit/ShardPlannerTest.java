@@ -0,0 +1,31 @@
+package net.microfalx.talos.junit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShardPlannerTest {
+
+    @Test
+    void plan() {
+        ShardPlanner planner = new ShardPlanner(2);
+        planner.add("m1", "a.ATest", Duration.ofSeconds(8)).add("m1", "a.BTest", Duration.ofSeconds(7))
+                .add("m2", "b.CTest", Duration.ofSeconds(6)).add("m2", "b.DTest", Duration.ofSeconds(5))
+                .add("m2", "b.ETest", Duration.ofSeconds(4));
+        List<ShardPlanner.Shard> shards = planner.plan();
+        assertEquals(2, shards.size());
+        assertEquals(Duration.ofSeconds(17), shards.get(0).getDuration());
+        assertEquals(Duration.ofSeconds(13), shards.get(1).getDuration());
+        assertEquals(5, shards.get(0).getTestClasses().size() + shards.get(1).getTestClasses().size());
+    }
+
+    @Test
+    void includePattern() {
+        ShardPlanner planner = new ShardPlanner(1);
+        planner.add("m1", "a.b.ATest$Nested", Duration.ofSeconds(1));
+        assertEquals("a/b/ATest.java", planner.plan().get(0).getTestClasses("m1").get(0).getIncludePattern());
+    }
+}
@@ -0,0 +1,76 @@
+package net.microfalx.talos.junit;
+
+import net.microfalx.talos.model.TestMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SurefireReportReaderTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void read() {
+        SurefireReportReader reader = new SurefireReportReader();
+        List<TestMetrics> tests = reader.read("test", List.of(new File("src/test/resources/reports")));
+        assertEquals(4, tests.size());
+        TestMetrics success = tests.get(0);
+        assertEquals("success", success.getName());
+        assertEquals(0.012f, success.getTime(), 0.0001);
+        assertFalse(success.isFailureOrError());
+        assertNull(success.getFailureDetail());
+        TestMetrics failure = tests.get(1);
+        assertTrue(failure.isFailure());
+        assertEquals("expected: <1> but was: <2>", failure.getFailureMessage());
+        assertEquals("org.opentest4j.AssertionFailedError", failure.getFailureType());
+        assertEquals("42", failure.getFailureErrorLine());
+        assertNotNull(failure.getFailureDetail());
+        TestMetrics error = tests.get(2);
+        assertTrue(error.isError());
+        assertEquals("50", error.getFailureErrorLine());
+        assertTrue(tests.get(3).isSkipped());
+        assertSame(success.getClassName(), failure.getClassName());
+    }
+
+    @Test
+    void readCached() throws IOException {
+        File reports = new File(directory, "reports");
+        File cacheDirectory = new File(directory, "cache");
+        assertTrue(reports.mkdirs());
+        assertTrue(cacheDirectory.mkdirs());
+        File report = new File(reports, "TEST-net.microfalx.talos.SampleTest.xml");
+        Files.copy(new File("src/test/resources/reports", report.getName()).toPath(), report.toPath());
+        SurefireReportReader reader = new SurefireReportReader(new ConcurrentHashMap<>(), cacheDirectory);
+        List<TestMetrics> tests = reader.read("test", List.of(reports));
+        assertEquals(4, tests.size());
+        assertTrue(new File(cacheDirectory, "reports.data").exists());
+        // same size and last modified time, but it cannot be parsed anymore
+        FileTime lastModified = Files.getLastModifiedTime(report.toPath());
+        Files.write(report.toPath(), new byte[(int) report.length()]);
+        Files.setLastModifiedTime(report.toPath(), lastModified);
+        List<TestMetrics> cachedTests = reader.read("test", List.of(reports));
+        assertEquals(tests.size(), cachedTests.size());
+        for (int i = 0; i < tests.size(); i++) {
+            assertEquals(tests.get(i).getId(), cachedTests.get(i).getId());
+            assertEquals(tests.get(i).getTime(), cachedTests.get(i).getTime());
+            assertEquals(tests.get(i).isFailureOrError(), cachedTests.get(i).isFailureOrError());
+            assertEquals(tests.get(i).getFailureDetail(), cachedTests.get(i).getFailureDetail());
+        }
+    }
+
+    @Test
+    void parseTime() {
+        assertEquals(0, SurefireReportReader.parseTime(null));
+        assertEquals(1234.5f, SurefireReportReader.parseTime("1,234.5"), 0.001);
+        assertEquals(0, SurefireReportReader.parseTime("n/a"));
+    }
+}
@@ -12,6 +12,8 @@ import java.io.File;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 class SurefireTestsTest {
 
     @Test
@@ -21,6 +23,18 @@ class SurefireTestsTest {
         tests.load(session);
     }
 
+    @Test
+    void loadAsync() {
+        MavenSession session = createSession("test");
+        SurefireTests tests = new SurefireTests();
+        session.getProjects().forEach(tests::loadAsync);
+        tests.load(session);
+        SurefireTests syncTests = new SurefireTests();
+        syncTests.load(session);
+        assertEquals(syncTests.getTotalCount(), tests.getTotalCount());
+        assertEquals(syncTests.getProjects().size(), tests.getProjects().size());
+    }
+
     protected final MavenSession createSession(String name) {
         DefaultMavenExecutionRequest request = new DefaultMavenExecutionRequest();
         DefaultMavenExecutionResult result = new DefaultMavenExecutionResult();
@@ -328,6 +328,24 @@ public abstract class AbstractSessionMetrics<T extends AbstractSessionMetrics<T>
         kryo.register(TestSummaryMetrics.class, SERIALIZATION_ID + 28);
         kryo.register(LifecycleMetrics.class, SERIALIZATION_ID + 29);
         kryo.register(FailureMetrics.class, SERIALIZATION_ID + 30);
+        kryo.register(TestTimeMetrics.class, SERIALIZATION_ID + 31);
+        kryo.register(TestRegressionMetrics.class, SERIALIZATION_ID + 32);
+        kryo.register(Histogram.class, SERIALIZATION_ID + 33);
+        kryo.register(RepositoryTransferMetrics.class, SERIALIZATION_ID + 34);
+        kryo.register(TransferTimelineMetrics.class, SERIALIZATION_ID + 35);
+        kryo.register(MetadataCheckMetrics.class, SERIALIZATION_ID + 36);
+        kryo.register(RepositoryRankingMetrics.class, SERIALIZATION_ID + 37);
+        kryo.register(DuplicateClassMetrics.class, SERIALIZATION_ID + 38);
+        kryo.register(CompileMetrics.class, SERIALIZATION_ID + 39);
+        kryo.register(StackSampleMetrics.class, SERIALIZATION_ID + 41);
+        kryo.register(FlightRecordingMetrics.class, SERIALIZATION_ID + 42);
+        kryo.register(LockContentionMetrics.class, SERIALIZATION_ID + 43);
+        kryo.register(CompactSeries.class, SERIALIZATION_ID + 44);
+        kryo.register(ChildProcessMetrics.class, SERIALIZATION_ID + 45);
+        kryo.register(MemoryMetrics.class, SERIALIZATION_ID + 46);
+        kryo.register(MemoryRecommendationMetrics.class, SERIALIZATION_ID + 47);
+        kryo.register(BuildRegressionMetrics.class, SERIALIZATION_ID + 48);
+        kryo.register(BuildRegressionMetrics.Type.class, SERIALIZATION_ID + 49);
 
         kryo.register(AbstractTimeAwareMetrics.ActiveIntervalImpl.class, SERIALIZATION_ID + 40);
 
@@ -381,6 +399,12 @@ public abstract class AbstractSessionMetrics<T extends AbstractSessionMetrics<T>
         kryo.register(AtomicInteger.class, SERIALIZATION_ID + 120);
         kryo.register(AtomicLong.class, SERIALIZATION_ID + 121);
 
+        kryo.register(String[].class, SERIALIZATION_ID + 130);
+        kryo.register(float[].class, SERIALIZATION_ID + 131);
+        kryo.register(int[].class, SERIALIZATION_ID + 132);
+        kryo.register(long[].class, SERIALIZATION_ID + 133);
+        kryo.register(byte[].class, SERIALIZATION_ID + 134);
+
         return kryo;
     }
 }
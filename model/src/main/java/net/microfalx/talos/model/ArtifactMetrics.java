@@ -1,12 +1,17 @@
 package net.microfalx.talos.model;
 
+import com.esotericsoftware.kryo.serializers.VersionFieldSerializer;
 import net.microfalx.lang.TimeUtils;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.metadata.Metadata;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -14,10 +19,19 @@ import static java.lang.System.nanoTime;
 import static java.time.Duration.ofNanos;
 
 /**
- * Holds metrics about Mojo execution.
+ * Holds metrics about the resolution (and installation or deployment) of an artifact.
+ * <p>
+ * Each operation is paired (start and stop) by operation and thread, since the repository system might work on
+ * the same artifact from multiple threads. The intervals of the operations are recorded in a compact log, up to
+ * {@link #MAXIMUM_INTERVALS} for each artifact.
  */
 public final class ArtifactMetrics extends Dependency {
 
+    /**
+     * The maximum number of intervals recorded for an artifact, the durations are accumulated regardless
+     */
+    public static final int MAXIMUM_INTERVALS = 64;
+
     private final Set<String> versions = new HashSet<>();
 
     private volatile long size;
@@ -38,16 +52,25 @@ public final class ArtifactMetrics extends Dependency {
     private final AtomicLong artifactInstallDurationSum = new AtomicLong(0);
     private final AtomicLong artifactDeployDurationSum = new AtomicLong(0);
 
-    private static final ThreadLocal<Long> metadataResolveStartTime = ThreadLocal.withInitial(System::nanoTime);
-    private static final ThreadLocal<Long> metadataResolveEndTime = new ThreadLocal<>();
-    private static final ThreadLocal<Long> metadataDownloadStartTime = ThreadLocal.withInitial(System::nanoTime);
-    private static final ThreadLocal<Long> metadataDownloadEndTime = new ThreadLocal<>();
-    private static final ThreadLocal<Long> artifactResolveStartTime = ThreadLocal.withInitial(System::nanoTime);
-    private static final ThreadLocal<Long> artifactResolveEndTime = new ThreadLocal<>();
-    private static final ThreadLocal<Long> artifactInstallStartTime = ThreadLocal.withInitial(System::nanoTime);
-    private static final ThreadLocal<Long> artifactInstallEndTime = new ThreadLocal<>();
-    private static final ThreadLocal<Long> artifactDeployStartTime = ThreadLocal.withInitial(System::nanoTime);
-    private static final ThreadLocal<Long> artifactDeployEndTime = new ThreadLocal<>();
+    @VersionFieldSerializer.Since(1)
+    private byte[] intervalOperations = new byte[0];
+    @VersionFieldSerializer.Since(1)
+    private long[] intervalStartTimes = new long[0];
+    @VersionFieldSerializer.Since(1)
+    private int[] intervalDurations = new int[0];
+    @VersionFieldSerializer.Since(1)
+    private int intervalCount;
+
+    @VersionFieldSerializer.Since(2)
+    private final AtomicInteger localHitCount = new AtomicInteger(0);
+    @VersionFieldSerializer.Since(2)
+    private final AtomicInteger remoteDownloadCount = new AtomicInteger(0);
+    @VersionFieldSerializer.Since(2)
+    private final AtomicInteger remoteNotFoundCount = new AtomicInteger(0);
+    @VersionFieldSerializer.Since(2)
+    private final AtomicInteger updateCheckCount = new AtomicInteger(0);
+
+    private final transient Map<Long, Long> inFlight = new ConcurrentHashMap<>();
 
     protected ArtifactMetrics() {
     }
@@ -85,64 +108,153 @@ public final class ArtifactMetrics extends Dependency {
         return artifactDeployCount.get();
     }
 
+    /**
+     * Returns how many times the artifact (or metadata) was found in the local repository.
+     *
+     * @return a positive integer
+     */
+    public int getLocalHitCount() {
+        return localHitCount.get();
+    }
+
+    /**
+     * Returns how many times the artifact (or metadata) was downloaded from a remote repository.
+     *
+     * @return a positive integer
+     */
+    public int getRemoteDownloadCount() {
+        return remoteDownloadCount.get();
+    }
+
+    /**
+     * Returns how many times the artifact (or metadata) was requested from a remote repository which did not have it.
+     *
+     * @return a positive integer
+     */
+    public int getRemoteNotFoundCount() {
+        return remoteNotFoundCount.get();
+    }
+
+    /**
+     * Returns how many times the metadata was checked again with a remote repository (as required by the update policy).
+     *
+     * @return a positive integer
+     */
+    public int getUpdateCheckCount() {
+        return updateCheckCount.get();
+    }
+
+    /**
+     * Returns how many times the metadata was resolved again, after the first resolution in the same session.
+     *
+     * @return a positive integer
+     */
+    public int getRedundantMetadataResolveCount() {
+        return Math.max(0, metadataResolveCount.get() - 1);
+    }
+
+    /**
+     * Returns the number of lookups which could be avoided (redundant metadata resolutions, update checks and
+     * requests for resources missing in a remote repository).
+     *
+     * @return a positive integer
+     */
+    public int getAvoidableLookupCount() {
+        return getRedundantMetadataResolveCount() + getUpdateCheckCount() + getRemoteNotFoundCount();
+    }
+
+    /**
+     * Returns the percentage of lookups resolved from the local repository.
+     *
+     * @param metrics the artifacts
+     * @return a percentage (0 to 100)
+     */
+    public static float getLocalHitRatio(Collection<ArtifactMetrics> metrics) {
+        int localHits = 0;
+        int total = 0;
+        for (ArtifactMetrics metric : metrics) {
+            localHits += metric.getLocalHitCount();
+            total += metric.getLocalHitCount() + metric.getRemoteDownloadCount() + metric.getRemoteNotFoundCount()
+                     + metric.getUpdateCheckCount();
+        }
+        return total > 0 ? (100f * localHits) / total : 100f;
+    }
+
+    /**
+     * Registers the outcome of a lookup (artifact or metadata).
+     *
+     * @param lookup the outcome
+     */
+    public void lookup(Lookup lookup) {
+        switch (lookup) {
+            case LOCAL_HIT:
+                localHitCount.incrementAndGet();
+                break;
+            case REMOTE_DOWNLOAD:
+                remoteDownloadCount.incrementAndGet();
+                break;
+            case REMOTE_NOT_FOUND:
+                remoteNotFoundCount.incrementAndGet();
+                break;
+            case UPDATE_CHECK:
+                updateCheckCount.incrementAndGet();
+                break;
+        }
+    }
+
     public void artifactResolveStart(Artifact artifact) {
         reset();
         artifactResolveCount.incrementAndGet();
-        artifactResolveStartTime.set(nanoTime());
+        start(Operation.ARTIFACT_RESOLVE);
         versions.add(artifact.getVersion());
     }
 
     public void artifactResolveStop(Artifact artifact, Throwable throwable) {
-        artifactResolveEndTime.set(nanoTime());
-        artifactResolveDurationSum.addAndGet(artifactResolveEndTime.get() - artifactResolveStartTime.get());
+        stop(Operation.ARTIFACT_RESOLVE, artifactResolveDurationSum);
         if (artifact.getFile() != null) size = artifact.getFile().length();
     }
 
     public void artifactInstallStart(Artifact artifact) {
         reset();
         artifactInstallCount.incrementAndGet();
-        artifactInstallStartTime.set(nanoTime());
+        start(Operation.ARTIFACT_INSTALL);
     }
 
     public void artifactInstallStop(Throwable throwable) {
-        artifactInstallEndTime.set(nanoTime());
-        artifactInstallDurationSum.addAndGet(artifactInstallEndTime.get() - artifactInstallStartTime.get());
+        stop(Operation.ARTIFACT_INSTALL, artifactInstallDurationSum);
     }
 
     public void artifactDeployStart(Artifact artifact) {
         reset();
         artifactDeployCount.incrementAndGet();
-        artifactDeployStartTime.set(nanoTime());
+        start(Operation.ARTIFACT_DEPLOY);
         versions.add(artifact.getVersion());
     }
 
     public void artifactDeployStop(Throwable throwable) {
-        artifactDeployEndTime.set(nanoTime());
-        artifactDeployDurationSum.addAndGet(artifactDeployEndTime.get() - artifactDeployStartTime.get());
+        stop(Operation.ARTIFACT_DEPLOY, artifactDeployDurationSum);
     }
 
     public void metadataResolveStart(Metadata metadata) {
         reset();
         metadataResolveCount.incrementAndGet();
-        metadataResolveStartTime.set(nanoTime());
+        start(Operation.METADATA_RESOLVE);
         versions.add(metadata.getVersion());
     }
 
     public void metadataResolveStop(Throwable throwable) {
-        metadataResolveEndTime.set(nanoTime());
-        metadataResolveDurationSum.addAndGet(metadataResolveEndTime.get() - metadataResolveStartTime.get());
+        stop(Operation.METADATA_RESOLVE, metadataResolveDurationSum);
     }
 
     public void metadataDownloadStart(Metadata metadata) {
         reset();
         metadataDownloadCount.incrementAndGet();
-        metadataDownloadStartTime.set(nanoTime());
+        start(Operation.METADATA_DOWNLOAD);
         versions.add(metadata.getVersion());
     }
 
     public void metadataDownloadStop(Throwable throwable) {
-        metadataDownloadEndTime.set(nanoTime());
-        metadataDownloadDurationSum.addAndGet(metadataDownloadStartTime.get() - metadataDownloadStartTime.get());
+        stop(Operation.METADATA_DOWNLOAD, metadataDownloadDurationSum);
     }
 
     public Duration getDuration() {
@@ -175,6 +287,77 @@ public final class ArtifactMetrics extends Dependency {
         return this.metadataDownload;
     }
 
+    /**
+     * Returns the number of recorded intervals.
+     *
+     * @return a positive integer
+     */
+    public int getIntervalCount() {
+        return intervalCount;
+    }
+
+    /**
+     * Returns the operation of the interval at a given position.
+     *
+     * @param position the position
+     * @return a non-null instance
+     */
+    public Operation getIntervalOperation(int position) {
+        return Operation.values()[intervalOperations[position]];
+    }
+
+    /**
+     * Returns the moment (milliseconds since epoch) when the interval at a given position started.
+     *
+     * @param position the position
+     * @return a positive integer
+     */
+    public long getIntervalStartTime(int position) {
+        return intervalStartTimes[position];
+    }
+
+    /**
+     * Returns the duration of the interval at a given position.
+     *
+     * @param position the position
+     * @return a non-null instance
+     */
+    public Duration getIntervalDuration(int position) {
+        return Duration.ofNanos(intervalDurations[position] * 1000L);
+    }
+
+    private void start(Operation operation) {
+        inFlight.put(getInFlightKey(operation), nanoTime());
+    }
+
+    private void stop(Operation operation, AtomicLong durationSum) {
+        Long startTime = inFlight.remove(getInFlightKey(operation));
+        if (startTime == null) return;
+        long duration = nanoTime() - startTime;
+        durationSum.addAndGet(duration);
+        record(operation, System.currentTimeMillis() - duration / 1_000_000, duration);
+        reset();
+    }
+
+    private synchronized void record(Operation operation, long startTime, long duration) {
+        if (intervalCount >= MAXIMUM_INTERVALS) return;
+        if (intervalCount == intervalOperations.length) {
+            int capacity = Math.min(MAXIMUM_INTERVALS, Math.max(4, intervalCount * 2));
+            intervalOperations = Arrays.copyOf(intervalOperations, capacity);
+            intervalStartTimes = Arrays.copyOf(intervalStartTimes, capacity);
+            intervalDurations = Arrays.copyOf(intervalDurations, capacity);
+        }
+        intervalOperations[intervalCount] = (byte) operation.ordinal();
+        intervalStartTimes[intervalCount] = startTime;
+        intervalDurations[intervalCount] = (int) Math.min(Integer.MAX_VALUE, duration / 1000);
+        intervalCount++;
+    }
+
+    private static long getInFlightKey(Operation operation) {
+        // the operation is stored in the upper bits, the thread identifier in the lower bits
+        return ((long) operation.ordinal() << 56) | Thread.currentThread().getId();
+    }
+
     private void reset() {
         this.artifactResolve = null;
         this.artifactInstall = null;
@@ -182,4 +365,41 @@ public final class ArtifactMetrics extends Dependency {
         this.metadataResolve = null;
         this.metadataDownload = null;
     }
+
+    /**
+     * An operation tracked for an artifact.
+     */
+    public enum Operation {
+        ARTIFACT_RESOLVE,
+        ARTIFACT_INSTALL,
+        ARTIFACT_DEPLOY,
+        METADATA_RESOLVE,
+        METADATA_DOWNLOAD
+    }
+
+    /**
+     * The outcome of an artifact (or metadata) lookup.
+     */
+    public enum Lookup {
+
+        /**
+         * The resource was available in the local repository.
+         */
+        LOCAL_HIT,
+
+        /**
+         * The resource was downloaded from a remote repository (the local repository did not have a copy).
+         */
+        REMOTE_DOWNLOAD,
+
+        /**
+         * The resource was requested from a remote repository, which did not have it.
+         */
+        REMOTE_NOT_FOUND,
+
+        /**
+         * The metadata was downloaded again from a remote repository, because of the update policy.
+         */
+        UPDATE_CHECK
+    }
 }
@@ -0,0 +1,295 @@
+package net.microfalx.talos.model;
+
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds information about a part of the build (the session, a lifecycle, a mojo of a module or a module) which
+ * became slower compared with previous comparable sessions.
+ * <p>
+ * The baseline is the median and the median absolute deviation (MAD) of the same part in the previous sessions
+ * executed with the same goals and profiles. A part is flagged when its (robust) score, the distance to the
+ * median measured in deviations, exceeds a threshold.
+ */
+public class BuildRegressionMetrics extends NamedIdentityAware<String> {
+
+    /**
+     * The minimum number of previous comparable sessions required to evaluate a part of the build
+     */
+    public static final int MINIMUM_SAMPLES = 3;
+
+    /**
+     * The minimum increase (percentage of the median) to be considered, the deviation of parts of the build
+     * with a stable duration is so small that (insignificant) increases have a large score
+     */
+    public static final double MINIMUM_INCREASE = 10;
+
+    /**
+     * Scales the MAD to be comparable with the standard deviation of a normal distribution
+     */
+    static final double MAD_SCALE = 1.4826;
+
+    private static final String SESSION_ID = "session";
+    private static final String SESSION_NAME = "Session";
+
+    /**
+     * The minimum deviation, avoids infinite scores when the previous sessions have identical durations
+     */
+    private static final long MINIMUM_DEVIATION = Duration.ofMillis(10).toNanos();
+
+    private Type type;
+    private long duration;
+    private long median;
+    private long deviation;
+    private int samples;
+
+    protected BuildRegressionMetrics() {
+    }
+
+    private BuildRegressionMetrics(Type type, String id, String name, long duration) {
+        this.type = type;
+        this.duration = duration;
+        setId(type.name().toLowerCase() + ":" + id);
+        setName(name);
+    }
+
+    /**
+     * Returns the type of the part of the build.
+     *
+     * @return a non-null instance
+     */
+    public Type getType() {
+        return type;
+    }
+
+    public Duration getDuration() {
+        return Duration.ofNanos(duration);
+    }
+
+    /**
+     * Returns the median duration in the previous sessions.
+     *
+     * @return a non-null instance
+     */
+    public Duration getMedian() {
+        return Duration.ofNanos(median);
+    }
+
+    /**
+     * Returns the median absolute deviation of the duration in the previous sessions.
+     *
+     * @return a non-null instance
+     */
+    public Duration getDeviation() {
+        return Duration.ofNanos(deviation);
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Returns how much the duration increased compared with the median.
+     *
+     * @return a non-null instance
+     */
+    public Duration getIncrease() {
+        return Duration.ofNanos(duration - median);
+    }
+
+    /**
+     * Returns how much the duration increased compared with the median, as a percentage.
+     *
+     * @return a positive number
+     */
+    public float getIncreasePercent() {
+        return median > 0 ? (float) (100d * (duration - median) / median) : 0;
+    }
+
+    /**
+     * Returns the distance to the median, measured in (scaled) median absolute deviations.
+     *
+     * @return a positive number
+     */
+    public float getScore() {
+        return getScore(duration, median, deviation);
+    }
+
+    /**
+     * Detects the parts of the build which became slower compared with the previous comparable sessions.
+     * <p>
+     * A part is flagged when its score exceeds the threshold and its duration increased (compared with the median)
+     * by more than the minimum duration and {@link #MINIMUM_INCREASE}.
+     *
+     * @param session         the current session
+     * @param trends          the previous sessions
+     * @param maximumSamples  the maximum number of previous comparable sessions (most recent)
+     * @param threshold       the score above which a part is slower
+     * @param minimumDuration the minimum increase of the duration to be considered
+     * @return a non-null instance, ordered by type and increase (slowest first)
+     */
+    public static List<BuildRegressionMetrics> detect(AbstractSessionMetrics<?> session, Collection<TrendMetrics> trends,
+                                                      int maximumSamples, double threshold, Duration minimumDuration) {
+        requireNonNull(session);
+        requireNonNull(trends);
+        requireNonNull(minimumDuration);
+        List<TrendMetrics> history = trends.stream()
+                .filter(t -> t.getStartTime() != null && isComparable(session, t))
+                .sorted(Comparator.comparing(TrendMetrics::getStartTime).reversed())
+                .limit(maximumSamples).collect(Collectors.toList());
+        if (history.size() < MINIMUM_SAMPLES) return Collections.emptyList();
+        Detector detector = new Detector(history, threshold, minimumDuration);
+        detector.detect(Type.SESSION, Collections.<AbstractSessionMetrics<?>>singleton(session), s -> SESSION_ID, s -> SESSION_NAME,
+                AbstractTimeAwareMetrics::getDuration, Collections::singleton);
+        detector.detect(Type.LIFECYCLE, session.getLifecycles(), LifecycleMetrics::getId, LifecycleMetrics::getName,
+                LifecycleMetrics::getActiveDuration, AbstractSessionMetrics::getLifecycles);
+        detector.detect(Type.MOJO, getModuleMojos(session), ModuleMojo::getId, ModuleMojo::getName,
+                ModuleMojo::getDuration, BuildRegressionMetrics::getModuleMojos);
+        detector.detect(Type.MODULE, session.getModules(), ProjectMetrics::getId, ProjectMetrics::getName,
+                ProjectMetrics::getDuration, AbstractSessionMetrics::getModules);
+        List<BuildRegressionMetrics> regressions = detector.regressions;
+        regressions.sort(Comparator.comparing(BuildRegressionMetrics::getType)
+                .thenComparing(BuildRegressionMetrics::getIncrease, Comparator.reverseOrder()));
+        return regressions;
+    }
+
+    /**
+     * Returns whether two sessions executed the same goals, with the same profiles.
+     *
+     * @param first  the first session
+     * @param second the second session
+     * @return {@code true} if the sessions are comparable, {@code false} otherwise
+     */
+    public static boolean isComparable(AbstractSessionMetrics<?> first, AbstractSessionMetrics<?> second) {
+        requireNonNull(first);
+        requireNonNull(second);
+        return new HashSet<>(first.getGoals()).equals(new HashSet<>(second.getGoals()))
+               && new HashSet<>(first.getProfiles()).equals(new HashSet<>(second.getProfiles()));
+    }
+
+    /**
+     * Returns the mojos executed by each module, a mojo aggregated across modules is not comparable between
+     * sessions which build a different subset of modules.
+     */
+    private static Collection<ModuleMojo> getModuleMojos(AbstractSessionMetrics<?> session) {
+        Map<String, String> names = new HashMap<>();
+        for (MojoMetrics mojo : session.getMojos()) {
+            names.put(mojo.getId(), mojo.getName());
+        }
+        Collection<ModuleMojo> mojos = new ArrayList<>();
+        for (ProjectMetrics module : session.getModules()) {
+            module.getMojoDurations().forEach((mojoId, duration) -> mojos.add(new ModuleMojo(module.getId() + ":" + mojoId,
+                    names.getOrDefault(mojoId, mojoId) + " (" + module.getName() + ")", duration)));
+        }
+        return mojos;
+    }
+
+    private static float getScore(long duration, long median, long deviation) {
+        return (float) ((duration - median) / (MAD_SCALE * Math.max(MINIMUM_DEVIATION, deviation)));
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", BuildRegressionMetrics.class.getSimpleName() + "[", "]")
+                .add("type=" + type)
+                .add("name='" + getName() + "'")
+                .add("duration=" + getDuration())
+                .add("median=" + getMedian())
+                .add("deviation=" + getDeviation())
+                .add("samples=" + samples)
+                .toString();
+    }
+
+    /**
+     * The part of the build
+     */
+    public enum Type {
+        SESSION,
+        LIFECYCLE,
+        MOJO,
+        MODULE
+    }
+
+    private static class ModuleMojo {
+
+        private final String id;
+        private final String name;
+        private final Duration duration;
+
+        private ModuleMojo(String id, String name, Duration duration) {
+            this.id = id;
+            this.name = name;
+            this.duration = duration;
+        }
+
+        private String getId() {
+            return id;
+        }
+
+        private String getName() {
+            return name;
+        }
+
+        private Duration getDuration() {
+            return duration;
+        }
+    }
+
+    private static class Detector {
+
+        private final List<TrendMetrics> history;
+        private final double threshold;
+        private final long minimumDuration;
+        private final List<BuildRegressionMetrics> regressions = new ArrayList<>();
+
+        private Detector(List<TrendMetrics> history, double threshold, Duration minimumDuration) {
+            this.history = history;
+            this.threshold = threshold;
+            this.minimumDuration = minimumDuration.toNanos();
+        }
+
+        private <T> void detect(Type type, Collection<T> values, Function<T, String> idFunction, Function<T, String> nameFunction,
+                                Function<T, Duration> durationFunction, Function<AbstractSessionMetrics<?>, Collection<T>> valuesFunction) {
+            List<Map<String, Duration>> previousDurations = history.stream()
+                    .map(trend -> toDurations(valuesFunction.apply(trend), idFunction, durationFunction))
+                    .collect(Collectors.toList());
+            double[] samples = new double[previousDurations.size()];
+            for (T value : values) {
+                String id = idFunction.apply(value);
+                long duration = durationFunction.apply(value).toNanos();
+                int count = 0;
+                for (Map<String, Duration> durations : previousDurations) {
+                    Duration previousDuration = durations.get(id);
+                    if (previousDuration != null) samples[count++] = previousDuration.toNanos();
+                }
+                if (count < MINIMUM_SAMPLES) continue;
+                double[] sessionSamples = Arrays.copyOf(samples, count);
+                long median = (long) StatisticsUtils.median(sessionSamples);
+                long deviation = (long) StatisticsUtils.medianAbsoluteDeviation(sessionSamples);
+                if (duration - median >= minimumDuration && duration - median >= median * MINIMUM_INCREASE / 100
+                    && getScore(duration, median, deviation) > threshold) {
+                    BuildRegressionMetrics regression = new BuildRegressionMetrics(type, id, nameFunction.apply(value), duration);
+                    regression.median = median;
+                    regression.deviation = deviation;
+                    regression.samples = count;
+                    regressions.add(regression);
+                }
+            }
+        }
+
+        private static <T> Map<String, Duration> toDurations(Collection<T> values, Function<T, String> idFunction,
+                                                             Function<T, Duration> durationFunction) {
+            Map<String, Duration> durations = new HashMap<>();
+            for (T value : values) {
+                durations.put(idFunction.apply(value), durationFunction.apply(value));
+            }
+            return durations;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package net.microfalx.talos.model;
+
+import com.esotericsoftware.kryo.serializers.VersionFieldSerializer;
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.StringJoiner;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds metrics about a process started (directly or indirectly) by the build, like a forked JVM used to
+ * execute tests or a forked compiler.
+ * <p>
+ * The process is attributed to the mojo which was executing when the process was started. The CPU time and
+ * the memory are sampled periodically, so a process which lives less than the sampling interval might be missed
+ * and the CPU time consumed after the last sample is not included.
+ */
+public class ChildProcessMetrics extends NamedIdentityAware<String> {
+
+    private long pid;
+    private String command;
+    private String mojoId;
+    private String mojoName;
+    private ZonedDateTime startTime;
+    private ZonedDateTime endTime;
+    private long cpuTime;
+    private long maximumMemory;
+    @VersionFieldSerializer.Since(1)
+    private long readBytes;
+    @VersionFieldSerializer.Since(1)
+    private long writeBytes;
+    @VersionFieldSerializer.Since(1)
+    private long diskReadBytes;
+    @VersionFieldSerializer.Since(1)
+    private long diskWriteBytes;
+
+    protected ChildProcessMetrics() {
+    }
+
+    public ChildProcessMetrics(long pid, String command, ZonedDateTime startTime) {
+        requireNonNull(command);
+        requireNonNull(startTime);
+        this.pid = pid;
+        this.command = command;
+        this.startTime = startTime;
+        this.endTime = startTime;
+        setId(Long.toString(pid));
+        setName(command);
+    }
+
+    public long getPid() {
+        return pid;
+    }
+
+    /**
+     * Returns the command (executable) of the process.
+     *
+     * @return a non-null instance
+     */
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns the identifier of the mojo which started the process.
+     *
+     * @return the identifier, null if the process was not started by a mojo
+     */
+    public String getMojoId() {
+        return mojoId;
+    }
+
+    /**
+     * Returns the name of the mojo which started the process.
+     *
+     * @return the name, null if the process was not started by a mojo
+     */
+    public String getMojoName() {
+        return mojoName;
+    }
+
+    public ChildProcessMetrics setMojo(MojoMetrics mojoMetrics) {
+        if (mojoMetrics != null) {
+            this.mojoId = mojoMetrics.getId();
+            this.mojoName = mojoMetrics.getName();
+        }
+        return this;
+    }
+
+    public ZonedDateTime getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the time when the process was seen last.
+     *
+     * @return a non-null instance
+     */
+    public ZonedDateTime getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Returns how long the process was alive.
+     *
+     * @return a non-null instance
+     */
+    public Duration getDuration() {
+        return Duration.between(startTime, endTime);
+    }
+
+    /**
+     * Returns the CPU time (user and system) consumed by the process.
+     *
+     * @return a non-null instance
+     */
+    public Duration getCpuTime() {
+        return Duration.ofNanos(cpuTime);
+    }
+
+    /**
+     * Returns the maximum resident memory (RSS) of the process.
+     *
+     * @return a positive integer, 0 if not available
+     */
+    public long getMaximumMemory() {
+        return maximumMemory;
+    }
+
+    /**
+     * Returns the bytes read by the process, served from the storage or the page cache.
+     *
+     * @return a positive integer, 0 if not available
+     */
+    public long getReadBytes() {
+        return readBytes;
+    }
+
+    /**
+     * Returns the bytes written by the process.
+     *
+     * @return a positive integer, 0 if not available
+     */
+    public long getWriteBytes() {
+        return writeBytes;
+    }
+
+    /**
+     * Returns the bytes read by the process from the storage.
+     *
+     * @return a positive integer, 0 if not available
+     */
+    public long getDiskReadBytes() {
+        return diskReadBytes;
+    }
+
+    /**
+     * Returns the bytes written by the process to the storage.
+     *
+     * @return a positive integer, 0 if not available
+     */
+    public long getDiskWriteBytes() {
+        return diskWriteBytes;
+    }
+
+    /**
+     * Updates the I/O counters of the process with a new sample.
+     *
+     * @param readBytes      the bytes read so far
+     * @param writeBytes     the bytes written so far
+     * @param diskReadBytes  the bytes read from the storage so far
+     * @param diskWriteBytes the bytes written to the storage so far
+     */
+    public void updateIo(long readBytes, long writeBytes, long diskReadBytes, long diskWriteBytes) {
+        this.readBytes = Math.max(this.readBytes, readBytes);
+        this.writeBytes = Math.max(this.writeBytes, writeBytes);
+        this.diskReadBytes = Math.max(this.diskReadBytes, diskReadBytes);
+        this.diskWriteBytes = Math.max(this.diskWriteBytes, diskWriteBytes);
+    }
+
+    /**
+     * Returns the average number of cores used by the process while alive.
+     *
+     * @return a positive number
+     */
+    public double getAverageCores() {
+        long duration = getDuration().toNanos();
+        return duration > 0 ? (double) cpuTime / duration : 0;
+    }
+
+    /**
+     * Updates the process with a new sample.
+     *
+     * @param time    the time of the sample
+     * @param cpuTime the CPU time consumed by the process so far
+     * @param memory  the resident memory, 0 if not available
+     */
+    public void update(ZonedDateTime time, Duration cpuTime, long memory) {
+        requireNonNull(time);
+        requireNonNull(cpuTime);
+        if (time.isAfter(endTime)) this.endTime = time;
+        this.cpuTime = Math.max(this.cpuTime, cpuTime.toNanos());
+        this.maximumMemory = Math.max(this.maximumMemory, memory);
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", ChildProcessMetrics.class.getSimpleName() + "[", "]")
+                .add("pid=" + pid)
+                .add("command='" + command + "'")
+                .add("mojo='" + mojoName + "'")
+                .add("duration=" + getDuration())
+                .add("cpuTime=" + getCpuTime())
+                .add("maximumMemory=" + maximumMemory)
+                .toString();
+    }
+}
@@ -0,0 +1,261 @@
+package net.microfalx.talos.model;
+
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * A time series stored in a compact form, suitable for high resolution samples.
+ * <p>
+ * The points are encoded like in Facebook's Gorilla: the timestamps (milliseconds) are stored as the difference
+ * between consecutive deltas (a single bit when the samples are taken at a regular interval) and the values are
+ * stored as the XOR of consecutive floats (a single bit when the value does not change, the meaningful bits
+ * otherwise). A sample costs a few bits on average, instead of an object with a timestamp and a value.
+ * <p>
+ * Points can only be appended, in chronological order.
+ */
+public final class CompactSeries extends NamedIdentityAware<String> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    private long bitCount;
+    private int count;
+
+    private long lastTimestamp;
+    private long lastDelta;
+    private int lastValue;
+    private int lastLeadingZeros = Integer.MAX_VALUE;
+    private int lastTrailingZeros;
+
+    protected CompactSeries() {
+    }
+
+    public CompactSeries(String id, String name) {
+        requireNonNull(id);
+        requireNonNull(name);
+        setId(id);
+        setName(name);
+    }
+
+    /**
+     * Returns the number of points.
+     *
+     * @return a positive integer
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns whether the series has no points.
+     *
+     * @return {@code true} if empty, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the size of the encoded points.
+     *
+     * @return a positive integer
+     */
+    public int getSize() {
+        return (int) ((bitCount + 7) / 8);
+    }
+
+    /**
+     * Appends a point.
+     *
+     * @param timestamp the timestamp (milliseconds since epoch), cannot be before the last timestamp
+     * @param value     the value
+     */
+    public synchronized void add(long timestamp, float value) {
+        if (count > 0 && timestamp < lastTimestamp) {
+            throw new IllegalArgumentException("Timestamp " + timestamp + " is before the last timestamp " + lastTimestamp);
+        }
+        int bits = Float.floatToIntBits(value);
+        if (count == 0) {
+            writeBits(timestamp, 64);
+            writeBits(bits, 32);
+        } else {
+            long delta = timestamp - lastTimestamp;
+            writeTimestamp(delta - lastDelta);
+            writeValue(bits ^ lastValue);
+            lastDelta = delta;
+        }
+        lastTimestamp = timestamp;
+        lastValue = bits;
+        count++;
+    }
+
+    /**
+     * Decodes the points.
+     *
+     * @return a non-null instance
+     */
+    public synchronized List<Point> getPoints() {
+        List<Point> points = new ArrayList<>(count);
+        if (count == 0) return points;
+        Reader reader = new Reader();
+        long timestamp = reader.readBits(64);
+        int value = (int) reader.readBits(32);
+        points.add(new Point(timestamp, Float.intBitsToFloat(value)));
+        long delta = 0;
+        int leadingZeros = 0;
+        int trailingZeros = 0;
+        for (int index = 1; index < count; index++) {
+            delta += readTimestamp(reader);
+            timestamp += delta;
+            if (reader.readBit() == 1) {
+                if (reader.readBit() == 1) {
+                    leadingZeros = (int) reader.readBits(5);
+                    int significantBits = (int) reader.readBits(5) + 1;
+                    trailingZeros = 32 - leadingZeros - significantBits;
+                }
+                int significantBits = 32 - leadingZeros - trailingZeros;
+                value ^= (int) (reader.readBits(significantBits) << trailingZeros);
+            }
+            points.add(new Point(timestamp, Float.intBitsToFloat(value)));
+        }
+        return points;
+    }
+
+    /**
+     * Releases the memory reserved for future points.
+     */
+    public synchronized void trim() {
+        data = Arrays.copyOf(data, getSize());
+    }
+
+    private void writeTimestamp(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writeBits(0b0, 1);
+        } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+            writeBits(0b10, 2);
+            writeBits(deltaOfDelta, 7);
+        } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+            writeBits(0b110, 3);
+            writeBits(deltaOfDelta, 9);
+        } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+            writeBits(0b1110, 4);
+            writeBits(deltaOfDelta, 12);
+        } else {
+            writeBits(0b1111, 4);
+            writeBits(deltaOfDelta, 64);
+        }
+    }
+
+    private static long readTimestamp(Reader reader) {
+        if (reader.readBit() == 0) return 0;
+        if (reader.readBit() == 0) return signExtend(reader.readBits(7), 7);
+        if (reader.readBit() == 0) return signExtend(reader.readBits(9), 9);
+        if (reader.readBit() == 0) return signExtend(reader.readBits(12), 12);
+        return reader.readBits(64);
+    }
+
+    private void writeValue(int xor) {
+        if (xor == 0) {
+            writeBits(0b0, 1);
+            return;
+        }
+        writeBits(0b1, 1);
+        int leadingZeros = Integer.numberOfLeadingZeros(xor);
+        int trailingZeros = Integer.numberOfTrailingZeros(xor);
+        if (leadingZeros >= lastLeadingZeros && trailingZeros >= lastTrailingZeros) {
+            writeBits(0b0, 1);
+            writeBits(xor >>> lastTrailingZeros, 32 - lastLeadingZeros - lastTrailingZeros);
+        } else {
+            int significantBits = 32 - leadingZeros - trailingZeros;
+            writeBits(0b1, 1);
+            writeBits(leadingZeros, 5);
+            writeBits(significantBits - 1, 5);
+            writeBits(xor >>> trailingZeros, significantBits);
+            lastLeadingZeros = leadingZeros;
+            lastTrailingZeros = trailingZeros;
+        }
+    }
+
+    private void writeBits(long value, int bits) {
+        ensureCapacity(bits);
+        for (int bit = bits - 1; bit >= 0; bit--) {
+            if (((value >>> bit) & 1) == 1) {
+                data[(int) (bitCount >>> 3)] |= (byte) (0x80 >>> (bitCount & 7));
+            }
+            bitCount++;
+        }
+    }
+
+    private void ensureCapacity(int bits) {
+        int required = (int) ((bitCount + bits + 7) / 8);
+        if (required > data.length) {
+            data = Arrays.copyOf(data, Math.max(required, data.length + (data.length >> 1)));
+        }
+    }
+
+    private static long signExtend(long value, int bits) {
+        int shift = 64 - bits;
+        return (value << shift) >> shift;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", CompactSeries.class.getSimpleName() + "[", "]")
+                .add("id='" + getId() + "'")
+                .add("count=" + count)
+                .add("size=" + getSize())
+                .toString();
+    }
+
+    /**
+     * A decoded point.
+     */
+    public static final class Point {
+
+        private final long timestamp;
+        private final float value;
+
+        private Point(long timestamp, float value) {
+            this.timestamp = timestamp;
+            this.value = value;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public float getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return timestamp + "=" + value;
+        }
+    }
+
+    private class Reader {
+
+        private long position;
+
+        private int readBit() {
+            int bit = (data[(int) (position >>> 3)] >>> (7 - (position & 7))) & 1;
+            position++;
+            return bit;
+        }
+
+        private long readBits(int bits) {
+            long value = 0;
+            for (int bit = 0; bit < bits; bit++) {
+                value = (value << 1) | readBit();
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package net.microfalx.talos.model;
+
+import com.esotericsoftware.kryo.serializers.VersionFieldSerializer;
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.StringJoiner;
+
+import static java.time.Duration.ofNanos;
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.lang.ArgumentUtils.requireNotEmpty;
+import static net.microfalx.lang.StringUtils.isEmpty;
+
+/**
+ * Holds metrics about the compilation (main or test sources) of a module.
+ * <p>
+ * The sources are counted from the compile source roots of the module and the classes emitted are the classes
+ * written in the output directory while the compiler was running (an incremental compilation emits only the
+ * classes of the changed sources).
+ */
+public class CompileMetrics extends NamedIdentityAware<String> {
+
+    /**
+     * The minimum number of sources compiled for a module to be compared with the other modules
+     */
+    public static final int MINIMUM_SOURCE_FILES = 10;
+
+    /**
+     * The ratio to the median throughput (sources per second) under which a module is slow
+     */
+    public static final float SLOW_THRESHOLD = 3;
+
+    private static final String DEFAULT_EXECUTION_PREFIX = "default-";
+
+    private String moduleId;
+    private String goal;
+    private long duration;
+    private int sourceFiles;
+    private long sourceLines;
+    private int generatedFiles;
+    private int classes;
+    private boolean slow;
+    @VersionFieldSerializer.Since(1)
+    private long[] phases = new long[0];
+    @VersionFieldSerializer.Since(1)
+    private int rounds;
+    @VersionFieldSerializer.Since(2)
+    private String executionId;
+
+    protected CompileMetrics() {
+    }
+
+    public CompileMetrics(String moduleId, String goal) {
+        this(moduleId, goal, null);
+    }
+
+    public CompileMetrics(String moduleId, String goal, String executionId) {
+        requireNotEmpty(moduleId);
+        requireNotEmpty(goal);
+        this.moduleId = moduleId;
+        this.goal = goal;
+        this.executionId = executionId;
+        // a module can compile the same sources more than once (for example, for another release)
+        if (isEmpty(executionId) || executionId.equals(DEFAULT_EXECUTION_PREFIX + goal)) {
+            setId(moduleId + ":" + goal);
+            setName(moduleId + " (" + goal + ")");
+        } else {
+            setId(moduleId + ":" + goal + "@" + executionId);
+            setName(moduleId + " (" + goal + "@" + executionId + ")");
+        }
+    }
+
+    public String getModuleId() {
+        return moduleId;
+    }
+
+    public String getGoal() {
+        return goal;
+    }
+
+    /**
+     * Returns the identifier of the compiler execution.
+     *
+     * @return the identifier, null if not available
+     */
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public Duration getDuration() {
+        return ofNanos(duration);
+    }
+
+    public CompileMetrics setDuration(Duration duration) {
+        requireNonNull(duration);
+        this.duration = duration.toNanos();
+        return this;
+    }
+
+    /**
+     * Returns the number of source files (including generated sources).
+     *
+     * @return a positive integer
+     */
+    public int getSourceFiles() {
+        return sourceFiles;
+    }
+
+    /**
+     * Returns the number of lines of all source files.
+     *
+     * @return a positive integer
+     */
+    public long getSourceLines() {
+        return sourceLines;
+    }
+
+    /**
+     * Returns the number of sources generated by plugins or annotation processors.
+     *
+     * @return a positive integer
+     */
+    public int getGeneratedFiles() {
+        return generatedFiles;
+    }
+
+    /**
+     * Returns the number of classes written by the compiler.
+     *
+     * @return a positive integer
+     */
+    public int getClasses() {
+        return classes;
+    }
+
+    /**
+     * Returns whether anything was compiled.
+     *
+     * @return {@code true} if classes were emitted, {@code false} if the module was up-to-date
+     */
+    public boolean isCompiled() {
+        return classes > 0;
+    }
+
+    /**
+     * Returns the number of source files compiled per second.
+     *
+     * @return a positive number, 0 if nothing was compiled
+     */
+    public float getThroughput() {
+        return isCompiled() && duration > 0 ? sourceFiles / (duration / 1_000_000_000f) : 0;
+    }
+
+    /**
+     * Returns the number of source lines compiled per second.
+     *
+     * @return a positive number, 0 if nothing was compiled
+     */
+    public float getLineThroughput() {
+        return isCompiled() && duration > 0 ? sourceLines / (duration / 1_000_000_000f) : 0;
+    }
+
+    /**
+     * Returns whether the module compiles abnormally slow, compared with the other modules.
+     *
+     * @return {@code true} if slow, {@code false} otherwise
+     */
+    public boolean isSlow() {
+        return slow;
+    }
+
+    /**
+     * Returns whether the time spent by the compiler in each phase was captured.
+     *
+     * @return {@code true} if available, {@code false} otherwise
+     */
+    public boolean hasPhases() {
+        return phases.length > 0;
+    }
+
+    /**
+     * Returns the time spent by the compiler in a phase.
+     *
+     * @param phase the phase
+     * @return a non-null instance, zero if the phases were not captured
+     */
+    public Duration getPhaseDuration(Phase phase) {
+        requireNonNull(phase);
+        return ofNanos(phase.ordinal() < phases.length ? phases[phase.ordinal()] : 0);
+    }
+
+    /**
+     * Returns the number of annotation processing rounds.
+     *
+     * @return a positive integer, 0 if the phases were not captured or there are no annotation processors
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    public CompileMetrics setPhaseDuration(Phase phase, Duration duration) {
+        requireNonNull(phase);
+        requireNonNull(duration);
+        if (phases.length == 0) phases = new long[Phase.values().length];
+        phases[phase.ordinal()] = duration.toNanos();
+        return this;
+    }
+
+    public CompileMetrics setRounds(int rounds) {
+        this.rounds = rounds;
+        return this;
+    }
+
+    public CompileMetrics addSources(int files, long lines, boolean generated) {
+        this.sourceFiles += files;
+        this.sourceLines += lines;
+        if (generated) this.generatedFiles += files;
+        return this;
+    }
+
+    public CompileMetrics setClasses(int classes) {
+        this.classes = classes;
+        return this;
+    }
+
+    /**
+     * Flags the compilations with a throughput (sources per second) much lower than the median throughput.
+     * <p>
+     * Annotation processors and large generated sources are the usual suspects of a slow compilation.
+     *
+     * @param compiles the compilations of a session
+     */
+    public static void detectSlow(Collection<CompileMetrics> compiles) {
+        requireNonNull(compiles);
+        double[] throughputs = compiles.stream().filter(c -> c.isCompiled() && c.sourceFiles >= MINIMUM_SOURCE_FILES)
+                .mapToDouble(CompileMetrics::getThroughput).toArray();
+        if (throughputs.length < 2) return;
+        double median = StatisticsUtils.median(throughputs);
+        for (CompileMetrics compile : compiles) {
+            compile.slow = compile.isCompiled() && compile.sourceFiles >= MINIMUM_SOURCE_FILES
+                           && compile.getThroughput() * SLOW_THRESHOLD < median;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", CompileMetrics.class.getSimpleName() + "[", "]")
+                .add("moduleId='" + moduleId + "'")
+                .add("goal='" + goal + "'")
+                .add("executionId='" + executionId + "'")
+                .add("duration=" + getDuration())
+                .add("sourceFiles=" + sourceFiles)
+                .add("sourceLines=" + sourceLines)
+                .add("generatedFiles=" + generatedFiles)
+                .add("classes=" + classes)
+                .add("rounds=" + rounds)
+                .toString();
+    }
+
+    /**
+     * The phases of the compiler.
+     */
+    public enum Phase {
+
+        /**
+         * Sources are parsed into syntax trees
+         */
+        PARSE("Parse"),
+
+        /**
+         * Symbols (classes, members) are entered in the symbol table
+         */
+        ENTER("Enter"),
+
+        /**
+         * Annotation processors are running (all rounds)
+         */
+        PROCESS("Annotation Processing"),
+
+        /**
+         * Syntax trees are attributed, checked and desugared
+         */
+        ANALYZE("Analyze"),
+
+        /**
+         * Class files are written
+         */
+        GENERATE("Generate"),
+
+        /**
+         * The time not attributed to any other phase (initialization, completion of classes from the classpath)
+         */
+        OTHER("Other");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package net.microfalx.talos.model;
 
+import com.esotericsoftware.kryo.serializers.VersionFieldSerializer;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.project.MavenProject;
 
 import java.time.Duration;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
+import static java.time.Duration.ofNanos;
 import static java.util.Collections.unmodifiableSet;
 import static net.microfalx.lang.ArgumentUtils.requireNonNull;
 
@@ -20,6 +23,21 @@ public final class DependencyMetrics extends net.microfalx.talos.model.Dependenc
 
     private long size = -1;
     private Duration duration;
+    @VersionFieldSerializer.Since(1)
+    private int closureCount;
+    @VersionFieldSerializer.Since(1)
+    private long closureSize;
+    @VersionFieldSerializer.Since(1)
+    private long closureDuration;
+    @VersionFieldSerializer.Since(2)
+    private int exclusiveCount;
+    @VersionFieldSerializer.Since(2)
+    private long exclusiveSize;
+    @VersionFieldSerializer.Since(2)
+    private long exclusiveDuration;
+
+    private transient Set<String> closure;
+    private transient Set<String> dependents;
 
     protected DependencyMetrics() {
     }
@@ -47,6 +65,150 @@ public final class DependencyMetrics extends net.microfalx.talos.model.Dependenc
         return this;
     }
 
+    /**
+     * Returns the number of transitive dependencies pulled in by this (direct) dependency.
+     * <p>
+     * A transitive dependency reachable from several direct dependencies counts toward each of them.
+     *
+     * @return a positive integer
+     */
+    public int getClosureCount() {
+        return closureCount;
+    }
+
+    /**
+     * Returns the size of the transitive dependencies pulled in by this (direct) dependency.
+     *
+     * @return a positive integer
+     */
+    public long getClosureSize() {
+        return closureSize;
+    }
+
+    /**
+     * Returns the time spent to resolve (and download) the transitive dependencies pulled in by this (direct) dependency.
+     *
+     * @return a non-null instance
+     */
+    public Duration getClosureDuration() {
+        return ofNanos(closureDuration);
+    }
+
+    /**
+     * Returns the number of transitive dependencies reachable only through this (direct) dependency, across all modules.
+     * <p>
+     * These are the dependencies which would leave the build if this dependency is removed.
+     *
+     * @return a positive integer
+     */
+    public int getExclusiveCount() {
+        return exclusiveCount;
+    }
+
+    /**
+     * Returns the size of the transitive dependencies reachable only through this (direct) dependency.
+     *
+     * @return a positive integer
+     */
+    public long getExclusiveSize() {
+        return exclusiveSize;
+    }
+
+    /**
+     * Returns the time spent to resolve the transitive dependencies reachable only through this (direct) dependency.
+     *
+     * @return a non-null instance
+     */
+    public Duration getExclusiveDuration() {
+        return ofNanos(exclusiveDuration);
+    }
+
+    /**
+     * Returns the size saved by removing the dependency: the dependency and its exclusive transitive dependencies.
+     *
+     * @return a positive integer
+     */
+    public long getRemovalSize() {
+        return Math.max(0, size) + exclusiveSize;
+    }
+
+    /**
+     * Returns the size of the dependency and its transitive dependencies.
+     *
+     * @return a positive integer
+     */
+    public long getTotalSize() {
+        return Math.max(0, size) + closureSize;
+    }
+
+    /**
+     * Returns the time spent to resolve the dependency and its transitive dependencies.
+     *
+     * @return a non-null instance
+     */
+    public Duration getTotalDuration() {
+        return duration != null ? duration.plus(getClosureDuration()) : getClosureDuration();
+    }
+
+    /**
+     * Registers a transitive dependency pulled in by this dependency.
+     * <p>
+     * Registering the dependency itself marks it as declared directly (by some module), which keeps it out of
+     * the exclusive closure of other direct dependencies.
+     *
+     * @param dependency the transitive dependency
+     * @return self
+     */
+    public DependencyMetrics addTransitive(DependencyMetrics dependency) {
+        requireNonNull(dependency);
+        dependency.addDependent(getId());
+        if (dependency == this) return this;
+        synchronized (this) {
+            if (closure == null) closure = new HashSet<>();
+            closure.add(dependency.getId());
+        }
+        return this;
+    }
+
+    /**
+     * Updates the size and duration of the transitive dependencies, once all dependencies are resolved.
+     *
+     * @param dependencies the dependencies of the session, by identifier
+     */
+    public synchronized void updateClosure(Map<String, DependencyMetrics> dependencies) {
+        requireNonNull(dependencies);
+        if (closure == null) return;
+        closureCount = 0;
+        closureSize = 0;
+        closureDuration = 0;
+        exclusiveCount = 0;
+        exclusiveSize = 0;
+        exclusiveDuration = 0;
+        for (String id : closure) {
+            DependencyMetrics dependency = dependencies.get(id);
+            if (dependency == null) continue;
+            long size = Math.max(0, dependency.getSize());
+            long duration = dependency.getDuration() != null ? dependency.getDuration().toNanos() : 0;
+            closureCount++;
+            closureSize += size;
+            closureDuration += duration;
+            if (dependency.isExclusiveTo(getId())) {
+                exclusiveCount++;
+                exclusiveSize += size;
+                exclusiveDuration += duration;
+            }
+        }
+    }
+
+    private synchronized void addDependent(String id) {
+        if (dependents == null) dependents = new HashSet<>();
+        dependents.add(id);
+    }
+
+    private synchronized boolean isExclusiveTo(String id) {
+        return dependents != null && dependents.size() == 1 && dependents.contains(id);
+    }
+
     public Set<String> getVersions() {
         return unmodifiableSet(versions);
     }
@@ -0,0 +1,107 @@
+package net.microfalx.talos.model;
+
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.util.*;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds the classes present in more than one artifact of the same module classpath.
+ * <p>
+ * The classes are grouped by the artifacts which contain them, since two artifacts usually share a whole package
+ * (repackaged or relocated libraries, old and new coordinates of the same library).
+ */
+public class DuplicateClassMetrics extends NamedIdentityAware<String> {
+
+    /**
+     * The maximum number of class names kept (as examples) for each group of artifacts
+     */
+    public static final int MAXIMUM_CLASSES = 10;
+
+    private final List<String> artifacts = new ArrayList<>();
+    private final List<String> classes = new ArrayList<>();
+    private final Set<String> modules = new HashSet<>();
+    private int classCount;
+
+    protected DuplicateClassMetrics() {
+    }
+
+    public DuplicateClassMetrics(Collection<String> artifacts) {
+        requireNonNull(artifacts);
+        this.artifacts.addAll(artifacts);
+        Collections.sort(this.artifacts);
+        String id = String.join(", ", this.artifacts);
+        setId(id);
+        setName(id);
+    }
+
+    /**
+     * Returns the artifacts (<code>groupId:artifactId:version</code>) which contain the same classes.
+     *
+     * @return a non-null instance
+     */
+    public List<String> getArtifacts() {
+        return unmodifiableList(artifacts);
+    }
+
+    /**
+     * Returns a few of the duplicate classes.
+     *
+     * @return a non-null instance
+     * @see #MAXIMUM_CLASSES
+     */
+    public List<String> getClasses() {
+        return unmodifiableList(classes);
+    }
+
+    /**
+     * Returns the number of duplicate classes.
+     *
+     * @return a positive integer
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * Returns the modules which have these artifacts on their classpath.
+     *
+     * @return a non-null instance
+     */
+    public Set<String> getModules() {
+        return unmodifiableSet(modules);
+    }
+
+    /**
+     * Registers a duplicate class.
+     *
+     * @param className the class name
+     */
+    public void addClass(String className) {
+        requireNonNull(className);
+        if (classes.size() < MAXIMUM_CLASSES) classes.add(className);
+        classCount++;
+    }
+
+    /**
+     * Registers a module which has these artifacts on its classpath.
+     *
+     * @param moduleId the module identifier
+     */
+    public void addModule(String moduleId) {
+        requireNonNull(moduleId);
+        modules.add(moduleId);
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", DuplicateClassMetrics.class.getSimpleName() + "[", "]")
+                .add("artifacts=" + artifacts)
+                .add("classCount=" + classCount)
+                .add("modules=" + modules)
+                .toString();
+    }
+}
@@ -0,0 +1,175 @@
+package net.microfalx.talos.model;
+
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.time.Duration.ofNanos;
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds a summary of the events recorded by the JDK Flight Recorder while a mojo was executing.
+ * <p>
+ * The events are attributed to a mojo by the thread which emitted them and their start time. Only the top
+ * entries (methods, allocation sites, monitors) are kept, the details are available in the recording.
+ */
+public class FlightRecordingMetrics extends NamedIdentityAware<String> {
+
+    /**
+     * The maximum number of methods, allocation sites and monitors kept for each mojo
+     */
+    public static final int MAXIMUM_ENTRIES = 10;
+
+    private int executionSamples;
+    private long allocatedBytes;
+    private long monitorWaitTime;
+    private long fileReadBytes;
+    private long fileWriteBytes;
+    private long fileTime;
+    private final Map<String, Long> hotMethods = new HashMap<>();
+    private final Map<String, Long> allocationSites = new HashMap<>();
+    private final Map<String, Long> monitors = new HashMap<>();
+
+    protected FlightRecordingMetrics() {
+    }
+
+    public FlightRecordingMetrics(String id, String name) {
+        setId(id);
+        setName(name);
+    }
+
+    /**
+     * Returns the number of execution (CPU) samples.
+     *
+     * @return a positive integer
+     */
+    public int getExecutionSamples() {
+        return executionSamples;
+    }
+
+    /**
+     * Returns the memory allocated (estimated from the allocation samples).
+     *
+     * @return a positive integer
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the time spent waiting to enter contended monitors.
+     *
+     * @return a non-null instance
+     */
+    public Duration getMonitorWaitTime() {
+        return ofNanos(monitorWaitTime);
+    }
+
+    public long getFileReadBytes() {
+        return fileReadBytes;
+    }
+
+    public long getFileWriteBytes() {
+        return fileWriteBytes;
+    }
+
+    /**
+     * Returns the time spent reading and writing files.
+     *
+     * @return a non-null instance
+     */
+    public Duration getFileTime() {
+        return ofNanos(fileTime);
+    }
+
+    /**
+     * Returns the methods which were executing most often (execution samples).
+     *
+     * @return a non-null instance
+     */
+    public List<Map.Entry<String, Long>> getHotMethods() {
+        return getTop(hotMethods);
+    }
+
+    /**
+     * Returns the methods which allocated the most memory (bytes).
+     *
+     * @return a non-null instance
+     */
+    public List<Map.Entry<String, Long>> getAllocationSites() {
+        return getTop(allocationSites);
+    }
+
+    /**
+     * Returns the classes of the monitors with the longest wait times (nanoseconds).
+     *
+     * @return a non-null instance
+     */
+    public List<Map.Entry<String, Long>> getMonitors() {
+        return getTop(monitors);
+    }
+
+    public void addExecutionSample(String method) {
+        requireNonNull(method);
+        executionSamples++;
+        hotMethods.merge(method, 1L, Long::sum);
+    }
+
+    public void addAllocation(String method, long bytes) {
+        requireNonNull(method);
+        allocatedBytes += bytes;
+        allocationSites.merge(method, bytes, Long::sum);
+    }
+
+    public void addMonitorWait(String monitorClass, Duration duration) {
+        requireNonNull(monitorClass);
+        requireNonNull(duration);
+        monitorWaitTime += duration.toNanos();
+        monitors.merge(monitorClass, duration.toNanos(), Long::sum);
+    }
+
+    public void addFileRead(long bytes, Duration duration) {
+        requireNonNull(duration);
+        fileReadBytes += Math.max(0, bytes);
+        fileTime += duration.toNanos();
+    }
+
+    public void addFileWrite(long bytes, Duration duration) {
+        requireNonNull(duration);
+        fileWriteBytes += Math.max(0, bytes);
+        fileTime += duration.toNanos();
+    }
+
+    /**
+     * Removes all but the top {@link #MAXIMUM_ENTRIES} methods, allocation sites and monitors.
+     */
+    public void trim() {
+        trim(hotMethods);
+        trim(allocationSites);
+        trim(monitors);
+    }
+
+    private static void trim(Map<String, Long> values) {
+        Set<String> top = getTop(values).stream().map(Map.Entry::getKey).collect(Collectors.toSet());
+        values.keySet().retainAll(top);
+    }
+
+    private static List<Map.Entry<String, Long>> getTop(Map<String, Long> values) {
+        return values.entrySet().stream().sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(MAXIMUM_ENTRIES).collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", FlightRecordingMetrics.class.getSimpleName() + "[", "]")
+                .add("id='" + getId() + "'")
+                .add("executionSamples=" + executionSamples)
+                .add("allocatedBytes=" + allocatedBytes)
+                .add("monitorWaitTime=" + getMonitorWaitTime())
+                .add("fileReadBytes=" + fileReadBytes)
+                .add("fileWriteBytes=" + fileWriteBytes)
+                .toString();
+    }
+}
@@ -0,0 +1,183 @@
+package net.microfalx.talos.model;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * A compact histogram of (positive) values, with buckets distributed similar to a HDR histogram.
+ * <p>
+ * Each power of two is split in {@link #SUB_BUCKETS} linear sub-buckets, which keeps the relative error of
+ * any percentile under ~6% regardless of the magnitude of the values, while only the buckets up to the largest
+ * recorded value are stored.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * The number of (linear) buckets for each power of two
+     */
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private long[] counts = new long[0];
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private long sum;
+
+    public Histogram() {
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return a positive integer
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the smallest recorded value.
+     *
+     * @return a positive integer, 0 if there are no values
+     */
+    public long getMinimum() {
+        return count > 0 ? min : 0;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return a positive integer, 0 if there are no values
+     */
+    public long getMaximum() {
+        return max;
+    }
+
+    /**
+     * Returns the average of the recorded values.
+     *
+     * @return a positive integer, 0 if there are no values
+     */
+    public long getAverage() {
+        return count > 0 ? sum / count : 0;
+    }
+
+    /**
+     * Returns the value at a given percentile.
+     * <p>
+     * The value is the upper bound of the bucket which holds the percentile, limited by the largest recorded value.
+     *
+     * @param percentile the percentile (0 to 100)
+     * @return a positive integer, 0 if there are no values
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) return 0;
+        if (percentile <= 0) return getMinimum();
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+        long total = 0;
+        for (int index = 0; index < counts.length; index++) {
+            total += counts[index];
+            if (total >= rank) return Math.max(getMinimum(), Math.min(max, getBucketValue(index)));
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of buckets which (might) hold values.
+     *
+     * @return a positive integer
+     */
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * Returns the number of values recorded in a bucket.
+     *
+     * @param bucket the bucket index
+     * @return a positive integer
+     */
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value, negative values are recorded as 0
+     * @return self
+     */
+    public synchronized Histogram record(long value) {
+        value = Math.max(0, value);
+        int index = getBucket(value);
+        if (index >= counts.length) counts = Arrays.copyOf(counts, index + 1);
+        counts[index]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        return this;
+    }
+
+    /**
+     * Adds the values of another histogram to this histogram.
+     *
+     * @param histogram the histogram
+     * @return self
+     */
+    public synchronized Histogram add(Histogram histogram) {
+        requireNonNull(histogram);
+        if (histogram.count == 0) return this;
+        if (histogram.counts.length > counts.length) counts = Arrays.copyOf(counts, histogram.counts.length);
+        for (int index = 0; index < histogram.counts.length; index++) {
+            counts[index] += histogram.counts[index];
+        }
+        count += histogram.count;
+        sum += histogram.sum;
+        min = Math.min(min, histogram.min);
+        max = Math.max(max, histogram.max);
+        return this;
+    }
+
+    /**
+     * Returns the bucket which holds a value.
+     *
+     * @param value the value
+     * @return the bucket index
+     */
+    public static int getBucket(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value which falls in a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the value
+     */
+    public static long getBucketValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        int subBucket = bucket % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", Histogram.class.getSimpleName() + "[", "]")
+                .add("count=" + count)
+                .add("min=" + getMinimum())
+                .add("max=" + max)
+                .add("average=" + getAverage())
+                .toString();
+    }
+}
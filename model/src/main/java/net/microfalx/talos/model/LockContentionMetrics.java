@@ -0,0 +1,112 @@
+package net.microfalx.talos.model;
+
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds the samples where threads executing mojos were blocked (waiting to enter a monitor) or waiting
+ * (<code>Object.wait</code>, <code>LockSupport.park</code>) on a lock of a given class.
+ * <p>
+ * The locks are identified by class, since the instances change from one build to another. The samples are taken
+ * periodically, so the number of samples multiplied by the sampling interval approximates the time lost.
+ */
+public class LockContentionMetrics extends NamedIdentityAware<String> {
+
+    private int blockedSamples;
+    private int waitedSamples;
+    private final Map<String, Integer> waiters = new HashMap<>();
+    private final Map<String, Integer> owners = new HashMap<>();
+
+    protected LockContentionMetrics() {
+    }
+
+    public LockContentionMetrics(String lockClass) {
+        requireNonNull(lockClass);
+        setId(lockClass);
+        setName(lockClass);
+    }
+
+    /**
+     * Returns the number of samples where a thread was blocked on a monitor of this class.
+     *
+     * @return a positive integer
+     */
+    public int getBlockedSamples() {
+        return blockedSamples;
+    }
+
+    /**
+     * Returns the number of samples where a thread was waiting on a lock of this class.
+     *
+     * @return a positive integer
+     */
+    public int getWaitedSamples() {
+        return waitedSamples;
+    }
+
+    /**
+     * Returns the total number of samples.
+     *
+     * @return a positive integer
+     */
+    public int getSamples() {
+        return blockedSamples + waitedSamples;
+    }
+
+    /**
+     * Returns the mojos which were blocked or waiting on the lock, with the most samples first.
+     *
+     * @return a non-null instance
+     */
+    public List<String> getWaiters() {
+        return sort(waiters);
+    }
+
+    /**
+     * Returns the mojos (or threads, when the owner was not executing a mojo) which were holding the lock,
+     * with the most samples first.
+     *
+     * @return a non-null instance
+     */
+    public List<String> getOwners() {
+        return sort(owners);
+    }
+
+    /**
+     * Registers a sample.
+     *
+     * @param blocked {@code true} if the thread was blocked to enter a monitor, {@code false} if waiting
+     * @param waiter  the mojo which was waiting
+     * @param owner   the mojo or thread which owned the lock, null if not known
+     */
+    public synchronized void add(boolean blocked, String waiter, String owner) {
+        requireNonNull(waiter);
+        if (blocked) {
+            blockedSamples++;
+        } else {
+            waitedSamples++;
+        }
+        waiters.merge(waiter, 1, Integer::sum);
+        if (owner != null) owners.merge(owner, 1, Integer::sum);
+    }
+
+    private static List<String> sort(Map<String, Integer> values) {
+        return values.entrySet().stream().sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", LockContentionMetrics.class.getSimpleName() + "[", "]")
+                .add("id='" + getId() + "'")
+                .add("blockedSamples=" + blockedSamples)
+                .add("waitedSamples=" + waitedSamples)
+                .add("waiters=" + waiters.keySet())
+                .add("owners=" + owners.keySet())
+                .toString();
+    }
+}
@@ -0,0 +1,158 @@
+package net.microfalx.talos.model;
+
+import java.time.Duration;
+import java.util.StringJoiner;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds metrics about the memory (heap) pressure of the Maven process during a session.
+ * <p>
+ * The live set is the memory still used after a collection of the old generation (the maximum observed during the
+ * session), which is the minimum heap the build needs; the difference to the maximum heap is the room left for
+ * allocations between collections.
+ */
+public class MemoryMetrics {
+
+    private long maximumHeap;
+    private long liveSet;
+    private long allocatedBytes;
+    private long gcTime;
+    private long gcCount;
+    private long uptime;
+    private String collector;
+    private long physicalMemory;
+    private int processors;
+
+    protected MemoryMetrics() {
+    }
+
+    public MemoryMetrics(long maximumHeap, long liveSet, Duration uptime) {
+        requireNonNull(uptime);
+        this.maximumHeap = maximumHeap;
+        this.liveSet = liveSet;
+        this.uptime = uptime.toNanos();
+    }
+
+    /**
+     * Returns the maximum heap of the process (<code>-Xmx</code>).
+     *
+     * @return a positive integer
+     */
+    public long getMaximumHeap() {
+        return maximumHeap;
+    }
+
+    /**
+     * Returns the maximum memory used after a collection of the old generation.
+     *
+     * @return a positive integer, 0 if not available (the old generation was not collected)
+     */
+    public long getLiveSet() {
+        return liveSet;
+    }
+
+    /**
+     * Returns the memory allocated by the threads which executed mojos.
+     *
+     * @return a positive integer
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the allocation rate (bytes per second) over the lifetime of the process.
+     *
+     * @return a positive number
+     */
+    public double getAllocationRate() {
+        return uptime > 0 ? allocatedBytes / (uptime / 1_000_000_000d) : 0;
+    }
+
+    /**
+     * Returns the time spent in garbage collection.
+     *
+     * @return a non-null instance
+     */
+    public Duration getGcTime() {
+        return Duration.ofNanos(gcTime);
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    /**
+     * Returns the lifetime of the process.
+     *
+     * @return a non-null instance
+     */
+    public Duration getUptime() {
+        return Duration.ofNanos(uptime);
+    }
+
+    /**
+     * Returns the percentage of time spent in garbage collection.
+     *
+     * @return a number between 0 and 100
+     */
+    public double getGcPercent() {
+        return uptime > 0 ? Math.min(100, 100d * gcTime / uptime) : 0;
+    }
+
+    /**
+     * Returns the names of the garbage collectors.
+     *
+     * @return a non-null instance
+     */
+    public String getCollector() {
+        return collector != null ? collector : "";
+    }
+
+    /**
+     * Returns the physical memory of the server.
+     *
+     * @return a positive integer, 0 if not available
+     */
+    public long getPhysicalMemory() {
+        return physicalMemory;
+    }
+
+    public int getProcessors() {
+        return processors;
+    }
+
+    public MemoryMetrics setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+        return this;
+    }
+
+    public MemoryMetrics setGc(String collector, long gcCount, Duration gcTime) {
+        requireNonNull(collector);
+        requireNonNull(gcTime);
+        this.collector = collector;
+        this.gcCount = gcCount;
+        this.gcTime = gcTime.toNanos();
+        return this;
+    }
+
+    public MemoryMetrics setServer(long physicalMemory, int processors) {
+        this.physicalMemory = physicalMemory;
+        this.processors = processors;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", MemoryMetrics.class.getSimpleName() + "[", "]")
+                .add("maximumHeap=" + maximumHeap)
+                .add("liveSet=" + liveSet)
+                .add("allocatedBytes=" + allocatedBytes)
+                .add("gcTime=" + getGcTime())
+                .add("gcCount=" + gcCount)
+                .add("uptime=" + getUptime())
+                .add("collector='" + collector + "'")
+                .toString();
+    }
+}
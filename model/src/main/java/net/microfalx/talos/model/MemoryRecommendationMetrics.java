@@ -0,0 +1,261 @@
+package net.microfalx.talos.model;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds a recommendation for the heap (and garbage collector) of the Maven process, to be added
+ * to <code>.mvn/jvm.config</code> (or <code>MAVEN_OPTS</code>).
+ * <p>
+ * The heap is sized as a multiple of the largest live set observed in the current and previous sessions. The
+ * time spent in GC is (roughly) proportional with the number of collections, which is inversely proportional
+ * with the heap left free after a collection, so the GC time is projected using the ratio between the free
+ * heap before and after the change.
+ */
+public class MemoryRecommendationMetrics {
+
+    /**
+     * The maximum number of previous sessions (most recent) used to build the recommendation
+     */
+    public static final int MAXIMUM_SAMPLES = 20;
+
+    /**
+     * The percentage of time spent in GC above which the heap is considered under pressure
+     */
+    public static final double GC_THRESHOLD = 5;
+
+    /**
+     * The heap recommended relative to the live set
+     */
+    public static final int LIVE_SET_FACTOR = 3;
+
+    /**
+     * The maximum share of the physical memory given to the heap, the rest is left for forked processes
+     */
+    public static final double PHYSICAL_MEMORY_RATIO = 0.5;
+
+    static final long MEGABYTE = 1024 * 1024;
+    static final long GRANULARITY = 256 * MEGABYTE;
+    static final long MINIMUM_HEAP = 512 * MEGABYTE;
+
+    private static final String PARALLEL_GC = "-XX:+UseParallelGC";
+    private static final Set<String> SERIAL_COLLECTORS = new HashSet<>(Arrays.asList("Copy", "MarkSweepCompact"));
+
+    private long currentHeap;
+    private long recommendedHeap;
+    private long liveSet;
+    private float gcPercent;
+    private long gcTime;
+    private long projectedGcTime;
+    private long uptime;
+    private String collectorOption;
+    private int samples;
+
+    protected MemoryRecommendationMetrics() {
+    }
+
+    /**
+     * Returns the maximum heap (-Xmx) of the current session.
+     *
+     * @return a positive integer
+     */
+    public long getCurrentHeap() {
+        return currentHeap;
+    }
+
+    /**
+     * Returns the recommended maximum heap.
+     *
+     * @return a positive integer
+     */
+    public long getRecommendedHeap() {
+        return recommendedHeap;
+    }
+
+    /**
+     * Returns the largest live set observed across sessions.
+     *
+     * @return a positive integer
+     */
+    public long getLiveSet() {
+        return liveSet;
+    }
+
+    /**
+     * Returns the median percentage of time spent in GC across sessions.
+     *
+     * @return a number between 0 and 100
+     */
+    public float getGcPercent() {
+        return gcPercent;
+    }
+
+    /**
+     * Returns the time spent in GC by the current session.
+     *
+     * @return a non-null instance
+     */
+    public Duration getGcTime() {
+        return Duration.ofNanos(gcTime);
+    }
+
+    /**
+     * Returns the time the current session would have spent in GC with the recommended settings.
+     *
+     * @return a non-null instance
+     */
+    public Duration getProjectedGcTime() {
+        return Duration.ofNanos(projectedGcTime);
+    }
+
+    /**
+     * Returns the GC time saved (projected) with the recommended settings.
+     *
+     * @return a non-null instance
+     */
+    public Duration getSavings() {
+        return Duration.ofNanos(Math.max(0, gcTime - projectedGcTime));
+    }
+
+    /**
+     * Returns the GC time saved relative to the duration of the current session.
+     *
+     * @return a number between 0 and 100
+     */
+    public float getSavingsPercent() {
+        return uptime > 0 ? (float) (100d * getSavings().toNanos() / uptime) : 0;
+    }
+
+    /**
+     * Returns the option which changes the garbage collector.
+     *
+     * @return the option, null if the collector does not need to change
+     */
+    public String getCollectorOption() {
+        return collectorOption;
+    }
+
+    /**
+     * Returns the number of sessions (including the current session) used to build the recommendation.
+     *
+     * @return a positive integer
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Returns whether the heap should be increased.
+     *
+     * @return {@code true} to increase the heap, {@code false} otherwise
+     */
+    public boolean isHeapChanged() {
+        return recommendedHeap > currentHeap;
+    }
+
+    /**
+     * Returns whether the settings of the JVM should change.
+     *
+     * @return {@code true} if the settings should change, {@code false} otherwise
+     */
+    public boolean isChangeRecommended() {
+        return isHeapChanged() || collectorOption != null;
+    }
+
+    /**
+     * Returns the JVM options to add in <code>.mvn/jvm.config</code>.
+     *
+     * @return a non-null instance, empty if the settings do not need to change
+     */
+    public String getOptions() {
+        StringJoiner joiner = new StringJoiner(" ");
+        if (isHeapChanged()) joiner.add("-Xmx" + formatHeap(recommendedHeap));
+        if (collectorOption != null) joiner.add(collectorOption);
+        return joiner.toString();
+    }
+
+    /**
+     * Builds a recommendation for the heap of the Maven process.
+     * <p>
+     * A larger heap is recommended only when the (median) time spent in GC exceeds {@link #GC_THRESHOLD}; the
+     * serial collector is replaced with the parallel collector under the same condition, when more than one
+     * core is available.
+     *
+     * @param memory the memory metrics of the current session
+     * @param trends the previous sessions
+     * @return the recommendation, null if the live set is not available
+     */
+    public static MemoryRecommendationMetrics recommend(MemoryMetrics memory, Collection<TrendMetrics> trends) {
+        requireNonNull(memory);
+        requireNonNull(trends);
+        List<MemoryMetrics> history = new ArrayList<>();
+        history.add(memory);
+        history.addAll(trends.stream().filter(t -> t.getMemory() != null && t.getStartTime() != null)
+                .sorted(Comparator.comparing(TrendMetrics::getStartTime).reversed())
+                .limit(MAXIMUM_SAMPLES).map(TrendMetrics::getMemory).collect(Collectors.toList()));
+        long liveSet = history.stream().mapToLong(MemoryMetrics::getLiveSet).max().orElse(0);
+        if (liveSet <= 0 || memory.getMaximumHeap() <= 0) return null;
+        MemoryRecommendationMetrics recommendation = new MemoryRecommendationMetrics();
+        recommendation.samples = history.size();
+        recommendation.liveSet = liveSet;
+        recommendation.currentHeap = memory.getMaximumHeap();
+        recommendation.recommendedHeap = memory.getMaximumHeap();
+        recommendation.gcTime = memory.getGcTime().toNanos();
+        recommendation.projectedGcTime = recommendation.gcTime;
+        recommendation.uptime = memory.getUptime().toNanos();
+        recommendation.gcPercent = (float) StatisticsUtils.median(history.stream().mapToDouble(MemoryMetrics::getGcPercent).toArray());
+        if (recommendation.gcPercent < GC_THRESHOLD) return recommendation;
+        long heap = roundUp(Math.max(MINIMUM_HEAP, liveSet * LIVE_SET_FACTOR));
+        if (memory.getPhysicalMemory() > 0) {
+            long maximumHeap = roundDown((long) (memory.getPhysicalMemory() * PHYSICAL_MEMORY_RATIO));
+            heap = Math.max(Math.min(heap, maximumHeap), roundUp(liveSet));
+        }
+        if (heap > memory.getMaximumHeap()) {
+            recommendation.recommendedHeap = heap;
+            long currentFree = Math.max(memory.getMaximumHeap() - liveSet, memory.getMaximumHeap() / 10);
+            long recommendedFree = Math.max(heap - liveSet, currentFree);
+            recommendation.projectedGcTime = (long) (recommendation.gcTime * ((double) currentFree / recommendedFree));
+        }
+        if (memory.getProcessors() > 1 && isSerial(memory.getCollector())) {
+            recommendation.collectorOption = PARALLEL_GC;
+        }
+        return recommendation;
+    }
+
+    private static boolean isSerial(String collector) {
+        for (String name : collector.split(",")) {
+            if (SERIAL_COLLECTORS.contains(name.trim())) return true;
+        }
+        return false;
+    }
+
+    private static long roundUp(long value) {
+        return ((value + GRANULARITY - 1) / GRANULARITY) * GRANULARITY;
+    }
+
+    private static long roundDown(long value) {
+        return (value / GRANULARITY) * GRANULARITY;
+    }
+
+    private static String formatHeap(long value) {
+        long megabytes = value / MEGABYTE;
+        return megabytes % 1024 == 0 ? (megabytes / 1024) + "g" : megabytes + "m";
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", MemoryRecommendationMetrics.class.getSimpleName() + "[", "]")
+                .add("currentHeap=" + currentHeap)
+                .add("recommendedHeap=" + recommendedHeap)
+                .add("liveSet=" + liveSet)
+                .add("gcPercent=" + gcPercent)
+                .add("gcTime=" + getGcTime())
+                .add("projectedGcTime=" + getProjectedGcTime())
+                .add("collectorOption='" + collectorOption + "'")
+                .add("samples=" + samples)
+                .toString();
+    }
+}
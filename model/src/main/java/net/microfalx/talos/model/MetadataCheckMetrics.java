@@ -0,0 +1,179 @@
+package net.microfalx.talos.model;
+
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+import static java.time.Duration.ofNanos;
+import static java.util.Collections.unmodifiableCollection;
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.lang.ArgumentUtils.requireNotEmpty;
+import static net.microfalx.lang.StringUtils.isNotEmpty;
+
+/**
+ * Holds metrics about the metadata (<code>maven-metadata.xml</code>) transfers of an artifact (or a version of an
+ * artifact, for snapshots) with remote repositories.
+ */
+public class MetadataCheckMetrics extends NamedIdentityAware<String> {
+
+    private static final String SNAPSHOT_SUFFIX = "SNAPSHOT";
+    private static final String METADATA_FILE_NAME = "maven-metadata.xml";
+
+    private String groupId;
+    private String artifactId;
+    private String version;
+    private int checks;
+    private int notFound;
+    private long duration;
+    private final Set<String> repositories = new HashSet<>();
+
+    protected MetadataCheckMetrics() {
+    }
+
+    public MetadataCheckMetrics(String groupId, String artifactId, String version) {
+        requireNotEmpty(groupId);
+        requireNotEmpty(artifactId);
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        String id = groupId + ":" + artifactId + (isNotEmpty(version) ? ":" + version : "");
+        setId(id);
+        setName(id);
+    }
+
+    /**
+     * Returns the time spent checking snapshot metadata which would be saved with <code>updatePolicy=daily</code>.
+     * <p>
+     * With a daily update policy, only the first build of each day checks the snapshot metadata, so the checks of
+     * the other builds of the same day are saved.
+     *
+     * @param trends the sessions
+     * @return a non-null instance
+     */
+    public static Duration getDailyPolicySavings(Collection<TrendMetrics> trends) {
+        requireNonNull(trends);
+        Map<LocalDate, List<TrendMetrics>> trendsByDay = new HashMap<>();
+        for (TrendMetrics trend : trends) {
+            if (trend.getStartTime() == null) continue;
+            trendsByDay.computeIfAbsent(trend.getStartTime().toLocalDate(), k -> new ArrayList<>()).add(trend);
+        }
+        Duration savings = Duration.ZERO;
+        for (List<TrendMetrics> dayTrends : trendsByDay.values()) {
+            dayTrends.sort(Comparator.comparing(TrendMetrics::getStartTime));
+            for (TrendMetrics trend : dayTrends.subList(1, dayTrends.size())) {
+                if (trend.getRepositoryTransfers() == null) continue;
+                for (RepositoryTransferMetrics transfers : trend.getRepositoryTransfers()) {
+                    savings = savings.plus(transfers.getSnapshotMetadataDuration());
+                }
+            }
+        }
+        return savings;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean isSnapshot() {
+        return version != null && version.endsWith(SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * Returns the number of metadata transfers (across all repositories).
+     *
+     * @return a positive integer
+     */
+    public int getChecks() {
+        return checks;
+    }
+
+    /**
+     * Returns the number of metadata transfers which found no metadata in the repository.
+     *
+     * @return a positive integer
+     */
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public Duration getDuration() {
+        return ofNanos(duration);
+    }
+
+    /**
+     * Returns the repositories (hosts) which were checked.
+     *
+     * @return a non-null instance
+     */
+    public Collection<String> getRepositories() {
+        return unmodifiableCollection(repositories);
+    }
+
+    /**
+     * Records a metadata transfer.
+     *
+     * @param repository the repository (host)
+     * @param duration   the duration of the transfer
+     * @param notFound   {@code true} if the repository does not have the metadata, {@code false} otherwise
+     */
+    public synchronized void record(String repository, Duration duration, boolean notFound) {
+        requireNonNull(repository);
+        requireNonNull(duration);
+        checks++;
+        if (notFound) this.notFound++;
+        this.duration += duration.toNanos();
+        repositories.add(repository);
+    }
+
+    /**
+     * Returns whether the resource (from a repository) is a metadata file.
+     *
+     * @param resourceName the resource name (path)
+     * @return {@code true} if metadata, {@code false} otherwise
+     */
+    public static boolean isMetadata(String resourceName) {
+        return resourceName != null && resourceName.endsWith(METADATA_FILE_NAME);
+    }
+
+    /**
+     * Creates the metrics for a metadata resource (<code>group/path/artifact[/version]/maven-metadata.xml</code>).
+     *
+     * @param resourceName the resource name (path)
+     * @return the metrics, null if the path cannot be parsed
+     */
+    public static MetadataCheckMetrics from(String resourceName) {
+        if (!isMetadata(resourceName)) return null;
+        String[] parts = resourceName.split("/");
+        int count = parts.length - 1;
+        if (count < 2) return null;
+        String version = null;
+        if (parts[count - 1].endsWith(SNAPSHOT_SUFFIX)) {
+            version = parts[--count];
+            if (count < 2) return null;
+        }
+        String artifactId = parts[count - 1];
+        String groupId = String.join(".", Arrays.copyOf(parts, count - 1));
+        return new MetadataCheckMetrics(groupId, artifactId, version);
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", MetadataCheckMetrics.class.getSimpleName() + "[", "]")
+                .add("id='" + getId() + "'")
+                .add("checks=" + checks)
+                .add("notFound=" + notFound)
+                .add("duration=" + getDuration())
+                .add("repositories=" + repositories)
+                .toString();
+    }
+}
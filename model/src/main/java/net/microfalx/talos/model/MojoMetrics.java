@@ -1,11 +1,13 @@
 package net.microfalx.talos.model;
 
+import com.esotericsoftware.kryo.serializers.VersionFieldSerializer;
 import net.microfalx.lang.ClassUtils;
 import net.microfalx.talos.core.MavenUtils;
 import org.apache.maven.plugin.Mojo;
 import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.project.MavenProject;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -22,6 +24,42 @@ public final class MojoMetrics extends AbstractTimeAwareMetrics<MojoMetrics> {
     private final Set<String> goals = new CopyOnWriteArraySet<>();
     private final AtomicInteger failureCount = new AtomicInteger(0);
     private volatile FailureMetrics failureMetrics;
+    @VersionFieldSerializer.Since(1)
+    private long[] phases = new long[0];
+    @VersionFieldSerializer.Since(2)
+    private long cpuTime;
+    @VersionFieldSerializer.Since(2)
+    private long allocatedBytes;
+    @VersionFieldSerializer.Since(2)
+    private long gcTime;
+    @VersionFieldSerializer.Since(3)
+    private long blockedCount;
+    @VersionFieldSerializer.Since(3)
+    private long blockedTime;
+    @VersionFieldSerializer.Since(3)
+    private long waitedCount;
+    @VersionFieldSerializer.Since(3)
+    private long waitedTime;
+    @VersionFieldSerializer.Since(4)
+    private String plugin;
+    @VersionFieldSerializer.Since(4)
+    private boolean threadSafe = true;
+    @VersionFieldSerializer.Since(4)
+    private long serializedTime;
+    @VersionFieldSerializer.Since(5)
+    private int processCount;
+    @VersionFieldSerializer.Since(5)
+    private long processCpuTime;
+    @VersionFieldSerializer.Since(5)
+    private long processMaximumMemory;
+    @VersionFieldSerializer.Since(6)
+    private long readBytes;
+    @VersionFieldSerializer.Since(6)
+    private long writeBytes;
+    @VersionFieldSerializer.Since(6)
+    private long diskReadBytes;
+    @VersionFieldSerializer.Since(6)
+    private long diskWriteBytes;
 
     private transient Mojo mojo;
 
@@ -47,6 +85,8 @@ public final class MojoMetrics extends AbstractTimeAwareMetrics<MojoMetrics> {
     public void start(MojoExecution execution) {
         setStartTime(ZonedDateTime.now());
         goals.add(MavenUtils.getGoal(execution));
+        if (plugin == null) plugin = execution.getGroupId() + ":" + execution.getArtifactId();
+        if (execution.getMojoDescriptor() != null && !execution.getMojoDescriptor().isThreadSafe()) threadSafe = false;
     }
 
     public void stop(MavenProject project, Throwable throwable) {
@@ -64,4 +104,269 @@ public final class MojoMetrics extends AbstractTimeAwareMetrics<MojoMetrics> {
     public int getFailureCount() {
         return failureCount.get();
     }
+
+    /**
+     * Returns the CPU time consumed by the threads which executed the mojo.
+     *
+     * @return a non-null instance, zero if the JVM does not support thread CPU time
+     */
+    public Duration getCpuTime() {
+        return Duration.ofNanos(cpuTime);
+    }
+
+    /**
+     * Returns the memory allocated (in the heap) by the threads which executed the mojo.
+     *
+     * @return a positive integer, 0 if the JVM does not support thread allocation tracking
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the time spent in garbage collection while the mojo was executing.
+     * <p>
+     * The garbage collector is shared by all threads, so in parallel builds the collections are attributed to
+     * all mojos executing at the time.
+     *
+     * @return a non-null instance
+     */
+    public Duration getGcTime() {
+        return Duration.ofNanos(gcTime);
+    }
+
+    /**
+     * Adds the resources consumed by one execution of the mojo.
+     *
+     * @param cpuTime        the CPU time
+     * @param allocatedBytes the allocated memory
+     * @param gcTime         the time spent in garbage collection
+     */
+    public synchronized void addResources(Duration cpuTime, long allocatedBytes, Duration gcTime) {
+        requireNonNull(cpuTime);
+        requireNonNull(gcTime);
+        this.cpuTime += cpuTime.toNanos();
+        this.allocatedBytes += allocatedBytes;
+        this.gcTime += gcTime.toNanos();
+    }
+
+    /**
+     * Returns how many times the threads which executed the mojo were blocked to enter a monitor.
+     *
+     * @return a positive integer, 0 if the contention monitoring was not enabled
+     */
+    public long getBlockedCount() {
+        return blockedCount;
+    }
+
+    /**
+     * Returns the time the threads which executed the mojo were blocked to enter a monitor.
+     *
+     * @return a non-null instance
+     */
+    public Duration getBlockedTime() {
+        return Duration.ofNanos(blockedTime);
+    }
+
+    /**
+     * Returns how many times the threads which executed the mojo waited for a notification (or were parked).
+     *
+     * @return a positive integer, 0 if the contention monitoring was not enabled
+     */
+    public long getWaitedCount() {
+        return waitedCount;
+    }
+
+    /**
+     * Returns the time the threads which executed the mojo waited for a notification (or were parked).
+     *
+     * @return a non-null instance
+     */
+    public Duration getWaitedTime() {
+        return Duration.ofNanos(waitedTime);
+    }
+
+    /**
+     * Adds the contention of one execution of the mojo.
+     *
+     * @param blockedCount the number of times the thread was blocked
+     * @param blockedTime  the time the thread was blocked
+     * @param waitedCount  the number of times the thread waited
+     * @param waitedTime   the time the thread waited
+     */
+    public synchronized void addContention(long blockedCount, Duration blockedTime, long waitedCount, Duration waitedTime) {
+        requireNonNull(blockedTime);
+        requireNonNull(waitedTime);
+        this.blockedCount += blockedCount;
+        this.blockedTime += blockedTime.toNanos();
+        this.waitedCount += waitedCount;
+        this.waitedTime += waitedTime.toNanos();
+    }
+
+    /**
+     * Returns the plugin (group and artifact identifier) which provides the mojo.
+     *
+     * @return the plugin, null if not available
+     */
+    public String getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Returns whether the mojo is declared thread safe.
+     * <p>
+     * Maven does not execute a mojo which is not thread safe in parallel, in a parallel build the executions
+     * in other modules wait until the current execution completes.
+     *
+     * @return {@code true} if thread safe, {@code false} otherwise
+     */
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+
+    /**
+     * Returns the time (wall-clock) the threads of a parallel build waited for another execution of this mojo
+     * to complete, because the mojo is not thread safe.
+     *
+     * @return a non-null instance
+     */
+    public Duration getSerializedTime() {
+        return Duration.ofNanos(serializedTime);
+    }
+
+    /**
+     * Adds the time a thread waited for another execution of this mojo to complete.
+     *
+     * @param serializedTime the time
+     */
+    public synchronized void addSerializedTime(Duration serializedTime) {
+        requireNonNull(serializedTime);
+        this.serializedTime += serializedTime.toNanos();
+    }
+
+    /**
+     * Returns the number of processes (forked JVMs, compilers, etc.) started by the mojo.
+     *
+     * @return a positive integer
+     */
+    public int getProcessCount() {
+        return processCount;
+    }
+
+    /**
+     * Returns the CPU time consumed by the processes started by the mojo.
+     *
+     * @return a non-null instance
+     */
+    public Duration getProcessCpuTime() {
+        return Duration.ofNanos(processCpuTime);
+    }
+
+    /**
+     * Returns the maximum resident memory of a process started by the mojo.
+     *
+     * @return a positive integer, 0 if not available
+     */
+    public long getProcessMaximumMemory() {
+        return processMaximumMemory;
+    }
+
+    /**
+     * Adds a process (which ended) started by the mojo.
+     *
+     * @param process the process
+     */
+    public synchronized void addProcess(ChildProcessMetrics process) {
+        requireNonNull(process);
+        processCount++;
+        processCpuTime += process.getCpuTime().toNanos();
+        processMaximumMemory = Math.max(processMaximumMemory, process.getMaximumMemory());
+        addIo(process.getReadBytes(), process.getWriteBytes(), process.getDiskReadBytes(), process.getDiskWriteBytes());
+    }
+
+    /**
+     * Returns the bytes read by the mojo (including the processes started by the mojo), served from
+     * the storage or the page cache.
+     *
+     * @return a positive integer, 0 if not available
+     */
+    public long getReadBytes() {
+        return readBytes;
+    }
+
+    /**
+     * Returns the bytes written by the mojo (including the processes started by the mojo).
+     *
+     * @return a positive integer, 0 if not available
+     */
+    public long getWriteBytes() {
+        return writeBytes;
+    }
+
+    /**
+     * Returns the bytes read by the mojo from the storage.
+     *
+     * @return a positive integer, 0 if not available
+     */
+    public long getDiskReadBytes() {
+        return diskReadBytes;
+    }
+
+    /**
+     * Returns the bytes written by the mojo to the storage.
+     *
+     * @return a positive integer, 0 if not available
+     */
+    public long getDiskWriteBytes() {
+        return diskWriteBytes;
+    }
+
+    /**
+     * Adds the I/O of one execution of the mojo (or of a process started by the mojo).
+     *
+     * @param readBytes      the bytes read
+     * @param writeBytes     the bytes written
+     * @param diskReadBytes  the bytes read from the storage
+     * @param diskWriteBytes the bytes written to the storage
+     */
+    public synchronized void addIo(long readBytes, long writeBytes, long diskReadBytes, long diskWriteBytes) {
+        this.readBytes += readBytes;
+        this.writeBytes += writeBytes;
+        this.diskReadBytes += diskReadBytes;
+        this.diskWriteBytes += diskWriteBytes;
+    }
+
+    /**
+     * Returns whether the time spent by the compiler in each phase was captured (compiler mojos only).
+     *
+     * @return {@code true} if available, {@code false} otherwise
+     */
+    public boolean hasPhases() {
+        return phases.length > 0;
+    }
+
+    /**
+     * Returns the time spent by the compiler in a phase, across all modules.
+     *
+     * @param phase the phase
+     * @return a non-null instance
+     */
+    public Duration getPhaseDuration(CompileMetrics.Phase phase) {
+        requireNonNull(phase);
+        return Duration.ofNanos(phase.ordinal() < phases.length ? phases[phase.ordinal()] : 0);
+    }
+
+    /**
+     * Adds the time spent by the compiler in each phase while compiling a module.
+     *
+     * @param compile the compilation of a module
+     */
+    public synchronized void addPhases(CompileMetrics compile) {
+        requireNonNull(compile);
+        if (!compile.hasPhases()) return;
+        if (phases.length == 0) phases = new long[CompileMetrics.Phase.values().length];
+        for (CompileMetrics.Phase phase : CompileMetrics.Phase.values()) {
+            phases[phase.ordinal()] += compile.getPhaseDuration(phase).toNanos();
+        }
+    }
 }
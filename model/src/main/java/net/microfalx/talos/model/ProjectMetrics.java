@@ -1,9 +1,15 @@
 package net.microfalx.talos.model;
 
+import com.esotericsoftware.kryo.serializers.VersionFieldSerializer;
 import org.apache.maven.project.MavenProject;
 
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.unmodifiableMap;
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
 
 /**
  * Holds metrics about a project execution.
@@ -15,6 +21,9 @@ public class ProjectMetrics extends Project {
 
     private FailureMetrics failureMetrics;
 
+    @VersionFieldSerializer.Since(1)
+    private final Map<String, Long> mojoDurations = new HashMap<>();
+
     protected ProjectMetrics() {
     }
 
@@ -48,6 +57,31 @@ public class ProjectMetrics extends Project {
         this.failureMetrics = failureMetrics;
     }
 
+    /**
+     * Returns the (active) duration of each mojo executed for this module.
+     *
+     * @return a non-null instance, keyed by the mojo identifier
+     */
+    public synchronized Map<String, Duration> getMojoDurations() {
+        Map<String, Duration> durations = new HashMap<>();
+        mojoDurations.forEach((id, duration) -> durations.put(id, Duration.ofNanos(duration)));
+        return unmodifiableMap(durations);
+    }
+
+    /**
+     * Registers the duration of a mojo execution for this module.
+     *
+     * @param mojoId   the mojo identifier
+     * @param duration the duration of the execution
+     * @return self
+     */
+    public synchronized ProjectMetrics addMojoDuration(String mojoId, Duration duration) {
+        requireNonNull(mojoId);
+        requireNonNull(duration);
+        mojoDurations.merge(mojoId, duration.toNanos(), Long::sum);
+        return this;
+    }
+
     public Duration getDuration() {
         if (endTime == null) endTime = ZonedDateTime.now();
         return Duration.between(startTime, endTime);
@@ -0,0 +1,202 @@
+package net.microfalx.talos.model;
+
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+
+import static java.time.Duration.ofNanos;
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds the transfers with a remote repository across the current and previous sessions (trends), and the
+ * position of the repository in the recommended repository order.
+ * <p>
+ * Maven looks up an artifact in each repository (in the configured order) until one repository has it, so a
+ * repository which does not have most of the artifacts costs a round-trip for each of them. The recommended order
+ * places first the repositories which serve the most artifacts (requests which found nothing are not counted, since
+ * the first repository is asked for every artifact), and the fastest (median latency) among them.
+ */
+public class RepositoryRankingMetrics extends NamedIdentityAware<String> {
+
+    /**
+     * The minimum number of transfers (across sessions) required to flag a repository
+     */
+    public static final int MINIMUM_TRANSFERS = 10;
+
+    /**
+     * The percentage of transfers which returned "not found" above which a repository is flagged
+     */
+    public static final float NOT_FOUND_THRESHOLD = 80;
+
+    private URI uri;
+    private int position = -1;
+    private int recommendedPosition;
+    private int sessions;
+    private RepositoryTransferMetrics transfers;
+
+    protected RepositoryRankingMetrics() {
+    }
+
+    private RepositoryRankingMetrics(String host) {
+        setId(host);
+        setName(host);
+        this.transfers = new RepositoryTransferMetrics(host);
+    }
+
+    /**
+     * Returns the URI of the repository.
+     *
+     * @return the URI, null if the repository is not part of the session repositories (mirrors, plugin repositories)
+     */
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * Returns the position of the repository in the configured order.
+     *
+     * @return a positive integer, -1 if the repository is not part of the session repositories
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the position of the repository in the recommended order.
+     *
+     * @return a positive integer, -1 if the repository is not part of the session repositories
+     */
+    public int getRecommendedPosition() {
+        return recommendedPosition;
+    }
+
+    /**
+     * Returns the number of sessions which transferred something with this repository.
+     *
+     * @return a positive integer
+     */
+    public int getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Returns the transfers aggregated across sessions.
+     *
+     * @return a non-null instance
+     */
+    public RepositoryTransferMetrics getTransfers() {
+        return transfers;
+    }
+
+    public Duration getMedianLatency() {
+        return transfers.getLatencyDuration(50);
+    }
+
+    public Duration getP95Latency() {
+        return transfers.getLatencyDuration(95);
+    }
+
+    /**
+     * Returns the average time lost (per session) with transfers which found nothing.
+     *
+     * @return a non-null instance
+     */
+    public Duration getNotFoundCost() {
+        if (sessions == 0 || transfers.getTransfers() == 0) return Duration.ZERO;
+        double notFoundDuration = (double) transfers.getDuration().toNanos() * transfers.getNotFound() / transfers.getTransfers();
+        return ofNanos((long) (notFoundDuration / sessions));
+    }
+
+    /**
+     * Returns whether the repository mostly returns "not found", which costs a round-trip for every artifact.
+     *
+     * @return {@code true} if flagged, {@code false} otherwise
+     */
+    public boolean isMostlyNotFound() {
+        return transfers.getTransfers() >= MINIMUM_TRANSFERS && transfers.getNotFoundRatio() >= NOT_FOUND_THRESHOLD;
+    }
+
+    /**
+     * Returns whether the repository should be moved in the configured order.
+     *
+     * @return {@code true} if the position changes, {@code false} otherwise
+     */
+    public boolean isMoved() {
+        return position >= 0 && position != recommendedPosition;
+    }
+
+    /**
+     * Returns whether the recommended order is different from the configured order.
+     *
+     * @param rankings the rankings
+     * @return {@code true} if at least one repository should be moved, {@code false} otherwise
+     */
+    public static boolean isReordered(Collection<RepositoryRankingMetrics> rankings) {
+        requireNonNull(rankings);
+        return rankings.stream().anyMatch(RepositoryRankingMetrics::isMoved);
+    }
+
+    /**
+     * Ranks the repositories based on the transfers of the current session and previous sessions.
+     *
+     * @param repositories the repositories of the current session, in the configured order
+     * @param transfers    the transfers of the current session
+     * @param trends       the previous sessions
+     * @return a non-null instance, ordered by the recommended position
+     */
+    public static List<RepositoryRankingMetrics> rank(Collection<URI> repositories,
+                                                      Collection<RepositoryTransferMetrics> transfers,
+                                                      Collection<TrendMetrics> trends) {
+        requireNonNull(repositories);
+        requireNonNull(transfers);
+        requireNonNull(trends);
+        Map<String, RepositoryRankingMetrics> rankings = new LinkedHashMap<>();
+        int position = 0;
+        for (URI repository : repositories) {
+            RepositoryRankingMetrics ranking = rankings.computeIfAbsent(RepositoryTransferMetrics.getHost(repository.toASCIIString()),
+                    RepositoryRankingMetrics::new);
+            if (ranking.uri == null) {
+                ranking.uri = repository;
+                ranking.position = position++;
+            }
+        }
+        add(rankings, transfers);
+        for (TrendMetrics trend : trends) {
+            if (trend.getRepositoryTransfers() != null) add(rankings, trend.getRepositoryTransfers());
+        }
+        List<RepositoryRankingMetrics> ordered = new ArrayList<>(rankings.values());
+        ordered.removeIf(ranking -> ranking.position < 0 && ranking.sessions == 0);
+        ordered.sort(Comparator.comparing((RepositoryRankingMetrics ranking) -> ranking.position < 0)
+                .thenComparing(RepositoryRankingMetrics::isMostlyNotFound)
+                .thenComparing(ranking -> ranking.transfers.getServedArtifacts(), Comparator.reverseOrder())
+                .thenComparing(RepositoryRankingMetrics::getMedianLatency)
+                .thenComparing(RepositoryRankingMetrics::getPosition));
+        // repositories outside the session repositories cannot be moved, only the others are ranked
+        int recommendedPosition = 0;
+        for (RepositoryRankingMetrics ranking : ordered) {
+            ranking.recommendedPosition = ranking.position >= 0 ? recommendedPosition++ : -1;
+        }
+        return ordered;
+    }
+
+    private static void add(Map<String, RepositoryRankingMetrics> rankings, Collection<RepositoryTransferMetrics> transfers) {
+        for (RepositoryTransferMetrics transfer : transfers) {
+            RepositoryRankingMetrics ranking = rankings.computeIfAbsent(transfer.getId(), RepositoryRankingMetrics::new);
+            ranking.transfers.add(transfer);
+            ranking.sessions++;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", RepositoryRankingMetrics.class.getSimpleName() + "[", "]")
+                .add("host='" + getId() + "'")
+                .add("position=" + position)
+                .add("recommendedPosition=" + recommendedPosition)
+                .add("sessions=" + sessions)
+                .add("transfers=" + transfers)
+                .toString();
+    }
+}
@@ -0,0 +1,360 @@
+package net.microfalx.talos.model;
+
+import com.esotericsoftware.kryo.serializers.VersionFieldSerializer;
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.StringJoiner;
+
+import static java.time.Duration.ofNanos;
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+import static net.microfalx.lang.ArgumentUtils.requireNotEmpty;
+import static net.microfalx.lang.StringUtils.NA_STRING;
+import static net.microfalx.lang.StringUtils.isEmpty;
+
+/**
+ * Holds metrics about the transfers (downloads and uploads) with a remote repository host.
+ * <p>
+ * The time to first byte and the total time of each transfer are recorded in histograms (in microseconds), and
+ * the throughput (bytes per second) is recorded only for transfers large enough to not be dominated by latency.
+ */
+public class RepositoryTransferMetrics extends NamedIdentityAware<String> {
+
+    /**
+     * The minimum size of a transfer to be considered for throughput
+     */
+    public static final long THROUGHPUT_MINIMUM_SIZE = 16 * 1024;
+
+    private int transfers;
+    private int failures;
+    private long bytes;
+    private final Histogram firstByte = new Histogram();
+    private final Histogram latency = new Histogram();
+    private final Histogram throughput = new Histogram();
+    @VersionFieldSerializer.Since(1)
+    private int notFound;
+    @VersionFieldSerializer.Since(1)
+    private long duration;
+    @VersionFieldSerializer.Since(1)
+    private int artifactTransfers;
+    @VersionFieldSerializer.Since(1)
+    private int metadataTransfers;
+    @VersionFieldSerializer.Since(1)
+    private int metadataNotFound;
+    @VersionFieldSerializer.Since(1)
+    private long metadataDuration;
+    @VersionFieldSerializer.Since(1)
+    private int snapshotMetadataTransfers;
+    @VersionFieldSerializer.Since(1)
+    private long snapshotMetadataDuration;
+    @VersionFieldSerializer.Since(2)
+    private int resolvedArtifacts;
+
+    protected RepositoryTransferMetrics() {
+    }
+
+    public RepositoryTransferMetrics(String host) {
+        requireNotEmpty(host);
+        setId(host);
+        setName(host);
+    }
+
+    /**
+     * Returns the number of transfers (successful or not).
+     *
+     * @return a positive integer
+     */
+    public int getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * Returns the number of failed transfers (including missing resources).
+     *
+     * @return a positive integer
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the number of transfers which failed because the resource does not exist in the repository.
+     *
+     * @return a positive integer
+     */
+    public int getNotFound() {
+        return notFound;
+    }
+
+    /**
+     * Returns the percentage of transfers which failed because the resource does not exist in the repository.
+     *
+     * @return a percentage (0 to 100)
+     */
+    public float getNotFoundRatio() {
+        return transfers > 0 ? (100f * notFound) / transfers : 0;
+    }
+
+    /**
+     * Returns the total time of all transfers (successful or not).
+     *
+     * @return a non-null instance
+     */
+    public Duration getDuration() {
+        return ofNanos(duration);
+    }
+
+    /**
+     * Returns the number of artifacts (anything but metadata) successfully transferred.
+     *
+     * @return a positive integer
+     */
+    public int getArtifactTransfers() {
+        return artifactTransfers;
+    }
+
+    /**
+     * Returns the number of metadata (<code>maven-metadata.xml</code>) transfers.
+     *
+     * @return a positive integer
+     */
+    public int getMetadataTransfers() {
+        return metadataTransfers;
+    }
+
+    /**
+     * Returns the number of metadata transfers which failed because the metadata does not exist in the repository.
+     *
+     * @return a positive integer
+     */
+    public int getMetadataNotFound() {
+        return metadataNotFound;
+    }
+
+    public float getMetadataNotFoundRatio() {
+        return metadataTransfers > 0 ? (100f * metadataNotFound) / metadataTransfers : 0;
+    }
+
+    public Duration getMetadataDuration() {
+        return ofNanos(metadataDuration);
+    }
+
+    /**
+     * Returns the number of metadata transfers for snapshot versions (update checks).
+     *
+     * @return a positive integer
+     */
+    public int getSnapshotMetadataTransfers() {
+        return snapshotMetadataTransfers;
+    }
+
+    public Duration getSnapshotMetadataDuration() {
+        return ofNanos(snapshotMetadataDuration);
+    }
+
+    /**
+     * Returns the number of artifacts resolved from this repository, downloaded or already in the local repository.
+     *
+     * @return a positive integer
+     */
+    public int getResolvedArtifacts() {
+        return resolvedArtifacts;
+    }
+
+    public void setResolvedArtifacts(int resolvedArtifacts) {
+        this.resolvedArtifacts = resolvedArtifacts;
+    }
+
+    /**
+     * Returns the number of artifacts served by this repository.
+     * <p>
+     * The artifacts resolved from this repository are used, or the artifacts successfully transferred for sessions
+     * which did not track the resolved artifacts. Requests which failed or found nothing are never included.
+     *
+     * @return a positive integer
+     */
+    public int getServedArtifacts() {
+        return Math.max(artifactTransfers, resolvedArtifacts);
+    }
+
+    /**
+     * Returns whether the repository was used (at least one artifact was transferred or resolved from the
+     * local repository after a previous download from this repository).
+     * <p>
+     * A repository which only answers metadata requests or does not have the requested artifacts only adds
+     * a round-trip to each lookup.
+     *
+     * @return {@code true} if used, {@code false} otherwise
+     */
+    public boolean isUsed() {
+        return artifactTransfers > 0 || resolvedArtifacts > 0;
+    }
+
+    /**
+     * Returns the number of bytes transferred.
+     *
+     * @return a positive integer
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the histogram of the time (in microseconds) between the moment a transfer was initiated and the
+     * moment the first byte was received.
+     *
+     * @return a non-null instance
+     */
+    public Histogram getFirstByte() {
+        return firstByte;
+    }
+
+    /**
+     * Returns the histogram of the total time (in microseconds) of successful transfers.
+     *
+     * @return a non-null instance
+     */
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the histogram of the throughput (bytes per second) of successful transfers.
+     *
+     * @return a non-null instance
+     */
+    public Histogram getThroughput() {
+        return throughput;
+    }
+
+    public Duration getFirstByteDuration(double percentile) {
+        return toDuration(firstByte.getPercentile(percentile));
+    }
+
+    public Duration getLatencyDuration(double percentile) {
+        return toDuration(latency.getPercentile(percentile));
+    }
+
+    /**
+     * Returns the throughput (bytes per second) at a given percentile.
+     * <p>
+     * Lower percentiles identify the slowest transfers.
+     *
+     * @param percentile the percentile
+     * @return a positive integer
+     */
+    public long getThroughput(double percentile) {
+        return throughput.getPercentile(percentile);
+    }
+
+    /**
+     * Records a transfer.
+     *
+     * @param firstByte the time to first byte, null if not available
+     * @param duration  the total time of the transfer
+     * @param bytes     the number of bytes transferred
+     * @param failed    {@code true} if the transfer failed, {@code false} otherwise
+     */
+    public synchronized void record(Duration firstByte, Duration duration, long bytes, boolean failed) {
+        requireNonNull(duration);
+        transfers++;
+        this.duration += duration.toNanos();
+        this.bytes += Math.max(0, bytes);
+        if (firstByte != null) this.firstByte.record(toMicros(firstByte));
+        if (failed) {
+            failures++;
+            return;
+        }
+        long micros = toMicros(duration);
+        latency.record(micros);
+        if (bytes >= THROUGHPUT_MINIMUM_SIZE && micros > 0) throughput.record(bytes * 1_000_000 / micros);
+    }
+
+    /**
+     * Records the type of transfer.
+     *
+     * @param duration the total time of the transfer
+     * @param metadata {@code true} if metadata was transferred, {@code false} for artifacts (and anything else)
+     * @param snapshot {@code true} if the metadata belongs to a snapshot version, {@code false} otherwise
+     * @param failed   {@code true} if the transfer failed, {@code false} otherwise
+     * @param notFound {@code true} if the resource does not exist in the repository, {@code false} otherwise
+     */
+    public synchronized void record(Duration duration, boolean metadata, boolean snapshot, boolean failed, boolean notFound) {
+        requireNonNull(duration);
+        if (notFound) this.notFound++;
+        if (metadata) {
+            metadataTransfers++;
+            metadataDuration += duration.toNanos();
+            if (notFound) metadataNotFound++;
+            if (snapshot) {
+                snapshotMetadataTransfers++;
+                snapshotMetadataDuration += duration.toNanos();
+            }
+        } else if (!failed && !notFound) {
+            artifactTransfers++;
+        }
+    }
+
+    /**
+     * Adds the transfers of another instance (usually the same host, from another session).
+     *
+     * @param metrics the metrics to add
+     */
+    public synchronized void add(RepositoryTransferMetrics metrics) {
+        requireNonNull(metrics);
+        transfers += metrics.transfers;
+        failures += metrics.failures;
+        bytes += metrics.bytes;
+        firstByte.add(metrics.firstByte);
+        latency.add(metrics.latency);
+        throughput.add(metrics.throughput);
+        notFound += metrics.notFound;
+        duration += metrics.duration;
+        artifactTransfers += metrics.artifactTransfers;
+        metadataTransfers += metrics.metadataTransfers;
+        metadataNotFound += metrics.metadataNotFound;
+        metadataDuration += metrics.metadataDuration;
+        snapshotMetadataTransfers += metrics.snapshotMetadataTransfers;
+        snapshotMetadataDuration += metrics.snapshotMetadataDuration;
+        resolvedArtifacts += metrics.resolvedArtifacts;
+    }
+
+    /**
+     * Returns the host (and port, if present) used to identify a repository.
+     *
+     * @param repositoryUrl the URL of the repository
+     * @return a non-null instance
+     */
+    public static String getHost(String repositoryUrl) {
+        if (isEmpty(repositoryUrl)) return NA_STRING;
+        try {
+            URI uri = URI.create(repositoryUrl);
+            if (uri.getHost() == null) return repositoryUrl;
+            return uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+        } catch (IllegalArgumentException e) {
+            return repositoryUrl;
+        }
+    }
+
+    private static long toMicros(Duration duration) {
+        return duration.toNanos() / 1000;
+    }
+
+    private static Duration toDuration(long micros) {
+        return ofNanos(micros * 1000);
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", RepositoryTransferMetrics.class.getSimpleName() + "[", "]")
+                .add("host='" + getId() + "'")
+                .add("transfers=" + transfers)
+                .add("failures=" + failures)
+                .add("notFound=" + notFound)
+                .add("metadataTransfers=" + metadataTransfers)
+                .add("bytes=" + bytes)
+                .add("latency=" + latency)
+                .toString();
+    }
+}
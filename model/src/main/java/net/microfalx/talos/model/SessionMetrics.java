@@ -22,6 +22,17 @@ import static net.microfalx.lang.StringUtils.NA_STRING;
  */
 public class SessionMetrics extends AbstractSessionMetrics<SessionMetrics> {
 
+    /**
+     * The identifiers of the resource series, see {@link #getResourceSeries(String)}.
+     */
+    public static final String RESOURCE_PROCESS_CPU = "process.cpu";
+    public static final String RESOURCE_SYSTEM_CPU = "system.cpu";
+    public static final String RESOURCE_HEAP_USED = "heap.used";
+    public static final String RESOURCE_HEAP_COMMITTED = "heap.committed";
+    public static final String RESOURCE_HEAP_LIVE = "heap.live";
+    public static final String RESOURCE_GC = "gc";
+    public static final String RESOURCE_THREADS = "threads";
+
     private final Collection<ArtifactMetrics> artifacts = new ArrayList<>();
     private final Collection<DependencyMetrics> dependencies = new ArrayList<>();
     private final Collection<PluginMetrics> plugins = new ArrayList<>();
@@ -29,6 +40,36 @@ public class SessionMetrics extends AbstractSessionMetrics<SessionMetrics> {
     private final Collection<TrendMetrics> trends = new ArrayList<>();
     @VersionFieldSerializer.Since(2)
     private final Collection<LifecycleMetrics> extensionEvents = new ArrayList<>();
+    @VersionFieldSerializer.Since(3)
+    private final Collection<TestRegressionMetrics> testRegressions = new ArrayList<>();
+    @VersionFieldSerializer.Since(4)
+    private final Collection<RepositoryTransferMetrics> repositoryTransfers = new ArrayList<>();
+    @VersionFieldSerializer.Since(5)
+    private TransferTimelineMetrics transferTimeline = new TransferTimelineMetrics();
+    @VersionFieldSerializer.Since(6)
+    private final Collection<MetadataCheckMetrics> metadataChecks = new ArrayList<>();
+    @VersionFieldSerializer.Since(7)
+    private final Collection<RepositoryRankingMetrics> repositoryRankings = new ArrayList<>();
+    @VersionFieldSerializer.Since(8)
+    private final Collection<DuplicateClassMetrics> duplicateClasses = new ArrayList<>();
+    @VersionFieldSerializer.Since(9)
+    private final Collection<CompileMetrics> compiles = new ArrayList<>();
+    @VersionFieldSerializer.Since(10)
+    private final Collection<StackSampleMetrics> stackSamples = new ArrayList<>();
+    @VersionFieldSerializer.Since(11)
+    private final Collection<FlightRecordingMetrics> flightRecordings = new ArrayList<>();
+    @VersionFieldSerializer.Since(12)
+    private final Collection<LockContentionMetrics> lockContentions = new ArrayList<>();
+    @VersionFieldSerializer.Since(13)
+    private final Map<String, CompactSeries> resourceSeries = new HashMap<>();
+    @VersionFieldSerializer.Since(14)
+    private final Collection<ChildProcessMetrics> processes = new ArrayList<>();
+    @VersionFieldSerializer.Since(15)
+    private MemoryMetrics memory;
+    @VersionFieldSerializer.Since(15)
+    private MemoryRecommendationMetrics memoryRecommendation;
+    @VersionFieldSerializer.Since(16)
+    private final Collection<BuildRegressionMetrics> buildRegressions = new ArrayList<>();
 
     private VirtualMachine virtualMachine;
     private final Map<String, String> systemProperties = new HashMap<>();
@@ -39,6 +80,7 @@ public class SessionMetrics extends AbstractSessionMetrics<SessionMetrics> {
 
     private String logs;
     private transient boolean testsUpdated;
+    private transient boolean testRegressionsUpdated;
 
     public static SessionMetrics load(Resource resource) throws IOException {
         return AbstractSessionMetrics.load(resource, SessionMetrics.class);
@@ -74,6 +116,214 @@ public class SessionMetrics extends AbstractSessionMetrics<SessionMetrics> {
         this.artifacts.addAll(artifacts);
     }
 
+    /**
+     * Returns the transfer metrics of each remote repository host.
+     *
+     * @return a non-null instance
+     */
+    public Collection<RepositoryTransferMetrics> getRepositoryTransfers() {
+        return unmodifiableCollection(repositoryTransfers);
+    }
+
+    public void setRepositoryTransfers(Collection<RepositoryTransferMetrics> repositoryTransfers) {
+        requireNonNull(repositoryTransfers);
+        this.repositoryTransfers.addAll(repositoryTransfers);
+    }
+
+    /**
+     * Returns the interval (and thread) of each transfer with a remote repository.
+     *
+     * @return a non-null instance
+     */
+    public TransferTimelineMetrics getTransferTimeline() {
+        if (transferTimeline == null) transferTimeline = new TransferTimelineMetrics();
+        return transferTimeline;
+    }
+
+    public void setTransferTimeline(TransferTimelineMetrics transferTimeline) {
+        requireNonNull(transferTimeline);
+        this.transferTimeline = transferTimeline;
+    }
+
+    /**
+     * Returns the metadata transfers for each artifact (or snapshot version).
+     *
+     * @return a non-null instance
+     */
+    public Collection<MetadataCheckMetrics> getMetadataChecks() {
+        return unmodifiableCollection(metadataChecks);
+    }
+
+    public void setMetadataChecks(Collection<MetadataCheckMetrics> metadataChecks) {
+        requireNonNull(metadataChecks);
+        this.metadataChecks.addAll(metadataChecks);
+    }
+
+    /**
+     * Returns the remote repositories (ranked across the current and previous sessions) in the recommended order.
+     *
+     * @return a non-null instance
+     */
+    public Collection<RepositoryRankingMetrics> getRepositoryRankings() {
+        return unmodifiableCollection(repositoryRankings);
+    }
+
+    public void setRepositoryRankings(Collection<RepositoryRankingMetrics> repositoryRankings) {
+        requireNonNull(repositoryRankings);
+        this.repositoryRankings.addAll(repositoryRankings);
+    }
+
+    /**
+     * Returns the classes present in more than one artifact of the same module classpath.
+     *
+     * @return a non-null instance, empty if the dependencies were not scanned
+     */
+    public Collection<DuplicateClassMetrics> getDuplicateClasses() {
+        return unmodifiableCollection(duplicateClasses);
+    }
+
+    public void setDuplicateClasses(Collection<DuplicateClassMetrics> duplicateClasses) {
+        requireNonNull(duplicateClasses);
+        this.duplicateClasses.addAll(duplicateClasses);
+    }
+
+    /**
+     * Returns the compilations (main and test sources) of each module.
+     *
+     * @return a non-null instance
+     */
+    public Collection<CompileMetrics> getCompiles() {
+        return unmodifiableCollection(compiles);
+    }
+
+    public void setCompiles(Collection<CompileMetrics> compiles) {
+        requireNonNull(compiles);
+        this.compiles.addAll(compiles);
+    }
+
+    /**
+     * Returns the stack traces sampled from the threads executing each mojo (when the profiler is enabled).
+     *
+     * @return a non-null instance
+     */
+    public Collection<StackSampleMetrics> getStackSamples() {
+        return unmodifiableCollection(stackSamples);
+    }
+
+    public void setStackSamples(Collection<StackSampleMetrics> stackSamples) {
+        requireNonNull(stackSamples);
+        this.stackSamples.addAll(stackSamples);
+    }
+
+    /**
+     * Returns a summary of the flight recording for each mojo (when the flight recorder is enabled).
+     *
+     * @return a non-null instance
+     */
+    public Collection<FlightRecordingMetrics> getFlightRecordings() {
+        return unmodifiableCollection(flightRecordings);
+    }
+
+    public void setFlightRecordings(Collection<FlightRecordingMetrics> flightRecordings) {
+        requireNonNull(flightRecordings);
+        this.flightRecordings.addAll(flightRecordings);
+    }
+
+    /**
+     * Returns the locks (by class) where the threads executing mojos were blocked or waiting.
+     *
+     * @return a non-null instance
+     */
+    public Collection<LockContentionMetrics> getLockContentions() {
+        return unmodifiableCollection(lockContentions);
+    }
+
+    public void setLockContentions(Collection<LockContentionMetrics> lockContentions) {
+        requireNonNull(lockContentions);
+        this.lockContentions.addAll(lockContentions);
+    }
+
+    /**
+     * Returns the (high resolution) samples of the resources used by the process and the server.
+     *
+     * @return a non-null instance
+     */
+    public Collection<CompactSeries> getResourceSeries() {
+        return unmodifiableCollection(resourceSeries.values());
+    }
+
+    /**
+     * Returns the samples of a resource.
+     *
+     * @param id the identifier of the series
+     * @return a non-null instance, an empty series if the resource was not sampled
+     */
+    public CompactSeries getResourceSeries(String id) {
+        requireNonNull(id);
+        CompactSeries series = resourceSeries.get(id);
+        return series != null ? series : new CompactSeries(id, id);
+    }
+
+    public void setResourceSeries(Collection<CompactSeries> resourceSeries) {
+        requireNonNull(resourceSeries);
+        resourceSeries.forEach(series -> this.resourceSeries.put(series.getId(), series));
+    }
+
+    /**
+     * Returns the processes started by the build.
+     *
+     * @return a non-null instance
+     */
+    public Collection<ChildProcessMetrics> getProcesses() {
+        return unmodifiableCollection(processes);
+    }
+
+    public void setProcesses(Collection<ChildProcessMetrics> processes) {
+        requireNonNull(processes);
+        this.processes.addAll(processes);
+    }
+
+    /**
+     * Returns the memory (heap) pressure of the Maven process.
+     *
+     * @return the metrics, null if not available
+     */
+    public MemoryMetrics getMemory() {
+        return memory;
+    }
+
+    public void setMemory(MemoryMetrics memory) {
+        this.memory = memory;
+    }
+
+    /**
+     * Returns the recommended heap (and garbage collector) for the Maven process.
+     *
+     * @return the recommendation, null if not available
+     */
+    public MemoryRecommendationMetrics getMemoryRecommendation() {
+        return memoryRecommendation;
+    }
+
+    public void setMemoryRecommendation(MemoryRecommendationMetrics memoryRecommendation) {
+        this.memoryRecommendation = memoryRecommendation;
+    }
+
+    /**
+     * Returns the parts of the build (session, lifecycles, mojos, modules) which became slower compared with
+     * previous comparable sessions.
+     *
+     * @return a non-null instance
+     */
+    public Collection<BuildRegressionMetrics> getBuildRegressions() {
+        return unmodifiableCollection(buildRegressions);
+    }
+
+    public void setBuildRegressions(Collection<BuildRegressionMetrics> buildRegressions) {
+        requireNonNull(buildRegressions);
+        this.buildRegressions.addAll(buildRegressions);
+    }
+
     public Collection<DependencyMetrics> getDependencies() {
         return unmodifiableCollection(dependencies);
     }
@@ -114,6 +364,24 @@ public class SessionMetrics extends AbstractSessionMetrics<SessionMetrics> {
         this.tests.addAll(tests);
     }
 
+    /**
+     * Returns the tests which became slower compared with previous sessions.
+     *
+     * @return a non-null instance
+     */
+    public Collection<TestRegressionMetrics> getTestRegressions() {
+        if (!testRegressionsUpdated) {
+            testRegressions.forEach(this::updateTestRegressionMetrics);
+            testRegressionsUpdated = true;
+        }
+        return unmodifiableCollection(testRegressions);
+    }
+
+    public void setTestRegressions(Collection<TestRegressionMetrics> testRegressions) {
+        requireNonNull(testRegressions);
+        this.testRegressions.addAll(testRegressions);
+    }
+
     public Collection<LifecycleMetrics> getExtensionEvents() {
         return unmodifiableCollection(extensionEvents);
     }
@@ -180,6 +448,12 @@ public class SessionMetrics extends AbstractSessionMetrics<SessionMetrics> {
         }
     }
 
+    private void updateTestRegressionMetrics(TestRegressionMetrics test) {
+        if (test.getModuleId() != null && test.getModule() == null) {
+            test.module = getModule(test.getModuleId());
+        }
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(", ", SessionMetrics.class.getSimpleName() + "[", "]")
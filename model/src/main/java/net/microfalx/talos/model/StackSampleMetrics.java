@@ -0,0 +1,265 @@
+package net.microfalx.talos.model;
+
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.util.*;
+
+import static java.util.Collections.unmodifiableList;
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds the stack traces sampled (periodically) from the threads executing a mojo.
+ * <p>
+ * The stack traces are aggregated in a trie (a node for each distinct call path, from the thread entry point to
+ * the method executing at the time), which is the structure rendered by a flame graph. The nodes are stored in
+ * parallel arrays and the frames (<code>class.method</code>) are stored once, so the memory used depends on the
+ * number of distinct call paths, not the number of samples. Once the trie reaches {@link #MAXIMUM_NODES}
+ * nodes, the samples are attributed to the longest call path already present.
+ */
+public class StackSampleMetrics extends NamedIdentityAware<String> {
+
+    /**
+     * The maximum number of nodes in the trie
+     */
+    public static final int MAXIMUM_NODES = 20_000;
+
+    /**
+     * The minimum ratio of samples (to the total number of samples) for a node to be part of the flame graph
+     */
+    public static final float MINIMUM_FLAME_GRAPH_RATIO = 0.001f;
+
+    /**
+     * The frame which replaces the missing (oldest) frames of a truncated stack trace
+     */
+    public static final String TRUNCATED_FRAME = "[truncated]";
+
+    private static final int ROOT = 0;
+
+    private final List<String> frames = new ArrayList<>();
+    private int[] nodeFrames = new int[]{-1};
+    private int[] nodeParents = new int[]{-1};
+    private int[] nodeSamples = new int[1];
+    private int nodeCount = 1;
+    private int sampleCount;
+    private int truncatedCount;
+
+    private transient Map<String, Integer> frameIndexes;
+    private transient Map<Long, Integer> childIndexes;
+
+    protected StackSampleMetrics() {
+    }
+
+    public StackSampleMetrics(String id, String name) {
+        setId(id);
+        setName(name);
+    }
+
+    /**
+     * Returns the number of samples.
+     *
+     * @return a positive integer
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Returns the number of samples which were attributed to a shorter call path, since the trie was full.
+     *
+     * @return a positive integer
+     */
+    public int getTruncatedCount() {
+        return truncatedCount;
+    }
+
+    /**
+     * Returns the number of distinct call paths (nodes in the trie).
+     *
+     * @return a positive integer
+     */
+    public int getNodeCount() {
+        return nodeCount - 1;
+    }
+
+    /**
+     * Returns the number of distinct frames (methods).
+     *
+     * @return a positive integer
+     */
+    public int getFrameCount() {
+        return frames.size();
+    }
+
+    /**
+     * Registers a stack trace.
+     *
+     * @param stackTrace the stack trace, with the executing method first (as returned by the JVM)
+     */
+    public void add(StackTraceElement[] stackTrace) {
+        add(stackTrace, false);
+    }
+
+    /**
+     * Registers a stack trace.
+     * <p>
+     * A truncated stack trace (the JVM returned only the most recent frames) does not start from the thread entry
+     * point, so it is registered under the {@link #TRUNCATED_FRAME} frame instead of the root.
+     *
+     * @param stackTrace the stack trace, with the executing method first (as returned by the JVM)
+     * @param truncated  {@code true} if the oldest frames are missing, {@code false} otherwise
+     */
+    public synchronized void add(StackTraceElement[] stackTrace, boolean truncated) {
+        requireNonNull(stackTrace);
+        initIndexes();
+        int node = ROOT;
+        int first = stackTrace.length - 1;
+        if (truncated) {
+            int child = getChild(ROOT, TRUNCATED_FRAME);
+            if (child < 0) {
+                first = -1;
+            } else {
+                node = child;
+            }
+        }
+        for (int i = first; i >= 0; i--) {
+            int child = getChild(node, stackTrace[i].getClassName() + "." + stackTrace[i].getMethodName());
+            if (child < 0) break;
+            node = child;
+        }
+        nodeSamples[node]++;
+        sampleCount++;
+    }
+
+    private int getChild(int node, String name) {
+        Integer frame = frameIndexes.get(name);
+        Integer child = frame != null ? childIndexes.get(getChildKey(node, frame)) : null;
+        if (child == null) {
+            if (nodeCount >= MAXIMUM_NODES) {
+                truncatedCount++;
+                return -1;
+            }
+            if (frame == null) frame = addFrame(name);
+            child = addNode(node, frame);
+            childIndexes.put(getChildKey(node, frame), child);
+        }
+        return child;
+    }
+
+    /**
+     * Returns the methods where the threads spent most of the time (the samples where the method was executing).
+     *
+     * @param limit the maximum number of methods
+     * @return a non-null instance
+     */
+    public synchronized List<Frame> getHotFrames(int limit) {
+        int[] selfSamples = new int[frames.size()];
+        for (int node = 1; node < nodeCount; node++) {
+            selfSamples[nodeFrames[node]] += nodeSamples[node];
+        }
+        List<Frame> hotFrames = new ArrayList<>();
+        for (int frame = 0; frame < selfSamples.length; frame++) {
+            if (selfSamples[frame] > 0) hotFrames.add(new Frame(frames.get(frame), selfSamples[frame]));
+        }
+        hotFrames.sort(Comparator.comparing(Frame::getValue).reversed());
+        return hotFrames.subList(0, Math.min(limit, hotFrames.size()));
+    }
+
+    /**
+     * Returns the root of the flame graph.
+     * <p>
+     * The call paths with less than {@link #MINIMUM_FLAME_GRAPH_RATIO} of the samples are removed, to keep the
+     * report small.
+     *
+     * @return a non-null instance
+     */
+    public synchronized Frame getFlameGraph() {
+        int[] totals = Arrays.copyOf(nodeSamples, nodeCount);
+        // children are always added after their parent
+        for (int node = nodeCount - 1; node > ROOT; node--) {
+            totals[nodeParents[node]] += totals[node];
+        }
+        int minimum = Math.max(1, (int) (sampleCount * MINIMUM_FLAME_GRAPH_RATIO));
+        Frame[] nodes = new Frame[nodeCount];
+        nodes[ROOT] = new Frame(getName(), totals[ROOT]);
+        for (int node = 1; node < nodeCount; node++) {
+            Frame parent = nodes[nodeParents[node]];
+            if (parent == null || totals[node] < minimum) continue;
+            nodes[node] = new Frame(frames.get(nodeFrames[node]), totals[node]);
+            parent.children.add(nodes[node]);
+        }
+        return nodes[ROOT];
+    }
+
+    private int addNode(int parent, int frame) {
+        if (nodeCount == nodeFrames.length) {
+            int capacity = Math.min(MAXIMUM_NODES, nodeCount * 2);
+            nodeFrames = Arrays.copyOf(nodeFrames, capacity);
+            nodeParents = Arrays.copyOf(nodeParents, capacity);
+            nodeSamples = Arrays.copyOf(nodeSamples, capacity);
+        }
+        nodeFrames[nodeCount] = frame;
+        nodeParents[nodeCount] = parent;
+        return nodeCount++;
+    }
+
+    private int addFrame(String name) {
+        int index = frames.size();
+        frames.add(name);
+        frameIndexes.put(name, index);
+        return index;
+    }
+
+    private void initIndexes() {
+        if (frameIndexes != null) return;
+        frameIndexes = new HashMap<>();
+        for (int frame = 0; frame < frames.size(); frame++) {
+            frameIndexes.put(frames.get(frame), frame);
+        }
+        childIndexes = new HashMap<>();
+        for (int node = 1; node < nodeCount; node++) {
+            childIndexes.put(getChildKey(nodeParents[node], nodeFrames[node]), node);
+        }
+    }
+
+    private static long getChildKey(int parent, int frame) {
+        return ((long) parent << 32) | frame;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", StackSampleMetrics.class.getSimpleName() + "[", "]")
+                .add("id='" + getId() + "'")
+                .add("sampleCount=" + sampleCount)
+                .add("truncatedCount=" + truncatedCount)
+                .add("nodeCount=" + getNodeCount())
+                .add("frameCount=" + frames.size())
+                .toString();
+    }
+
+    /**
+     * A frame (method) in the flame graph, with the number of samples which include the frame.
+     */
+    public static class Frame {
+
+        private final String name;
+        private final int value;
+        private final List<Frame> children = new ArrayList<>();
+
+        private Frame(String name, int value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        public List<Frame> getChildren() {
+            return unmodifiableList(children);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package net.microfalx.talos.model;
+
+import java.util.Arrays;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Various statistics used to compare a session with previous sessions (trends).
+ */
+public class StatisticsUtils {
+
+    /**
+     * Returns the median of a collection of values.
+     *
+     * @param values the values
+     * @return the median, {@link Double#NaN} if there are no values
+     */
+    public static double median(double[] values) {
+        return percentile(values, 50);
+    }
+
+    /**
+     * Returns the median absolute deviation (MAD) of a collection of values, a measure of the variability which
+     * (unlike the standard deviation) is not affected by a few outliers.
+     *
+     * @param values the values
+     * @return the median absolute deviation, {@link Double#NaN} if there are no values
+     */
+    public static double medianAbsoluteDeviation(double[] values) {
+        double median = median(values);
+        if (Double.isNaN(median)) return Double.NaN;
+        double[] deviations = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            deviations[i] = Math.abs(values[i] - median);
+        }
+        return median(deviations);
+    }
+
+    /**
+     * Returns a percentile of a collection of values, using linear interpolation between the closest ranks.
+     *
+     * @param values     the values
+     * @param percentile the percentile (0 to 100)
+     * @return the percentile, {@link Double#NaN} if there are no values
+     */
+    public static double percentile(double[] values, double percentile) {
+        requireNonNull(values);
+        if (values.length == 0) return Double.NaN;
+        double[] sorted = Arrays.copyOf(values, values.length);
+        Arrays.sort(sorted);
+        double rank = Math.max(0, Math.min(100, percentile)) / 100 * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (rank - lower);
+    }
+}
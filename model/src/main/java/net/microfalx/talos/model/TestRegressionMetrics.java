@@ -0,0 +1,157 @@
+package net.microfalx.talos.model;
+
+import net.microfalx.lang.NamedIdentityAware;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.time.Duration.ofMillis;
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds information about a test which became slower compared with previous sessions.
+ * <p>
+ * The time of the test is compared with the rolling median and 95th percentile of the same test in
+ * previous sessions (trends).
+ */
+public class TestRegressionMetrics extends NamedIdentityAware<String> {
+
+    /**
+     * The minimum number of previous executions required to evaluate a test
+     */
+    public static final int MINIMUM_SAMPLES = 3;
+
+    /**
+     * The maximum number of previous executions (most recent) used to evaluate a test
+     */
+    public static final int MAXIMUM_SAMPLES = 20;
+
+    private String moduleId;
+    private String className;
+    private float time;
+    private float median;
+    private float p95;
+    private int samples;
+
+    transient ProjectMetrics module;
+
+    protected TestRegressionMetrics() {
+    }
+
+    public TestRegressionMetrics(TestMetrics test) {
+        requireNonNull(test);
+        setId(test.getId());
+        setName(test.getName());
+        this.moduleId = test.getModuleId();
+        this.className = test.getClassName();
+        this.time = test.getTime();
+        this.module = test.getModule();
+    }
+
+    public String getModuleId() {
+        return moduleId;
+    }
+
+    public ProjectMetrics getModule() {
+        return module;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getSimpleClassName() {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    public Duration getDuration() {
+        return toDuration(time);
+    }
+
+    public Duration getMedian() {
+        return toDuration(median);
+    }
+
+    public Duration getP95() {
+        return toDuration(p95);
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Returns how many times the test is slower compared with the median.
+     *
+     * @return a positive number
+     */
+    public float getRatio() {
+        return median > 0 ? time / median : 0;
+    }
+
+    /**
+     * Detects the tests which became slower compared with the previous sessions.
+     * <p>
+     * A test is flagged when its time exceeds both the rolling 95th percentile and the rolling median
+     * multiplied by the threshold, and the difference to the median is larger than the minimum duration.
+     *
+     * @param tests           the tests of the current session
+     * @param trends          the previous sessions
+     * @param threshold       the ratio (to the median) above which a test is slower
+     * @param minimumDuration the minimum increase of the duration to be considered
+     * @return a non-null instance, ordered by ratio (slowest first)
+     */
+    public static List<TestRegressionMetrics> detect(Collection<TestMetrics> tests, Collection<TrendMetrics> trends,
+                                                     double threshold, Duration minimumDuration) {
+        requireNonNull(tests);
+        requireNonNull(trends);
+        requireNonNull(minimumDuration);
+        List<TestTimeMetrics> history = trends.stream()
+                .filter(t -> t.getTestTimes() != null && t.getStartTime() != null)
+                .sorted(Comparator.comparing(TrendMetrics::getStartTime).reversed())
+                .limit(MAXIMUM_SAMPLES).map(TrendMetrics::getTestTimes).collect(Collectors.toList());
+        if (history.size() < MINIMUM_SAMPLES) return Collections.emptyList();
+        float minimumTime = minimumDuration.toMillis() / 1000f;
+        List<TestRegressionMetrics> regressions = new ArrayList<>();
+        double[] samples = new double[history.size()];
+        for (TestMetrics test : tests) {
+            if (test.isSkipped() || test.getTime() < minimumTime) continue;
+            int count = 0;
+            for (TestTimeMetrics testTimes : history) {
+                float time = testTimes.getTime(test.getId());
+                if (!Float.isNaN(time)) samples[count++] = time;
+            }
+            if (count < MINIMUM_SAMPLES) continue;
+            double[] values = Arrays.copyOf(samples, count);
+            float median = (float) StatisticsUtils.median(values);
+            float p95 = (float) StatisticsUtils.percentile(values, 95);
+            if (test.getTime() > p95 && test.getTime() > median * threshold && test.getTime() - median >= minimumTime) {
+                TestRegressionMetrics regression = new TestRegressionMetrics(test);
+                regression.median = median;
+                regression.p95 = p95;
+                regression.samples = count;
+                regressions.add(regression);
+            }
+        }
+        regressions.sort(Comparator.comparing(TestRegressionMetrics::getRatio).reversed());
+        return regressions;
+    }
+
+    private static Duration toDuration(float time) {
+        return ofMillis((long) (time * 1000L));
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TestRegressionMetrics.class.getSimpleName() + "[", "]")
+                .add("moduleId='" + moduleId + "'")
+                .add("className='" + className + "'")
+                .add("name='" + getName() + "'")
+                .add("time=" + time)
+                .add("median=" + median)
+                .add("p95=" + p95)
+                .add("samples=" + samples)
+                .toString();
+    }
+}
@@ -0,0 +1,178 @@
+package net.microfalx.talos.model;
+
+import com.esotericsoftware.kryo.serializers.VersionFieldSerializer;
+
+import java.time.Duration;
+import java.util.*;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds the duration of each (executed) test in a session, stored compactly as columns.
+ * <p>
+ * The test identifiers act as a dictionary (one entry per test) and the times (in seconds) are stored in
+ * a parallel column, which keeps the size of each trend small even for projects with tens of thousands of tests.
+ * Test classes (module and class name) are stored once in a second dictionary, referenced by position from
+ * each test.
+ */
+public class TestTimeMetrics {
+
+    private String[] ids = new String[0];
+    private float[] times = new float[0];
+    @VersionFieldSerializer.Since(1)
+    private String[] classModuleIds = new String[0];
+    @VersionFieldSerializer.Since(1)
+    private String[] classNames = new String[0];
+    @VersionFieldSerializer.Since(1)
+    private int[] classes = new int[0];
+
+    private transient Map<String, Integer> index;
+    private transient float[] classTimes;
+
+    protected TestTimeMetrics() {
+    }
+
+    /**
+     * Returns the number of tests.
+     *
+     * @return a positive integer
+     */
+    public int getSize() {
+        return ids.length;
+    }
+
+    /**
+     * Returns the identifier of the test at a given position.
+     *
+     * @param position the position
+     * @return a non-null instance
+     */
+    public String getId(int position) {
+        return ids[position];
+    }
+
+    /**
+     * Returns the time (in seconds) of the test at a given position.
+     *
+     * @param position the position
+     * @return the time
+     */
+    public float getTime(int position) {
+        return times[position];
+    }
+
+    /**
+     * Returns the time (in seconds) of a test.
+     *
+     * @param id the test identifier (see {@link TestMetrics#getId()})
+     * @return the time, {@link Float#NaN} if the test was not executed in this session
+     */
+    public float getTime(String id) {
+        requireNonNull(id);
+        Integer position = getIndex().get(id);
+        return position != null ? times[position] : Float.NaN;
+    }
+
+    /**
+     * Returns the duration of a test.
+     *
+     * @param id the test identifier (see {@link TestMetrics#getId()})
+     * @return the duration, null if the test was not executed in this session
+     */
+    public Duration getDuration(String id) {
+        float time = getTime(id);
+        return Float.isNaN(time) ? null : Duration.ofMillis((long) (time * 1000L));
+    }
+
+    /**
+     * Returns the number of test classes.
+     *
+     * @return a positive integer
+     */
+    public int getClassCount() {
+        return classNames.length;
+    }
+
+    /**
+     * Returns the module (identifier) of the test class at a given position.
+     *
+     * @param position the position of the class
+     * @return a non-null instance
+     */
+    public String getClassModuleId(int position) {
+        return classModuleIds[position];
+    }
+
+    /**
+     * Returns the name of the test class at a given position.
+     *
+     * @param position the position of the class
+     * @return a non-null instance
+     */
+    public String getClassName(int position) {
+        return classNames[position];
+    }
+
+    /**
+     * Returns the time (in seconds) of the test class at a given position (the sum of its tests).
+     *
+     * @param position the position of the class
+     * @return the time
+     */
+    public float getClassTime(int position) {
+        if (classTimes == null) {
+            float[] newClassTimes = new float[classNames.length];
+            for (int i = 0; i < classes.length; i++) {
+                newClassTimes[classes[i]] += times[i];
+            }
+            classTimes = newClassTimes;
+        }
+        return classTimes[position];
+    }
+
+    public static TestTimeMetrics from(Collection<TestMetrics> metrics) {
+        requireNonNull(metrics);
+        TestTimeMetrics testTimeMetrics = new TestTimeMetrics();
+        int count = (int) metrics.stream().filter(m -> !m.isSkipped()).count();
+        testTimeMetrics.ids = new String[count];
+        testTimeMetrics.times = new float[count];
+        testTimeMetrics.classes = new int[count];
+        Map<String, Integer> classIndexes = new LinkedHashMap<>();
+        List<String> classModuleIds = new ArrayList<>();
+        List<String> classNames = new ArrayList<>();
+        int position = 0;
+        for (TestMetrics metric : metrics) {
+            if (metric.isSkipped()) continue;
+            testTimeMetrics.ids[position] = metric.getId();
+            testTimeMetrics.times[position] = metric.getTime();
+            testTimeMetrics.classes[position] = classIndexes.computeIfAbsent(metric.getModuleId() + ":" + metric.getClassName(), k -> {
+                classModuleIds.add(metric.getModuleId());
+                classNames.add(metric.getClassName());
+                return classNames.size() - 1;
+            });
+            position++;
+        }
+        testTimeMetrics.classModuleIds = classModuleIds.toArray(new String[0]);
+        testTimeMetrics.classNames = classNames.toArray(new String[0]);
+        return testTimeMetrics;
+    }
+
+    private Map<String, Integer> getIndex() {
+        if (index == null) {
+            Map<String, Integer> newIndex = new HashMap<>(ids.length * 2);
+            for (int i = 0; i < ids.length; i++) {
+                newIndex.put(ids[i], i);
+            }
+            index = newIndex;
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TestTimeMetrics.class.getSimpleName() + "[", "]")
+                .add("size=" + ids.length)
+                .add("classes=" + classNames.length)
+                .toString();
+    }
+}
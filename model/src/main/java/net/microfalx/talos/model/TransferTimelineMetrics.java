@@ -0,0 +1,312 @@
+package net.microfalx.talos.model;
+
+import java.time.Duration;
+import java.util.*;
+
+import static net.microfalx.lang.ArgumentUtils.requireNonNull;
+
+/**
+ * Holds the interval of each transfer with a remote repository, stored compactly as columns.
+ * <p>
+ * Threads and hosts act as dictionaries referenced by position from each transfer, which allows to rebuild
+ * a timeline of the transfers (which thread transferred what and when) and the number of transfers in flight
+ * at any moment.
+ */
+public class TransferTimelineMetrics {
+
+    /**
+     * The maximum number of transfers recorded in a session
+     */
+    public static final int MAXIMUM_TRANSFERS = 50_000;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final byte FAILED = 1;
+
+    private String[] threads = new String[0];
+    private String[] hosts = new String[0];
+    private String[] names = new String[0];
+    private long[] startTimes = new long[0];
+    private int[] durations = new int[0];
+    private long[] bytes = new long[0];
+    private int[] transferThreads = new int[0];
+    private int[] transferHosts = new int[0];
+    private byte[] flags = new byte[0];
+    private int size;
+
+    private transient Map<String, Integer> threadIndex;
+    private transient Map<String, Integer> hostIndex;
+
+    public TransferTimelineMetrics() {
+    }
+
+    /**
+     * Returns the number of transfers.
+     *
+     * @return a positive integer
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the name of the (repository) resource transferred at a given position.
+     *
+     * @param position the position
+     * @return a non-null instance
+     */
+    public String getName(int position) {
+        return names[position];
+    }
+
+    /**
+     * Returns the name of the thread which executed the transfer at a given position.
+     *
+     * @param position the position
+     * @return a non-null instance
+     */
+    public String getThread(int position) {
+        return threads[transferThreads[position]];
+    }
+
+    /**
+     * Returns the repository host of the transfer at a given position.
+     *
+     * @param position the position
+     * @return a non-null instance
+     */
+    public String getHost(int position) {
+        return hosts[transferHosts[position]];
+    }
+
+    /**
+     * Returns the moment (milliseconds since epoch) when the transfer at a given position was initiated.
+     *
+     * @param position the position
+     * @return a positive integer
+     */
+    public long getStartTime(int position) {
+        return startTimes[position];
+    }
+
+    /**
+     * Returns the moment (milliseconds since epoch) when the transfer at a given position ended.
+     *
+     * @param position the position
+     * @return a positive integer
+     */
+    public long getEndTime(int position) {
+        return startTimes[position] + durations[position];
+    }
+
+    public Duration getDuration(int position) {
+        return Duration.ofMillis(durations[position]);
+    }
+
+    public long getBytes(int position) {
+        return bytes[position];
+    }
+
+    public boolean isFailed(int position) {
+        return (flags[position] & FAILED) != 0;
+    }
+
+    /**
+     * Returns the threads which executed transfers.
+     *
+     * @return a non-null instance
+     */
+    public Collection<String> getThreads() {
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(threads, threads.length)));
+    }
+
+    /**
+     * Returns the maximum number of transfers in flight at the same time.
+     *
+     * @return a positive integer
+     */
+    public int getMaximumConcurrency() {
+        int maximum = 0;
+        for (Concurrency concurrency : getConcurrency()) {
+            maximum = Math.max(maximum, concurrency.getCount());
+        }
+        return maximum;
+    }
+
+    /**
+     * Returns the average number of transfers in flight, while at least one transfer was in flight.
+     *
+     * @return a positive number
+     */
+    public float getAverageConcurrency() {
+        long busy = 0;
+        long total = 0;
+        Concurrency previous = null;
+        for (Concurrency concurrency : getConcurrency()) {
+            if (previous != null && previous.getCount() > 0) {
+                long duration = concurrency.getTimestamp() - previous.getTimestamp();
+                busy += duration;
+                total += duration * previous.getCount();
+            }
+            previous = concurrency;
+        }
+        return busy > 0 ? (float) total / busy : 0;
+    }
+
+    /**
+     * Returns the number of transfers in flight over time.
+     * <p>
+     * An entry is created each time the number of transfers in flight changes.
+     *
+     * @return a non-null instance, ordered by time
+     */
+    public List<Concurrency> getConcurrency() {
+        long[] events = new long[size * 2];
+        for (int i = 0; i < size; i++) {
+            // the lowest bit marks the start (1) or the end (0) of a transfer, so ends are processed first
+            events[2 * i] = (startTimes[i] << 1) | 1;
+            events[2 * i + 1] = getEndTime(i) << 1;
+        }
+        Arrays.sort(events);
+        List<Concurrency> concurrency = new ArrayList<>();
+        int count = 0;
+        for (int i = 0; i < events.length; i++) {
+            long timestamp = events[i] >> 1;
+            count += (events[i] & 1) != 0 ? 1 : -1;
+            if (i + 1 < events.length && (events[i + 1] >> 1) == timestamp) continue;
+            concurrency.add(new Concurrency(timestamp, count));
+        }
+        return concurrency;
+    }
+
+    /**
+     * Records a transfer.
+     *
+     * @param name      the name of the resource
+     * @param host      the repository host
+     * @param thread    the thread which executed the transfer
+     * @param startTime the moment (milliseconds since epoch) when the transfer was initiated
+     * @param duration  the duration of the transfer
+     * @param bytes     the number of bytes transferred
+     * @param failed    {@code true} if the transfer failed, {@code false} otherwise
+     * @return {@code true} if the transfer was recorded, {@code false} if the maximum number of transfers was reached
+     */
+    public synchronized boolean add(String name, String host, String thread, long startTime, Duration duration,
+                                    long bytes, boolean failed) {
+        requireNonNull(name);
+        requireNonNull(host);
+        requireNonNull(thread);
+        requireNonNull(duration);
+        if (size >= MAXIMUM_TRANSFERS) return false;
+        ensureCapacity(size + 1);
+        names[size] = name;
+        startTimes[size] = startTime;
+        durations[size] = (int) Math.min(Integer.MAX_VALUE, Math.max(0, duration.toMillis()));
+        this.bytes[size] = bytes;
+        transferThreads[size] = getThreadIndex().computeIfAbsent(thread, k -> {
+            threads = Arrays.copyOf(threads, threads.length + 1);
+            threads[threads.length - 1] = k;
+            return threads.length - 1;
+        });
+        transferHosts[size] = getHostIndex().computeIfAbsent(host, k -> {
+            hosts = Arrays.copyOf(hosts, hosts.length + 1);
+            hosts[hosts.length - 1] = k;
+            return hosts.length - 1;
+        });
+        flags[size] = failed ? FAILED : 0;
+        size++;
+        return true;
+    }
+
+    /**
+     * Releases the unused capacity of the columns, before the metrics are stored.
+     */
+    public synchronized void trim() {
+        if (names.length == size) return;
+        names = Arrays.copyOf(names, size);
+        startTimes = Arrays.copyOf(startTimes, size);
+        durations = Arrays.copyOf(durations, size);
+        bytes = Arrays.copyOf(bytes, size);
+        transferThreads = Arrays.copyOf(transferThreads, size);
+        transferHosts = Arrays.copyOf(transferHosts, size);
+        flags = Arrays.copyOf(flags, size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= names.length) return;
+        int newCapacity = Math.max(INITIAL_CAPACITY, names.length * 2);
+        names = Arrays.copyOf(names, newCapacity);
+        startTimes = Arrays.copyOf(startTimes, newCapacity);
+        durations = Arrays.copyOf(durations, newCapacity);
+        bytes = Arrays.copyOf(bytes, newCapacity);
+        transferThreads = Arrays.copyOf(transferThreads, newCapacity);
+        transferHosts = Arrays.copyOf(transferHosts, newCapacity);
+        flags = Arrays.copyOf(flags, newCapacity);
+    }
+
+    private Map<String, Integer> getThreadIndex() {
+        if (threadIndex == null) threadIndex = createIndex(threads);
+        return threadIndex;
+    }
+
+    private Map<String, Integer> getHostIndex() {
+        if (hostIndex == null) hostIndex = createIndex(hosts);
+        return hostIndex;
+    }
+
+    private static Map<String, Integer> createIndex(String[] values) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            index.put(values[i], i);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TransferTimelineMetrics.class.getSimpleName() + "[", "]")
+                .add("size=" + size)
+                .add("threads=" + threads.length)
+                .add("hosts=" + hosts.length)
+                .toString();
+    }
+
+    /**
+     * Holds the number of transfers in flight starting with a given moment.
+     */
+    public static final class Concurrency {
+
+        private final long timestamp;
+        private final int count;
+
+        private Concurrency(long timestamp, int count) {
+            this.timestamp = timestamp;
+            this.count = count;
+        }
+
+        /**
+         * Returns the moment (milliseconds since epoch) when the number of transfers in flight changed.
+         *
+         * @return a positive integer
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Returns the number of transfers in flight.
+         *
+         * @return a positive integer
+         */
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return new StringJoiner(", ", Concurrency.class.getSimpleName() + "[", "]")
+                    .add("timestamp=" + timestamp)
+                    .add("count=" + count)
+                    .toString();
+        }
+    }
+}
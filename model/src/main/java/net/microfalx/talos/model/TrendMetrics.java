@@ -1,11 +1,13 @@
 package net.microfalx.talos.model;
 
+import com.esotericsoftware.kryo.serializers.VersionFieldSerializer;
 import net.microfalx.metrics.SeriesStore;
 import net.microfalx.resource.Resource;
 import org.apache.maven.execution.MavenSession;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -15,6 +17,12 @@ public class TrendMetrics extends AbstractSessionMetrics<TrendMetrics> {
 
     private Collection<TestSummaryMetrics> tests;
     private Collection<ArtifactSummaryMetrics> artifacts;
+    @VersionFieldSerializer.Since(1)
+    private TestTimeMetrics testTimes;
+    @VersionFieldSerializer.Since(2)
+    private Collection<RepositoryTransferMetrics> repositoryTransfers;
+    @VersionFieldSerializer.Since(3)
+    private MemoryMetrics memory;
 
     private SeriesStore virtualMachineMetrics = SeriesStore.memory();
     private SeriesStore serverMetrics = SeriesStore.memory();
@@ -42,6 +50,33 @@ public class TrendMetrics extends AbstractSessionMetrics<TrendMetrics> {
         return unmodifiableCollection(artifacts);
     }
 
+    /**
+     * Returns the duration of each test executed in this session.
+     *
+     * @return the test times, null if the session was recorded before the times were tracked
+     */
+    public TestTimeMetrics getTestTimes() {
+        return testTimes;
+    }
+
+    /**
+     * Returns the transfer metrics of each remote repository host used in this session.
+     *
+     * @return the transfers, null if the session was recorded before the transfers were tracked
+     */
+    public Collection<RepositoryTransferMetrics> getRepositoryTransfers() {
+        return repositoryTransfers != null ? unmodifiableCollection(repositoryTransfers) : null;
+    }
+
+    /**
+     * Returns the memory (heap) pressure of the Maven process in this session.
+     *
+     * @return the metrics, null if the session was recorded before the memory was tracked
+     */
+    public MemoryMetrics getMemory() {
+        return memory;
+    }
+
     public SeriesStore getVirtualMachineMetrics() {
         return virtualMachineMetrics;
     }
@@ -57,6 +92,9 @@ public class TrendMetrics extends AbstractSessionMetrics<TrendMetrics> {
         trendMetrics.serverMetrics = getAverageStore(sessionMetrics.getServerMetrics());
         trendMetrics.tests = TestSummaryMetrics.from(sessionMetrics.getTests());
         trendMetrics.artifacts = ArtifactSummaryMetrics.from(sessionMetrics.getArtifacts());
+        trendMetrics.testTimes = TestTimeMetrics.from(sessionMetrics.getTests());
+        trendMetrics.repositoryTransfers = new ArrayList<>(sessionMetrics.getRepositoryTransfers());
+        trendMetrics.memory = sessionMetrics.getMemory();
         return trendMetrics;
     }
 
@@ -0,0 +1,61 @@
+package net.microfalx.talos.model;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.metadata.DefaultMetadata;
+import org.eclipse.aether.metadata.Metadata;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArtifactMetricsTest {
+
+    @Test
+    void metadataDownload() throws InterruptedException {
+        DefaultMetadata metadata = new DefaultMetadata("net.microfalx.talos", "test", "1.0.0",
+                "maven-metadata.xml", Metadata.Nature.RELEASE);
+        ArtifactMetrics metrics = new ArtifactMetrics(metadata);
+        metrics.metadataDownloadStart(metadata);
+        Thread.sleep(5);
+        metrics.metadataDownloadStop(null);
+        assertTrue(metrics.getMetadataDownloadDuration().toMillis() >= 5);
+        assertEquals(1, metrics.getIntervalCount());
+        assertEquals(ArtifactMetrics.Operation.METADATA_DOWNLOAD, metrics.getIntervalOperation(0));
+    }
+
+    @Test
+    void interleaved() throws InterruptedException {
+        DefaultArtifact artifact1 = new DefaultArtifact("net.microfalx.talos", "test1", "jar", "1.0.0");
+        DefaultArtifact artifact2 = new DefaultArtifact("net.microfalx.talos", "test2", "jar", "1.0.0");
+        ArtifactMetrics metrics1 = new ArtifactMetrics(artifact1);
+        ArtifactMetrics metrics2 = new ArtifactMetrics(artifact2);
+        metrics1.artifactResolveStart(artifact1);
+        Thread.sleep(20);
+        metrics2.artifactResolveStart(artifact2);
+        metrics2.artifactResolveStop(artifact2, null);
+        metrics1.artifactResolveStop(artifact1, null);
+        assertTrue(metrics1.getArtifactResolveDuration().toMillis() >= 20);
+        assertTrue(metrics2.getArtifactResolveDuration().compareTo(metrics1.getArtifactResolveDuration()) < 0);
+        assertEquals(Duration.ZERO, metrics1.getArtifactInstallDuration());
+    }
+
+    @Test
+    void lookups() {
+        DefaultMetadata metadata = new DefaultMetadata("net.microfalx.talos", "test", null,
+                "maven-metadata.xml", Metadata.Nature.RELEASE);
+        ArtifactMetrics metrics = new ArtifactMetrics(metadata);
+        for (int i = 0; i < 3; i++) {
+            metrics.metadataResolveStart(metadata);
+            metrics.metadataResolveStop(null);
+        }
+        metrics.lookup(ArtifactMetrics.Lookup.LOCAL_HIT);
+        metrics.lookup(ArtifactMetrics.Lookup.UPDATE_CHECK);
+        metrics.lookup(ArtifactMetrics.Lookup.REMOTE_NOT_FOUND);
+        assertEquals(2, metrics.getRedundantMetadataResolveCount());
+        assertEquals(4, metrics.getAvoidableLookupCount());
+        assertEquals(100f / 3, ArtifactMetrics.getLocalHitRatio(List.of(metrics)), 0.01);
+    }
+}
@@ -0,0 +1,107 @@
+package net.microfalx.talos.model;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuildRegressionMetricsTest extends AbstractMetricsTest {
+
+    @Test
+    void detect() {
+        Collection<TrendMetrics> trends = new ArrayList<>();
+        int[] testTimes = {30, 31, 29, 32, 30};
+        for (int i = 0; i < testTimes.length; i++) {
+            trends.add(TrendMetrics.from(createSession(List.of("install"), i + 1, 60, 10, testTimes[i])));
+        }
+        SessionMetrics session = createSession(List.of("install"), 0, 75, 10, 45);
+        List<BuildRegressionMetrics> regressions = BuildRegressionMetrics.detect(session, trends, 10, 3.5, Duration.ofSeconds(1));
+        assertEquals(2, regressions.size());
+        BuildRegressionMetrics regression = regressions.get(0);
+        assertEquals(BuildRegressionMetrics.Type.SESSION, regression.getType());
+        assertEquals(Duration.ofSeconds(60), regression.getMedian());
+        assertEquals(25, regression.getIncreasePercent(), 0.01);
+        regression = regressions.get(1);
+        assertEquals(BuildRegressionMetrics.Type.LIFECYCLE, regression.getType());
+        assertEquals("Tests", regression.getName());
+        assertEquals(Duration.ofSeconds(30), regression.getMedian());
+        assertEquals(Duration.ofSeconds(1), regression.getDeviation());
+        assertEquals(5, regression.getSamples());
+        assertEquals(50, regression.getIncreasePercent(), 0.01);
+        assertEquals(10.12, regression.getScore(), 0.01);
+    }
+
+    @Test
+    void detectWithinDeviation() {
+        Collection<TrendMetrics> trends = new ArrayList<>();
+        int[] testTimes = {20, 40, 25, 35, 30};
+        for (int i = 0; i < testTimes.length; i++) {
+            trends.add(TrendMetrics.from(createSession(List.of("install"), i + 1, 60, 10, testTimes[i])));
+        }
+        SessionMetrics session = createSession(List.of("install"), 0, 60, 10, 36);
+        assertTrue(BuildRegressionMetrics.detect(session, trends, 10, 3.5, Duration.ofSeconds(1)).isEmpty());
+    }
+
+    @Test
+    void detectModuleMojo() {
+        Collection<TrendMetrics> trends = new ArrayList<>();
+        int[] compileTimes = {10, 11, 9, 10, 10};
+        for (int i = 0; i < compileTimes.length; i++) {
+            SessionMetrics session = createSession(List.of("install"), i + 1, 60, 10, 30);
+            addModule(session, "Core", 20);
+            addModule(session, "Web", compileTimes[i]);
+            trends.add(TrendMetrics.from(session));
+        }
+        SessionMetrics session = createSession(List.of("install"), 0, 60, 10, 30);
+        addModule(session, "Core", 20);
+        addModule(session, "Web", 15);
+        List<BuildRegressionMetrics> regressions = BuildRegressionMetrics.detect(session, trends, 10, 3.5, Duration.ofSeconds(1));
+        assertEquals(1, regressions.size());
+        BuildRegressionMetrics regression = regressions.get(0);
+        assertEquals(BuildRegressionMetrics.Type.MOJO, regression.getType());
+        assertEquals("compile (Web)", regression.getName());
+        assertEquals(Duration.ofSeconds(10), regression.getMedian());
+    }
+
+    @Test
+    void detectWithoutComparableBuilds() {
+        Collection<TrendMetrics> trends = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            trends.add(TrendMetrics.from(createSession(List.of("deploy"), i + 1, 60, 10, 30)));
+        }
+        SessionMetrics session = createSession(List.of("install"), 0, 120, 10, 90);
+        assertTrue(BuildRegressionMetrics.detect(session, trends, 10, 3.5, Duration.ofSeconds(1)).isEmpty());
+    }
+
+    @Test
+    void medianAbsoluteDeviation() {
+        assertEquals(1, StatisticsUtils.medianAbsoluteDeviation(new double[]{1, 1, 2, 2, 4, 6, 9}), 0.001);
+        assertTrue(Double.isNaN(StatisticsUtils.medianAbsoluteDeviation(new double[0])));
+    }
+
+    private SessionMetrics createSession(List<String> goals, int daysAgo, int duration, int compileTime, int testTime) {
+        DefaultMavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setGoals(goals);
+        MavenSession session = new MavenSession(null, request, new DefaultMavenExecutionResult(), createProject("Single"));
+        ZonedDateTime startTime = ZonedDateTime.now().minusDays(daysAgo);
+        SessionMetrics sessionMetrics = new SessionMetrics(session).setStartTime(startTime);
+        sessionMetrics.setEndTime(startTime.plusSeconds(duration));
+        sessionMetrics.setLifeCycles(List.of(new LifecycleMetrics("Compile").addActiveDuration(Duration.ofSeconds(compileTime)),
+                new LifecycleMetrics("Tests").addActiveDuration(Duration.ofSeconds(testTime))));
+        return sessionMetrics;
+    }
+
+    private void addModule(SessionMetrics session, String name, int compileTime) {
+        ProjectMetrics module = new ProjectMetrics(createProject(name));
+        module.addMojoDuration("compile", Duration.ofSeconds(compileTime));
+        session.addModule(module);
+    }
+}
@@ -0,0 +1,24 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChildProcessMetricsTest {
+
+    @Test
+    void update() {
+        ZonedDateTime startTime = ZonedDateTime.now();
+        ChildProcessMetrics process = new ChildProcessMetrics(100, "java", startTime);
+        process.update(startTime.plusSeconds(1), Duration.ofSeconds(2), 100_000);
+        process.update(startTime.plusSeconds(2), Duration.ofSeconds(6), 50_000);
+        assertEquals("100", process.getId());
+        assertEquals(Duration.ofSeconds(2), process.getDuration());
+        assertEquals(Duration.ofSeconds(6), process.getCpuTime());
+        assertEquals(100_000, process.getMaximumMemory());
+        assertEquals(3, process.getAverageCores(), 0.001);
+    }
+}
@@ -0,0 +1,75 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactSeriesTest {
+
+    @Test
+    void encode() {
+        CompactSeries series = new CompactSeries("heap", "Heap");
+        long timestamp = 1_700_000_000_000L;
+        float value = 100_000_000f;
+        for (int i = 0; i < 1000; i++) {
+            timestamp += i % 100 == 0 ? 5_000 : 100 + i % 3;
+            if (i % 10 == 0) value += i * 1024;
+            series.add(timestamp, i % 250 == 0 ? -value : value);
+        }
+        series.trim();
+        assertEquals(1000, series.getCount());
+        assertTrue(series.getSize() < 1000 * 4);
+        List<CompactSeries.Point> points = series.getPoints();
+        assertEquals(1000, points.size());
+        assertEquals(timestamp, points.get(999).getTimestamp());
+        assertEquals(value, points.get(999).getValue());
+        assertEquals(-100_000_000f, points.get(0).getValue());
+    }
+
+    @Test
+    void roundTrip() {
+        long[] timestamps = new long[2000];
+        float[] values = new float[timestamps.length];
+        Random random = new Random(42);
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < timestamps.length; i++) {
+            if (i % 500 == 499) {
+                // a delta of delta which does not fit in 12 bits
+                timestamp += 86_400_000L;
+            } else if (i % 7 == 0) {
+                timestamp += random.nextInt(3000);
+            } else {
+                timestamp += 100;
+            }
+            timestamps[i] = timestamp;
+            // alternate between two values, so the XOR window of the previous value is reused
+            values[i] = i % 11 < 4 ? (i % 2 == 0 ? 1.0f : 1.5f) : random.nextFloat() * random.nextInt(1_000_000);
+        }
+        values[100] = Float.NaN;
+        values[101] = -0.0f;
+        values[102] = Float.MAX_VALUE;
+        values[103] = Float.MIN_VALUE;
+        CompactSeries series = new CompactSeries("cpu", "CPU");
+        for (int i = 0; i < timestamps.length; i++) {
+            series.add(timestamps[i], values[i]);
+        }
+        series.trim();
+        List<CompactSeries.Point> points = series.getPoints();
+        assertEquals(timestamps.length, points.size());
+        for (int i = 0; i < timestamps.length; i++) {
+            assertEquals(timestamps[i], points.get(i).getTimestamp(), "Timestamp at " + i);
+            assertEquals(Float.floatToRawIntBits(values[i]), Float.floatToRawIntBits(points.get(i).getValue()),
+                    "Value at " + i);
+        }
+    }
+
+    @Test
+    void outOfOrder() {
+        CompactSeries series = new CompactSeries("cpu", "CPU");
+        series.add(1000, 1);
+        assertThrows(IllegalArgumentException.class, () -> series.add(999, 1));
+    }
+}
@@ -0,0 +1,60 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompileMetricsTest {
+
+    @Test
+    void throughput() {
+        CompileMetrics compile = create("module1", 100, Duration.ofSeconds(2));
+        assertEquals(50, compile.getThroughput(), 0.01);
+        assertEquals(5000, compile.getLineThroughput(), 0.01);
+        assertEquals(0, create("module2", 100, Duration.ofSeconds(2)).setClasses(0).getThroughput());
+    }
+
+    @Test
+    void detectSlow() {
+        CompileMetrics module1 = create("module1", 100, Duration.ofSeconds(1));
+        CompileMetrics module2 = create("module2", 200, Duration.ofSeconds(2));
+        CompileMetrics module3 = create("module3", 100, Duration.ofSeconds(10));
+        CompileMetrics module4 = create("module4", 5, Duration.ofSeconds(10));
+        CompileMetrics.detectSlow(List.of(module1, module2, module3, module4));
+        assertFalse(module1.isSlow());
+        assertFalse(module2.isSlow());
+        assertTrue(module3.isSlow());
+        assertFalse(module4.isSlow());
+    }
+
+    @Test
+    void phases() {
+        CompileMetrics compile = create("module1", 100, Duration.ofSeconds(1));
+        assertFalse(compile.hasPhases());
+        assertEquals(Duration.ZERO, compile.getPhaseDuration(CompileMetrics.Phase.PARSE));
+        compile.setPhaseDuration(CompileMetrics.Phase.PROCESS, Duration.ofMillis(300)).setRounds(2);
+        assertTrue(compile.hasPhases());
+        assertEquals(Duration.ofMillis(300), compile.getPhaseDuration(CompileMetrics.Phase.PROCESS));
+        assertEquals(Duration.ZERO, compile.getPhaseDuration(CompileMetrics.Phase.ANALYZE));
+        assertEquals(2, compile.getRounds());
+    }
+
+    @Test
+    void executions() {
+        CompileMetrics compile = new CompileMetrics("module1", "compile", "default-compile");
+        assertEquals("module1:compile", compile.getId());
+        assertEquals("module1 (compile)", compile.getName());
+        CompileMetrics release = new CompileMetrics("module1", "compile", "java17");
+        assertEquals("module1:compile@java17", release.getId());
+        assertEquals("module1 (compile@java17)", release.getName());
+        assertEquals("java17", release.getExecutionId());
+    }
+
+    private CompileMetrics create(String moduleId, int files, Duration duration) {
+        return new CompileMetrics(moduleId, "compile").addSources(files, files * 100L, false)
+                .setClasses(files).setDuration(duration);
+    }
+}
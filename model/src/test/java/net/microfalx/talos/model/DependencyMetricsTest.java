@@ -0,0 +1,58 @@
+package net.microfalx.talos.model;
+
+import org.apache.maven.model.Dependency;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DependencyMetricsTest {
+
+    @Test
+    void closure() {
+        DependencyMetrics direct = create("direct").setSize(1000).setDuration(Duration.ofMillis(10));
+        DependencyMetrics transitive1 = create("transitive1").setSize(2000).setDuration(Duration.ofMillis(20));
+        DependencyMetrics transitive2 = create("transitive2").setSize(3000);
+        direct.addTransitive(transitive1).addTransitive(transitive2).addTransitive(transitive1).addTransitive(direct);
+        direct.updateClosure(Map.of(direct.getId(), direct, transitive1.getId(), transitive1, transitive2.getId(), transitive2));
+        assertEquals(2, direct.getClosureCount());
+        assertEquals(5000, direct.getClosureSize());
+        assertEquals(6000, direct.getTotalSize());
+        assertEquals(Duration.ofMillis(30), direct.getTotalDuration());
+    }
+
+    @Test
+    void exclusiveClosure() {
+        DependencyMetrics direct1 = create("direct1").setSize(1000);
+        DependencyMetrics direct2 = create("direct2").setSize(1000);
+        DependencyMetrics shared = create("shared").setSize(2000);
+        DependencyMetrics exclusive = create("exclusive").setSize(3000).setDuration(Duration.ofMillis(30));
+        DependencyMetrics declared = create("declared").setSize(4000);
+        direct1.addTransitive(direct1).addTransitive(shared).addTransitive(exclusive).addTransitive(declared);
+        direct2.addTransitive(direct2).addTransitive(shared);
+        declared.addTransitive(declared);
+        Map<String, DependencyMetrics> dependencies = Map.of(direct1.getId(), direct1, direct2.getId(), direct2,
+                shared.getId(), shared, exclusive.getId(), exclusive, declared.getId(), declared);
+        direct1.updateClosure(dependencies);
+        direct2.updateClosure(dependencies);
+        assertEquals(3, direct1.getClosureCount());
+        assertEquals(9000, direct1.getClosureSize());
+        assertEquals(1, direct1.getExclusiveCount());
+        assertEquals(3000, direct1.getExclusiveSize());
+        assertEquals(Duration.ofMillis(30), direct1.getExclusiveDuration());
+        assertEquals(4000, direct1.getRemovalSize());
+        assertEquals(1, direct2.getClosureCount());
+        assertEquals(0, direct2.getExclusiveCount());
+        assertEquals(1000, direct2.getRemovalSize());
+    }
+
+    private DependencyMetrics create(String artifactId) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("net.microfalx.talos");
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion("1.0.0");
+        return new DependencyMetrics(dependency);
+    }
+}
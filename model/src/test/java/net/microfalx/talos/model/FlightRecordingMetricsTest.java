@@ -0,0 +1,36 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FlightRecordingMetricsTest {
+
+    @Test
+    void trim() {
+        FlightRecordingMetrics recording = new FlightRecordingMetrics("compiler", "Compiler");
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j <= i; j++) {
+                recording.addExecutionSample("method" + i);
+            }
+        }
+        recording.trim();
+        assertEquals(210, recording.getExecutionSamples());
+        assertEquals(FlightRecordingMetrics.MAXIMUM_ENTRIES, recording.getHotMethods().size());
+        assertEquals("method19", recording.getHotMethods().get(0).getKey());
+        assertEquals(20, recording.getHotMethods().get(0).getValue());
+    }
+
+    @Test
+    void fileIO() {
+        FlightRecordingMetrics recording = new FlightRecordingMetrics("jar", "Jar");
+        recording.addFileRead(1024, Duration.ofMillis(2));
+        recording.addFileWrite(4096, Duration.ofMillis(3));
+        recording.addFileRead(-1, Duration.ofMillis(1));
+        assertEquals(1024, recording.getFileReadBytes());
+        assertEquals(4096, recording.getFileWriteBytes());
+        assertEquals(Duration.ofMillis(6), recording.getFileTime());
+    }
+}
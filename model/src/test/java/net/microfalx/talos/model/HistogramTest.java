@@ -0,0 +1,50 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    @Test
+    void empty() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMinimum());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    void buckets() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 1000, 123_456_789}) {
+            int bucket = Histogram.getBucket(value);
+            assertTrue(Histogram.getBucketValue(bucket) >= value);
+            assertTrue(bucket == 0 || Histogram.getBucketValue(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    void percentiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1, histogram.getMinimum());
+        assertEquals(1000, histogram.getMaximum());
+        assertEquals(500, histogram.getAverage());
+        assertEquals(500, histogram.getPercentile(50), 500 * 0.07);
+        assertEquals(990, histogram.getPercentile(99), 990 * 0.07);
+        assertEquals(1000, histogram.getPercentile(100));
+    }
+
+    @Test
+    void add() {
+        Histogram histogram = new Histogram().record(10).record(20);
+        histogram.add(new Histogram().record(5000));
+        assertEquals(3, histogram.getCount());
+        assertEquals(10, histogram.getMinimum());
+        assertEquals(5000, histogram.getMaximum());
+    }
+}
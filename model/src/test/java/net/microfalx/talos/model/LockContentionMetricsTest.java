@@ -0,0 +1,23 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LockContentionMetricsTest {
+
+    @Test
+    void samples() {
+        LockContentionMetrics lock = new LockContentionMetrics("java.lang.Object");
+        lock.add(true, "Compiler", "Resources");
+        lock.add(true, "Surefire", "Compiler");
+        lock.add(false, "Surefire", null);
+        assertEquals(2, lock.getBlockedSamples());
+        assertEquals(1, lock.getWaitedSamples());
+        assertEquals(3, lock.getSamples());
+        assertEquals(List.of("Surefire", "Compiler"), lock.getWaiters());
+        assertEquals(2, lock.getOwners().size());
+    }
+}
@@ -0,0 +1,69 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static net.microfalx.talos.model.MemoryRecommendationMetrics.MEGABYTE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryRecommendationMetricsTest extends AbstractMetricsTest {
+
+    @Test
+    void recommend() {
+        MemoryMetrics memory = createMemory(600, 15, 16 * 1024);
+        MemoryRecommendationMetrics recommendation = MemoryRecommendationMetrics.recommend(memory, createTrends(700, 15));
+        assertNotNull(recommendation);
+        assertEquals(4, recommendation.getSamples());
+        assertEquals(700 * MEGABYTE, recommendation.getLiveSet());
+        assertEquals(2304 * MEGABYTE, recommendation.getRecommendedHeap());
+        assertTrue(recommendation.isChangeRecommended());
+        assertEquals("-Xmx2304m -XX:+UseParallelGC", recommendation.getOptions());
+        assertEquals(3030, recommendation.getProjectedGcTime().toMillis(), 10);
+        assertEquals(12, recommendation.getSavingsPercent(), 0.1);
+    }
+
+    @Test
+    void recommendWithoutPressure() {
+        MemoryMetrics memory = createMemory(600, 1, 16 * 1024);
+        MemoryRecommendationMetrics recommendation = MemoryRecommendationMetrics.recommend(memory, createTrends(700, 2));
+        assertNotNull(recommendation);
+        assertFalse(recommendation.isChangeRecommended());
+        assertEquals("", recommendation.getOptions());
+        assertEquals(Duration.ZERO, recommendation.getSavings());
+    }
+
+    @Test
+    void recommendWithLimitedMemory() {
+        MemoryMetrics memory = createMemory(600, 15, 3 * 1024);
+        MemoryRecommendationMetrics recommendation = MemoryRecommendationMetrics.recommend(memory, List.of());
+        assertNotNull(recommendation);
+        assertEquals(1536 * MEGABYTE, recommendation.getRecommendedHeap());
+        assertEquals("-Xmx1536m -XX:+UseParallelGC", recommendation.getOptions());
+    }
+
+    @Test
+    void recommendWithoutLiveSet() {
+        assertNull(MemoryRecommendationMetrics.recommend(createMemory(0, 15, 16 * 1024), List.of()));
+    }
+
+    private Collection<TrendMetrics> createTrends(long liveSet, int gcSeconds) {
+        Collection<TrendMetrics> trends = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            SessionMetrics session = create().setStartTime(ZonedDateTime.now().minusDays(i + 1));
+            session.setMemory(createMemory(liveSet, gcSeconds, 16 * 1024));
+            trends.add(TrendMetrics.from(session));
+        }
+        return trends;
+    }
+
+    private MemoryMetrics createMemory(long liveSet, int gcSeconds, long physicalMemory) {
+        return new MemoryMetrics(1024 * MEGABYTE, liveSet * MEGABYTE, Duration.ofSeconds(100))
+                .setGc("Copy, MarkSweepCompact", 100, Duration.ofSeconds(gcSeconds))
+                .setServer(physicalMemory * MEGABYTE, 4);
+    }
+}
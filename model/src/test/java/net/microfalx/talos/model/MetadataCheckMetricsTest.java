@@ -0,0 +1,70 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetadataCheckMetricsTest extends AbstractMetricsTest {
+
+    @Test
+    void fromArtifact() {
+        MetadataCheckMetrics metrics = MetadataCheckMetrics.from("net/microfalx/talos/talos-core/maven-metadata.xml");
+        assertNotNull(metrics);
+        assertEquals("net.microfalx.talos", metrics.getGroupId());
+        assertEquals("talos-core", metrics.getArtifactId());
+        assertNull(metrics.getVersion());
+        assertFalse(metrics.isSnapshot());
+    }
+
+    @Test
+    void fromSnapshot() {
+        MetadataCheckMetrics metrics = MetadataCheckMetrics.from("net/microfalx/talos/talos-core/1.0.0-SNAPSHOT/maven-metadata.xml");
+        assertNotNull(metrics);
+        assertEquals("net.microfalx.talos:talos-core:1.0.0-SNAPSHOT", metrics.getId());
+        assertTrue(metrics.isSnapshot());
+    }
+
+    @Test
+    void fromInvalid() {
+        assertNull(MetadataCheckMetrics.from("net/microfalx/talos/talos-core/1.0.0/talos-core-1.0.0.jar"));
+        assertNull(MetadataCheckMetrics.from("maven-metadata.xml"));
+    }
+
+    @Test
+    void record() {
+        MetadataCheckMetrics metrics = new MetadataCheckMetrics("net.microfalx", "talos", "1.0-SNAPSHOT");
+        metrics.record("repo1", Duration.ofMillis(10), false);
+        metrics.record("repo2", Duration.ofMillis(20), true);
+        assertEquals(2, metrics.getChecks());
+        assertEquals(1, metrics.getNotFound());
+        assertEquals(Duration.ofMillis(30), metrics.getDuration());
+        assertEquals(2, metrics.getRepositories().size());
+    }
+
+    @Test
+    void dailyPolicySavings() {
+        ZonedDateTime day = ZonedDateTime.now().minusDays(2).withHour(9);
+        Collection<TrendMetrics> trends = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            trends.add(createTrend(day.plusHours(i), 2));
+        }
+        trends.add(createTrend(day.plusDays(1), 5));
+        trends.add(createTrend(day.plusDays(1).plusHours(1), 1));
+        assertEquals(Duration.ofSeconds(5), MetadataCheckMetrics.getDailyPolicySavings(trends));
+        assertEquals(Duration.ZERO, MetadataCheckMetrics.getDailyPolicySavings(List.of(createTrend(day, 2))));
+    }
+
+    private TrendMetrics createTrend(ZonedDateTime startTime, int snapshotSeconds) {
+        SessionMetrics session = create().setStartTime(startTime);
+        RepositoryTransferMetrics transfers = new RepositoryTransferMetrics("repo.internal.com");
+        transfers.record(Duration.ofSeconds(snapshotSeconds), true, true, false, false);
+        session.setRepositoryTransfers(List.of(transfers));
+        return TrendMetrics.from(session);
+    }
+}
@@ -0,0 +1,74 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryRankingMetricsTest {
+
+    @Test
+    void rank() {
+        RepositoryTransferMetrics internal = new RepositoryTransferMetrics("repo.internal.com");
+        for (int i = 0; i < 20; i++) {
+            internal.record(Duration.ofMillis(50), Duration.ofMillis(50), 0, true);
+            internal.record(Duration.ofMillis(50), false, false, true, true);
+        }
+        RepositoryTransferMetrics central = new RepositoryTransferMetrics("repo.maven.apache.org");
+        for (int i = 0; i < 10; i++) {
+            central.record(Duration.ofMillis(10), Duration.ofMillis(20), 1024, false);
+            central.record(Duration.ofMillis(20), false, false, false, false);
+        }
+        List<RepositoryRankingMetrics> rankings = RepositoryRankingMetrics.rank(
+                List.of(URI.create("https://repo.internal.com/maven2"), URI.create("https://repo.maven.apache.org/maven2")),
+                List.of(internal, central), Collections.emptyList());
+        assertEquals(2, rankings.size());
+        assertEquals("repo.maven.apache.org", rankings.get(0).getId());
+        assertEquals(1, rankings.get(0).getPosition());
+        assertTrue(rankings.get(0).isMoved());
+        assertTrue(rankings.get(1).isMostlyNotFound());
+        assertTrue(RepositoryRankingMetrics.isReordered(rankings));
+    }
+
+    @Test
+    void rankByServedArtifacts() {
+        RepositoryTransferMetrics internal = new RepositoryTransferMetrics("repo.internal.com");
+        for (int i = 0; i < 10; i++) {
+            boolean notFound = i < 6;
+            internal.record(Duration.ofMillis(10), Duration.ofMillis(10), notFound ? 0 : 1024, notFound);
+            internal.record(Duration.ofMillis(10), false, false, notFound, notFound);
+        }
+        internal.setResolvedArtifacts(4);
+        RepositoryTransferMetrics central = new RepositoryTransferMetrics("repo.maven.apache.org");
+        for (int i = 0; i < 6; i++) {
+            central.record(Duration.ofMillis(20), Duration.ofMillis(30), 1024, false);
+            central.record(Duration.ofMillis(30), false, false, false, false);
+        }
+        central.setResolvedArtifacts(9);
+        List<RepositoryRankingMetrics> rankings = RepositoryRankingMetrics.rank(
+                List.of(URI.create("https://repo.internal.com/maven2"), URI.create("https://repo.maven.apache.org/maven2")),
+                List.of(internal, central), Collections.emptyList());
+        assertEquals("repo.maven.apache.org", rankings.get(0).getId());
+        assertEquals("repo.internal.com", rankings.get(1).getId());
+        assertFalse(rankings.get(1).isMostlyNotFound());
+        assertEquals(1, rankings.get(1).getRecommendedPosition());
+        assertTrue(rankings.get(1).isMoved());
+    }
+
+    @Test
+    void unknownRepository() {
+        RepositoryTransferMetrics mirror = new RepositoryTransferMetrics("mirror.com:8080");
+        mirror.record(Duration.ofMillis(10), Duration.ofMillis(20), 1024, false);
+        List<RepositoryRankingMetrics> rankings = RepositoryRankingMetrics.rank(
+                List.of(URI.create("http://mirror.com:8080/maven2"), URI.create("https://unused.com/maven2")),
+                List.of(mirror), Collections.emptyList());
+        assertEquals(2, rankings.size());
+        assertEquals(0, rankings.get(0).getRecommendedPosition());
+        assertEquals(1, rankings.get(0).getSessions());
+        assertFalse(RepositoryRankingMetrics.isReordered(rankings));
+    }
+}
@@ -0,0 +1,70 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StackSampleMetricsTest {
+
+    @Test
+    void flameGraph() {
+        StackSampleMetrics samples = new StackSampleMetrics("compiler", "Compiler");
+        samples.add(stack("main", "compile", "parse"));
+        samples.add(stack("main", "compile", "parse"));
+        samples.add(stack("main", "compile", "generate"));
+        samples.add(stack("main", "test"));
+        assertEquals(4, samples.getSampleCount());
+        assertEquals(5, samples.getNodeCount());
+        assertEquals(5, samples.getFrameCount());
+        StackSampleMetrics.Frame root = samples.getFlameGraph();
+        assertEquals(4, root.getValue());
+        StackSampleMetrics.Frame main = root.getChildren().get(0);
+        assertEquals("Test.main", main.getName());
+        assertEquals(2, main.getChildren().size());
+        assertEquals(3, main.getChildren().get(0).getValue());
+        List<StackSampleMetrics.Frame> hotFrames = samples.getHotFrames(2);
+        assertEquals(2, hotFrames.size());
+        assertEquals("Test.parse", hotFrames.get(0).getName());
+        assertEquals(2, hotFrames.get(0).getValue());
+    }
+
+    @Test
+    void bounded() {
+        StackSampleMetrics samples = new StackSampleMetrics("compiler", "Compiler");
+        String[] methods = new String[StackSampleMetrics.MAXIMUM_NODES + 10];
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = "method" + i;
+        }
+        samples.add(stack(methods));
+        samples.add(stack("main"));
+        assertEquals(2, samples.getSampleCount());
+        assertEquals(2, samples.getTruncatedCount());
+        assertEquals(StackSampleMetrics.MAXIMUM_NODES - 1, samples.getNodeCount());
+    }
+
+    @Test
+    void truncated() {
+        StackSampleMetrics samples = new StackSampleMetrics("compiler", "Compiler");
+        samples.add(stack("main", "compile", "visit"));
+        samples.add(stack("visit", "visit", "visit"), true);
+        samples.add(stack("visit", "visit", "visit"), true);
+        StackSampleMetrics.Frame root = samples.getFlameGraph();
+        assertEquals(3, root.getValue());
+        assertEquals(2, root.getChildren().size());
+        StackSampleMetrics.Frame truncated = root.getChildren().stream()
+                .filter(frame -> frame.getName().equals(StackSampleMetrics.TRUNCATED_FRAME)).findFirst().orElseThrow();
+        assertEquals(2, truncated.getValue());
+        assertEquals("Test.visit", truncated.getChildren().get(0).getName());
+        assertEquals(0, samples.getTruncatedCount());
+    }
+
+    private StackTraceElement[] stack(String... methods) {
+        StackTraceElement[] stackTrace = new StackTraceElement[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            stackTrace[methods.length - i - 1] = new StackTraceElement("Test", methods[i], "Test.java", i);
+        }
+        return stackTrace;
+    }
+}
@@ -0,0 +1,41 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestRegressionMetricsTest extends AbstractMetricsTest {
+
+    @Test
+    void detect() {
+        Collection<TrendMetrics> trends = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            SessionMetrics session = create().setStartTime(ZonedDateTime.now().minusDays(i + 1));
+            session.setTests(List.of(createTest("slow", 1), createTest("stable", 1)));
+            trends.add(TrendMetrics.from(session));
+        }
+        List<TestMetrics> tests = List.of(createTest("slow", 5), createTest("stable", 1.1f));
+        List<TestRegressionMetrics> regressions = TestRegressionMetrics.detect(tests, trends, 2, Duration.ofMillis(100));
+        assertEquals(1, regressions.size());
+        assertEquals("slow", regressions.get(0).getName());
+        assertEquals(5, regressions.get(0).getRatio(), 0.01);
+        assertEquals(5, regressions.get(0).getSamples());
+    }
+
+    @Test
+    void detectWithoutHistory() {
+        List<TestMetrics> tests = List.of(createTest("slow", 5));
+        assertTrue(TestRegressionMetrics.detect(tests, List.of(), 2, Duration.ofMillis(100)).isEmpty());
+    }
+
+    private TestMetrics createTest(String name, float time) {
+        return new TestMetrics("single", "net.microfalx.talos.SampleTest", name).setTime(time);
+    }
+}
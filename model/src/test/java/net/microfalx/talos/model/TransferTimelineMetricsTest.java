@@ -0,0 +1,37 @@
+package net.microfalx.talos.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransferTimelineMetricsTest {
+
+    @Test
+    void add() {
+        TransferTimelineMetrics timeline = new TransferTimelineMetrics();
+        timeline.add("a/b/1.0/b-1.0.jar", "repo1", "Thread 1", 1000, Duration.ofMillis(100), 2048, false);
+        timeline.add("a/c/1.0/c-1.0.pom", "repo1", "Thread 2", 1050, Duration.ofMillis(10), 0, true);
+        assertEquals(2, timeline.getSize());
+        assertEquals("Thread 2", timeline.getThread(1));
+        assertEquals(1100, timeline.getEndTime(0));
+        assertEquals(2, timeline.getThreads().size());
+        assertTrue(timeline.isFailed(1));
+    }
+
+    @Test
+    void concurrency() {
+        TransferTimelineMetrics timeline = new TransferTimelineMetrics();
+        timeline.add("a", "repo1", "Thread 1", 0, Duration.ofMillis(100), 0, false);
+        timeline.add("b", "repo1", "Thread 2", 50, Duration.ofMillis(100), 0, false);
+        timeline.add("c", "repo1", "Thread 1", 100, Duration.ofMillis(100), 0, false);
+        List<TransferTimelineMetrics.Concurrency> concurrency = timeline.getConcurrency();
+        assertEquals(5, concurrency.size());
+        assertEquals(2, timeline.getMaximumConcurrency());
+        assertEquals(1.5, timeline.getAverageConcurrency(), 0.01);
+        assertEquals(0, concurrency.get(concurrency.size() - 1).getCount());
+    }
+}
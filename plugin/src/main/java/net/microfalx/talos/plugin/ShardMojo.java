@@ -0,0 +1,189 @@
+package net.microfalx.talos.plugin;
+
+import net.microfalx.resource.Resource;
+import net.microfalx.talos.core.MavenStorage;
+import net.microfalx.talos.core.MavenUtils;
+import net.microfalx.talos.junit.ShardPlanner;
+import net.microfalx.talos.model.StatisticsUtils;
+import net.microfalx.talos.model.TestTimeMetrics;
+import net.microfalx.talos.model.TrendMetrics;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static net.microfalx.lang.FileUtils.validateDirectoryExists;
+
+/**
+ * Creates a plan to split the tests of a project in a number of shards with (almost) equal duration, based on the
+ * duration of the test classes in previous builds (trends).
+ * <p>
+ * Each module receives two include files for each shard, one with the unit tests (<code>target/talos-shards/shard-N.txt</code>,
+ * passed to Surefire with <code>-Dsurefire.includesFile</code>) and one with the integration tests
+ * (<code>target/talos-shards/failsafe-shard-N.txt</code>, passed to Failsafe with <code>-Dfailsafe.includesFile</code>),
+ * matched with the default includes of each plugin.
+ */
+@Mojo(name = "shard", aggregator = true, threadSafe = true)
+public class ShardMojo extends AbstractMojo {
+
+    private static final Pattern SUREFIRE_CLASS_PATTERN = Pattern.compile("^(Test.*|.*Test|.*Tests|.*TestCase)$");
+    private static final Pattern FAILSAFE_CLASS_PATTERN = Pattern.compile("^(IT.*|.*IT|.*ITCase)$");
+    private static final Duration DEFAULT_DURATION = Duration.ofSeconds(1);
+    private static final String NO_TESTS_PATTERN = "talos/shard/NoTests.java";
+
+    /**
+     * The number of shards.
+     */
+    @Parameter(defaultValue = "2", property = "talos.shard.count")
+    private int shards;
+
+    /**
+     * The maximum number of previous builds (most recent first) used to calculate the duration of a test class.
+     */
+    @Parameter(defaultValue = "10", property = "talos.shard.builds")
+    private int builds;
+
+    /**
+     * The directory (relative to the build directory of each module) where the include files are stored.
+     */
+    @Parameter(defaultValue = "talos-shards", property = "talos.shard.directory")
+    private String directory;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        getLog().info("Plan " + shards + " test shard(s) using the last " + builds + " build(s)");
+        Map<String, Map<String, Duration>> durations = getHistoricalDurations();
+        ShardPlanner planner = new ShardPlanner(shards);
+        for (MavenProject module : getProjects()) {
+            registerTestClasses(planner, module, durations.getOrDefault(module.getArtifactId(), Collections.emptyMap()));
+        }
+        List<ShardPlanner.Shard> plan = planner.plan();
+        for (ShardPlanner.Shard shard : plan) {
+            getLog().info(" - Shard " + shard.getIndex() + ": " + shard.getTestClasses().size() + " test classes, "
+                          + MavenUtils.formatDuration(shard.getDuration(), false, false));
+        }
+        if (isDryRun()) return;
+        for (MavenProject module : getProjects()) {
+            writeIncludeFiles(module, plan);
+        }
+    }
+
+    private void registerTestClasses(ShardPlanner planner, MavenProject module, Map<String, Duration> durations) {
+        Set<String> classNames = getTestClasses(module);
+        if (classNames.isEmpty()) classNames = durations.keySet();
+        Duration defaultDuration = getDefaultDuration(durations);
+        for (String className : classNames) {
+            Duration duration = durations.getOrDefault(className, defaultDuration);
+            if (isDebug()) getLog().info(" - " + module.getArtifactId() + ":" + className + " = " + duration);
+            planner.add(module.getArtifactId(), className, duration);
+        }
+    }
+
+    private void writeIncludeFiles(MavenProject module, List<ShardPlanner.Shard> plan) throws MojoExecutionException {
+        File shardDirectory = validateDirectoryExists(new File(new File(module.getBuild().getDirectory()), directory));
+        for (ShardPlanner.Shard shard : plan) {
+            List<ShardPlanner.TestClass> testClasses = shard.getTestClasses(module.getArtifactId());
+            writeIncludeFile(new File(shardDirectory, "shard-" + shard.getIndex() + ".txt"), shard, plan.size(),
+                    testClasses.stream().filter(testClass -> !isIntegrationTest(testClass.getClassName())).collect(Collectors.toList()));
+            writeIncludeFile(new File(shardDirectory, "failsafe-shard-" + shard.getIndex() + ".txt"), shard, plan.size(),
+                    testClasses.stream().filter(testClass -> isIntegrationTest(testClass.getClassName())).collect(Collectors.toList()));
+        }
+    }
+
+    private void writeIncludeFile(File file, ShardPlanner.Shard shard, int shardCount, List<ShardPlanner.TestClass> testClasses) throws MojoExecutionException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Shard " + shard.getIndex() + " of " + shardCount + ", expected duration "
+                  + MavenUtils.formatDuration(shard.getDuration(), false, false));
+        testClasses.stream().map(ShardPlanner.TestClass::getIncludePattern).distinct().sorted().forEach(lines::add);
+        // an empty include file would run all the tests, so include a class which does not exist
+        if (testClasses.isEmpty()) lines.add(NO_TESTS_PATTERN);
+        try {
+            Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to write shard include file " + file, e);
+        }
+    }
+
+    private Set<String> getTestClasses(MavenProject module) {
+        String testSourceDirectory = module.getBuild().getTestSourceDirectory();
+        if (testSourceDirectory == null) return Collections.emptySet();
+        Path root = new File(testSourceDirectory).toPath();
+        if (!Files.isDirectory(root)) return Collections.emptySet();
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(".java"))
+                    .map(path -> root.relativize(path).toString())
+                    .map(path -> path.substring(0, path.length() - 5).replace(File.separatorChar, '.'))
+                    .filter(className -> isUnitTest(className) || isIntegrationTest(className))
+                    .collect(Collectors.toCollection(TreeSet::new));
+        } catch (IOException e) {
+            getLog().warn("Failed to discover test classes in " + root + ", root cause: " + e.getMessage());
+            return Collections.emptySet();
+        }
+    }
+
+    private static boolean isUnitTest(String className) {
+        return SUREFIRE_CLASS_PATTERN.matcher(getSimpleName(className)).matches();
+    }
+
+    private static boolean isIntegrationTest(String className) {
+        return FAILSAFE_CLASS_PATTERN.matcher(getSimpleName(className)).matches();
+    }
+
+    private static String getSimpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private Map<String, Map<String, Duration>> getHistoricalDurations() {
+        Map<String, Map<String, List<Double>>> times = new HashMap<>();
+        for (TrendMetrics trend : getTrends()) {
+            TestTimeMetrics testTimes = trend.getTestTimes();
+            for (int i = 0; i < testTimes.getClassCount(); i++) {
+                times.computeIfAbsent(testTimes.getClassModuleId(i), k -> new HashMap<>())
+                        .computeIfAbsent(testTimes.getClassName(i), k -> new ArrayList<>())
+                        .add((double) testTimes.getClassTime(i));
+            }
+        }
+        Map<String, Map<String, Duration>> durations = new HashMap<>();
+        times.forEach((moduleId, classTimes) -> classTimes.forEach((className, values) -> {
+            double median = StatisticsUtils.median(values.stream().mapToDouble(Double::doubleValue).toArray());
+            durations.computeIfAbsent(moduleId, k -> new HashMap<>()).put(className, Duration.ofMillis((long) (median * 1000)));
+        }));
+        return durations;
+    }
+
+    private Collection<TrendMetrics> getTrends() {
+        List<TrendMetrics> trends = new ArrayList<>();
+        try {
+            for (Resource resource : MavenStorage.getLocalTrends(session)) {
+                try {
+                    TrendMetrics trend = TrendMetrics.load(resource);
+                    if (trend.getTestTimes() != null && trend.getStartTime() != null) trends.add(trend);
+                } catch (IOException e) {
+                    getLog().warn("Failed to load trend " + resource.getFileName() + ", root cause: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            getLog().warn("Failed to list trends, root cause: " + e.getMessage());
+        }
+        trends.sort(Comparator.comparing(TrendMetrics::getStartTime).reversed());
+        if (trends.isEmpty()) getLog().warn("No previous builds available, all test classes have the same duration");
+        return trends.subList(0, Math.min(builds, trends.size()));
+    }
+
+    private Duration getDefaultDuration(Map<String, Duration> durations) {
+        if (durations.isEmpty()) return DEFAULT_DURATION;
+        double[] values = durations.values().stream().mapToDouble(Duration::toMillis).toArray();
+        return Duration.ofMillis((long) StatisticsUtils.median(values));
+    }
+}
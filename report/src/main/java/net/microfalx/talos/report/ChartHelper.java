@@ -13,6 +13,7 @@ import java.time.ZonedDateTime;
 import java.time.temporal.Temporal;
 import java.util.*;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.util.Collections.unmodifiableCollection;
 import static java.util.Collections.unmodifiableList;
@@ -23,6 +24,8 @@ import static net.microfalx.lang.TimeUtils.toMillis;
 
 public class ChartHelper {
 
+    private static final int MAXIMUM_TIMELINE_TASKS = 2000;
+    private static final int MAXIMUM_COMPILES = 50;
     private static final long offsetMillis = ZonedDateTime.now().getOffset().getTotalSeconds() * TimeUtils.MILLISECONDS_IN_SECOND;
 
     private final SessionMetrics session;
@@ -132,6 +135,64 @@ public class ChartHelper {
         return chart;
     }
 
+    public ColumnChart<Long> getTransferLatencyDistributionColumnChart(String id) {
+        ColumnChart<Long> chart = new ColumnChart<>(id, "Transfer Latency Distribution");
+        chart.setSeriesName("Transfers");
+        chart.getLegend().setShow(false);
+        List<Long> values = reportHelper.getTransferLatencyDistribution();
+        for (int index = 0; index < values.size(); index++) {
+            chart.add(ReportHelper.DURATION_BUCKET_NAMES[index], values.get(index));
+        }
+        return chart;
+    }
+
+    public TimelineChart getTransferTimelineChart(String id) {
+        TimelineChart chart = new TimelineChart(id, "Transfer Timeline");
+        TransferTimelineMetrics timeline = session.getTransferTimeline();
+        List<Integer> positions = new ArrayList<>();
+        for (int position = 0; position < timeline.getSize(); position++) {
+            positions.add(position);
+        }
+        positions.sort(Comparator.comparing(timeline::getDuration).reversed());
+        for (Integer position : positions.subList(0, Math.min(MAXIMUM_TIMELINE_TASKS, positions.size()))) {
+            chart.add(timeline.getHost(position), timeline.getThread(position), timeline.getName(position),
+                    toMillisLocalZone(timeline.getStartTime(position)), toMillisLocalZone(timeline.getEndTime(position)));
+        }
+        chart.setHeight(Math.max(250, 100 + 25 * timeline.getThreads().size()));
+        return chart;
+    }
+
+    public AreaChart<Long, Float> getTransferConcurrency(String id) {
+        AreaChart<Long, Float> chart = new AreaChart<>(id, "Transfers In Flight");
+        Series<Long, Float> series = new Series<>("Transfers");
+        int previousCount = 0;
+        for (TransferTimelineMetrics.Concurrency concurrency : session.getTransferTimeline().getConcurrency()) {
+            long timestamp = toMillisLocalZone(concurrency.getTimestamp());
+            series.add(timestamp, (float) previousCount);
+            series.add(timestamp, (float) concurrency.getCount());
+            previousCount = concurrency.getCount();
+        }
+        chart.add(series);
+        return chart;
+    }
+
+    public StackedBarChart<Long> getCompilePhasesChart(String id) {
+        StackedBarChart<Long> chart = new StackedBarChart<>(id, "Compiler Phases");
+        List<CompileMetrics> compiles = reportHelper.getCompiles().stream().filter(CompileMetrics::hasPhases)
+                .limit(MAXIMUM_COMPILES).collect(Collectors.toList());
+        for (CompileMetrics.Phase phase : CompileMetrics.Phase.values()) {
+            Series<String, Long> series = new Series<>(phase.getLabel());
+            for (CompileMetrics compile : compiles) {
+                series.add(reportHelper.getModuleName(compile.getModuleId()) + " (" + compile.getGoal() + ")",
+                        compile.getPhaseDuration(phase).toMillis());
+            }
+            chart.add(series);
+        }
+        chart.setHeight(Math.max(250, 100 + 25 * compiles.size()));
+        chart.getYaxis().setUnit(Unit.DURATION);
+        return chart;
+    }
+
     public AreaChart<Long, Float> getSessionServerCpu(String id) {
         return getServerCpu(id, session.getServerMetrics());
     }
@@ -262,6 +323,24 @@ public class ChartHelper {
         return chart;
     }
 
+    public AreaChart<Long, Float> getSessionSampledCpu(String id) {
+        AreaChart<Long, Float> chart = new AreaChart<>(id, "CPU (Samples)");
+        chart.add(convert("Process", session.getResourceSeries(SessionMetrics.RESOURCE_PROCESS_CPU)));
+        chart.add(convert("System", session.getResourceSeries(SessionMetrics.RESOURCE_SYSTEM_CPU)));
+        chart.add(convert("GC", session.getResourceSeries(SessionMetrics.RESOURCE_GC)));
+        chart.getYaxis().setUnit(Unit.PERCENT);
+        return chart;
+    }
+
+    public AreaChart<Long, Float> getSessionSampledMemory(String id) {
+        AreaChart<Long, Float> chart = new AreaChart<>(id, "Heap (Samples)");
+        chart.add(convert("Committed", session.getResourceSeries(SessionMetrics.RESOURCE_HEAP_COMMITTED)));
+        chart.add(convert("Used", session.getResourceSeries(SessionMetrics.RESOURCE_HEAP_USED)));
+        chart.add(convert("Live", session.getResourceSeries(SessionMetrics.RESOURCE_HEAP_LIVE)));
+        chart.getYaxis().setUnit(Unit.BYTE);
+        return chart;
+    }
+
     public AreaChart<Long, Float> getSessionProcessThreads(String id) {
         return getProcessThreads(id, session.getVirtualMachineMetrics());
     }
@@ -412,6 +491,10 @@ public class ChartHelper {
         return series;
     }
 
+    private static Series<Long, Float> convert(String name, CompactSeries compactSeries) {
+        return convert(name, compactSeries.getPoints(), CompactSeries.Point::getTimestamp, CompactSeries.Point::getValue);
+    }
+
     private static <T> Series<Long, Float> convert(String name, Iterable<T> items, Function<T, Long> timestampFunction,
                                                    Function<T, Float> valueFunction) {
         Series<Long, Float> series = new Series<>(name);
@@ -745,6 +828,83 @@ public class ChartHelper {
         }
     }
 
+    public static class StackedBarChart<N extends Number> extends MultiSeriesChart<String, N> {
+
+        public StackedBarChart(String id, String name) {
+            super(id, name);
+        }
+    }
+
+    public static class TimelineChart extends Chart {
+
+        private final Map<String, TimelineSeries> series = new LinkedHashMap<>();
+
+        public TimelineChart(String id, String name) {
+            super(id, name);
+        }
+
+        public Collection<TimelineSeries> getSeries() {
+            return unmodifiableCollection(series.values());
+        }
+
+        public TimelineChart add(String series, String row, String name, long startTime, long endTime) {
+            requireNonNull(series);
+            this.series.computeIfAbsent(series, TimelineSeries::new).add(new Task(row, name, startTime, endTime));
+            return this;
+        }
+    }
+
+    public static class TimelineSeries implements Nameable {
+
+        private final String name;
+        private final Collection<Task> data = new ArrayList<>();
+
+        public TimelineSeries(String name) {
+            requireNonNull(name);
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        public Collection<Task> getData() {
+            return data;
+        }
+
+        private void add(Task task) {
+            data.add(task);
+        }
+    }
+
+    public static class Task {
+
+        private final String x;
+        private final String name;
+        private final long[] y;
+
+        public Task(String x, String name, long startTime, long endTime) {
+            requireNonNull(x);
+            requireNonNull(name);
+            this.x = x;
+            this.name = name;
+            this.y = new long[]{startTime, endTime};
+        }
+
+        public String getX() {
+            return x;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long[] getY() {
+            return y;
+        }
+    }
+
     public static class TreeMapChart<N extends Number> extends DataChart<String, N> {
 
         public TreeMapChart(String id, String name) {
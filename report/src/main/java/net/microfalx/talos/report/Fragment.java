@@ -81,6 +81,8 @@ public class Fragment implements Identifiable<String>, Nameable {
                 return "fa-solid fa-triangle-exclamation";
             case PERFORMANCE:
                 return "fa-solid fa-flag-checkered";
+            case PROFILER:
+                return "fa-solid fa-fire";
             case PLUGINS:
                 return "fa-solid fa-plug";
             case PROJECT:
@@ -185,6 +187,11 @@ public class Fragment implements Identifiable<String>, Nameable {
          */
         PERFORMANCE,
 
+        /**
+         * Stack traces sampled while mojos were executing (flame graphs)
+         */
+        PROFILER,
+
         /**
          * Information about environment (OS, Server, Processes)
          */
@@ -145,6 +145,78 @@ public class ReportHelper {
                 .collect(Collectors.toList());
     }
 
+    public Collection<CompileMetrics> getCompiles() {
+        List<CompileMetrics> compiles = new ArrayList<>(session.getCompiles());
+        compiles.sort(Comparator.comparing(CompileMetrics::getDuration).reversed());
+        return compiles;
+    }
+
+    public Collection<StackSampleMetrics> getStackSamples() {
+        return session.getStackSamples().stream().filter(samples -> samples.getSampleCount() > 0)
+                .sorted(Comparator.comparing(StackSampleMetrics::getSampleCount).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public Collection<FlightRecordingMetrics> getFlightRecordings() {
+        return session.getFlightRecordings().stream()
+                .sorted(Comparator.comparing(FlightRecordingMetrics::getExecutionSamples).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public Collection<LockContentionMetrics> getLockContentions() {
+        return session.getLockContentions().stream()
+                .sorted(Comparator.comparing(LockContentionMetrics::getSamples).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public Collection<MojoMetrics> getContendedMojos() {
+        return session.getMojos().stream()
+                .filter(m -> m.getBlockedCount() > 0 || m.getWaitedCount() > 0)
+                .sorted(Comparator.comparing((MojoMetrics m) -> m.getBlockedTime().plus(m.getWaitedTime())).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public Collection<ChildProcessMetrics> getProcesses() {
+        return session.getProcesses().stream()
+                .sorted(Comparator.comparing(ChildProcessMetrics::getCpuTime).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public Collection<MojoMetrics> getIoMojos() {
+        return session.getMojos().stream()
+                .filter(m -> m.getReadBytes() > 0 || m.getWriteBytes() > 0)
+                .sorted(Comparator.comparing((MojoMetrics m) -> m.getReadBytes() + m.getWriteBytes()).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public Collection<MojoMetrics> getNotThreadSafeMojos() {
+        return session.getMojos().stream().filter(m -> !m.isThreadSafe())
+                .sorted(Comparator.comparing(MojoMetrics::getSerializedTime).thenComparing(MojoMetrics::getActiveDuration).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public boolean hasCompilePhases() {
+        return session.getCompiles().stream().anyMatch(CompileMetrics::hasPhases);
+    }
+
+    public String getModuleName(String moduleId) {
+        return session.getModule(moduleId).getName();
+    }
+
+    public Collection<DependencyMetrics> getDependencyClosures() {
+        return session.getDependencies().stream()
+                .filter(dependencyMetrics -> !dependencyMetrics.isTransitive() && dependencyMetrics.getTotalSize() > 0)
+                .sorted(Comparator.comparing(DependencyMetrics::getRemovalSize)
+                        .thenComparing(DependencyMetrics::getTotalSize).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public Collection<DependencyMetrics> getVersionConflicts() {
+        return session.getDependencies().stream().filter(dependencyMetrics -> dependencyMetrics.getVersions().size() > 1)
+                .sorted(Comparator.comparing(Dependency::getGroupId).thenComparing(Dependency::getArtifactId))
+                .collect(Collectors.toList());
+    }
+
     public Collection<DependencyDetails> getDependencyDetails(boolean transitive, boolean sortByCount) {
         Map<String, ReportHelper.DependencyDetails> dependencies = new HashMap<>();
         for (DependencyMetrics dependencyMetrics : getDependencies(transitive)) {
@@ -167,6 +239,17 @@ public class ReportHelper {
         return artifacts;
     }
 
+    public Collection<ArtifactMetrics> getRepositoryHotspots() {
+        List<ArtifactMetrics> artifacts = session.getArtifacts().stream().filter(a -> a.getAvoidableLookupCount() > 0)
+                .sorted(Comparator.comparing(ArtifactMetrics::getAvoidableLookupCount).reversed())
+                .collect(Collectors.toList());
+        return session.isVerbose() ? artifacts : artifacts.subList(0, Math.min(MAXIMUM_REPOSITORY_HOTSPOTS, artifacts.size()));
+    }
+
+    public float getLocalHitRatio() {
+        return ArtifactMetrics.getLocalHitRatio(session.getArtifacts());
+    }
+
     public Collection<ProjectMetrics> getModules() {
         List<ProjectMetrics> artifacts = new ArrayList<>(session.getModules());
         artifacts.sort(Comparator.comparing(NamedIdentityAware::getName));
@@ -260,23 +343,46 @@ public class ReportHelper {
     public List<Integer> getTestDurationDistribution() {
         int[] buckets = new int[DURATION_BUCKETS_LENGTH];
         for (TestMetrics testMetrics : session.getTests()) {
-            long duration = (long) (testMetrics.getTime() * 1000);
-            if (duration > DURATION_BUCKETS[DURATION_BUCKETS_LENGTH - 1]) {
-                buckets[DURATION_BUCKETS_LENGTH - 1]++;
-            } else if (duration < DURATION_BUCKETS[0]) {
-                buckets[0]++;
-            } else {
-                for (int index = DURATION_BUCKETS_LENGTH - 2; index >= 0; index--) {
-                    if (duration >= DURATION_BUCKETS[index]) {
-                        buckets[index == 0 ? index + 1 : index]++;
-                        break;
-                    }
-                }
+            buckets[getDurationBucket((long) (testMetrics.getTime() * 1000))]++;
+        }
+        return Arrays.stream(buckets).boxed().collect(Collectors.toList());
+    }
+
+    public Collection<RepositoryTransferMetrics> getRepositoryTransfers() {
+        List<RepositoryTransferMetrics> repositoryTransfers = new ArrayList<>(session.getRepositoryTransfers());
+        repositoryTransfers.sort(Comparator.comparing(RepositoryTransferMetrics::getTransfers).reversed());
+        return repositoryTransfers;
+    }
+
+    public boolean isRepositoryReordered() {
+        return RepositoryRankingMetrics.isReordered(session.getRepositoryRankings());
+    }
+
+    public List<Long> getTransferLatencyDistribution() {
+        long[] buckets = new long[DURATION_BUCKETS_LENGTH];
+        for (RepositoryTransferMetrics repositoryTransfer : session.getRepositoryTransfers()) {
+            Histogram latency = repositoryTransfer.getLatency();
+            for (int bucket = 0; bucket < latency.getBucketCount(); bucket++) {
+                long count = latency.getCount(bucket);
+                if (count > 0) buckets[getDurationBucket(Histogram.getBucketValue(bucket) / 1000)] += count;
             }
         }
         return Arrays.stream(buckets).boxed().collect(Collectors.toList());
     }
 
+    private static int getDurationBucket(long duration) {
+        if (duration > DURATION_BUCKETS[DURATION_BUCKETS_LENGTH - 1]) {
+            return DURATION_BUCKETS_LENGTH - 1;
+        } else if (duration < DURATION_BUCKETS[0]) {
+            return 0;
+        } else {
+            for (int index = DURATION_BUCKETS_LENGTH - 2; index >= 0; index--) {
+                if (duration >= DURATION_BUCKETS[index]) return index == 0 ? index + 1 : index;
+            }
+            return 0;
+        }
+    }
+
     public String getLogAsHtml() {
         AnsiToHtml ansiToHtml = new AnsiToHtml();
         try {
@@ -461,6 +567,8 @@ public class ReportHelper {
         }
     }
 
+    private static final int MAXIMUM_REPOSITORY_HOTSPOTS = 25;
+
     static final long[] DURATION_BUCKETS = new long[]{
             1, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 30_000, 60_000
     };